@@ -0,0 +1,103 @@
+package com.memo.game.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.memo.game.dto.MoveEvent;
+import com.memo.game.dto.MultiPlayerMessage;
+import com.memo.game.gameModel.MultiPlayer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JSON and CBOR encodings of the STOMP game traffic, through the same converters the
+ * broker uses. {@code move} is the compact event broadcast after every flip, {@code snapshot} is the
+ * full state sent on join, resync and resume, whose board grows with the number of pairs.
+ * The encoded size of both messages is printed once per trial.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MessageEncodingBenchmark {
+    @Param({"8", "32", "512"})
+    public int numberOfPairs;
+
+    @Param({"json", "cbor"})
+    public String encoding;
+
+    private MappingJackson2MessageConverter converter;
+    private MessageHeaders headers;
+    private MoveEvent move;
+    private MultiPlayerMessage snapshot;
+    private Message<?> encodedMove;
+    private Message<?> encodedSnapshot;
+
+    /**
+     * Plays half of an ordered board, so the snapshot carries a realistic mix of guessed and hidden cards,
+     * and keeps the event of the last matching move.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        if ("cbor".equals(encoding)) {
+            converter = WebSocketConfig.cborMessageConverter();
+            headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, WebSocketConfig.CBOR));
+        } else {
+            converter = new MappingJackson2MessageConverter();
+            headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, converter.getSupportedMimeTypes().get(0)));
+        }
+
+        UUID player1 = UUID.randomUUID();
+        UUID player2 = UUID.randomUUID();
+        MultiPlayer game = new MultiPlayer(numberOfPairs, player1, player2);
+        int[] board = new int[numberOfPairs * 2];
+        int index = 0;
+        for (int i = 1; i <= numberOfPairs; i++) {
+            board[index++] = i;
+            board[index++] = i;
+        }
+        game.setBoard(board);
+        game.setGameStarted(true);
+        Map<Integer, Integer> lastMove = Map.of();
+        for (int pair = 0; pair < numberOfPairs / 2; pair++) {
+            UUID player = game.isPlayer1sTurn() ? player1 : player2;
+            game.flipCard(player, 2 * pair);
+            lastMove = game.flipCard(player, 2 * pair + 1);
+        }
+        move = new MoveEvent(game, lastMove);
+        snapshot = new MultiPlayerMessage(game, id -> id.equals(player1) ? "player1name" : "player2name");
+        snapshot.setType("game.state");
+
+        encodedMove = converter.toMessage(move, headers);
+        encodedSnapshot = converter.toMessage(snapshot, headers);
+        System.out.printf("%n%s, %d pairs: move %d bytes, snapshot %d bytes%n", encoding, numberOfPairs,
+                ((byte[]) encodedMove.getPayload()).length, ((byte[]) encodedSnapshot.getPayload()).length);
+    }
+
+    @Benchmark
+    public Message<?> encodeMove() {
+        return converter.toMessage(move, headers);
+    }
+
+    @Benchmark
+    public Object decodeMove() {
+        return converter.fromMessage(encodedMove, MoveEvent.class);
+    }
+
+    @Benchmark
+    public Message<?> encodeSnapshot() {
+        return converter.toMessage(snapshot, headers);
+    }
+
+    /**
+     * Decodes into a tree, as clients do; the server never reads snapshots back.
+     */
+    @Benchmark
+    public Object decodeSnapshot() {
+        return converter.fromMessage(encodedSnapshot, JsonNode.class);
+    }
+}
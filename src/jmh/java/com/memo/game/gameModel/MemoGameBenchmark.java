@@ -0,0 +1,92 @@
+package com.memo.game.gameModel;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks for the board handling shared by every game mode in MemoGame.
+ * Each benchmark thread owns its own game, so the numbers scale with the thread count
+ * passed to JMH without measuring lock contention.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MemoGameBenchmark {
+    @Param({"8", "32", "512", "10000"})
+    public int numberOfPairs;
+
+    private final UUID player1 = UUID.randomUUID();
+    private final UUID player2 = UUID.randomUUID();
+    private BoardOnlyGame boardOnlyGame;
+    private MultiPlayer lateGame;
+    private int firstIndex;
+    private int secondIndex;
+
+    /**
+     * Minimal game mode without end-of-game handling, used to measure board generation alone.
+     */
+    static final class BoardOnlyGame extends MemoGame {
+        @Override
+        protected void gameEnded() {
+        }
+    }
+
+    /**
+     * Prepares a started game in its late phase: the board is laid out in order and every pair
+     * is guessed except the last two, so the flipped cards never match and the game never ends.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        boardOnlyGame = new BoardOnlyGame();
+
+        lateGame = new MultiPlayer(numberOfPairs, player1, player2);
+        int[] board = new int[numberOfPairs * 2];
+        int index = 0;
+        for (int i = 1; i <= numberOfPairs; i++) {
+            board[index++] = i;
+            board[index++] = i;
+        }
+        lateGame.setBoard(board);
+        lateGame.setGameStarted(true);
+        int open = Math.min(4, board.length);
+        for (int i = 0; i < board.length - open; i++) {
+            lateGame.isGuessedBoard[i] = true;
+        }
+        firstIndex = board.length - open;
+        secondIndex = board.length - 1;
+    }
+
+    @Benchmark
+    public int[] configGame() {
+        boardOnlyGame.configGame(numberOfPairs);
+        return boardOnlyGame.board;
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> flipOneCardPair() {
+        lateGame.flipOneCard(firstIndex);
+        return lateGame.flipOneCard(secondIndex);
+    }
+
+    @Benchmark
+    public Integer[] getGuessedBoard() {
+        return lateGame.getGuessedBoard();
+    }
+
+    @Benchmark
+    public Map<Integer, Integer> multiPlayerFlipCardPair() {
+        UUID player = lateGame.isPlayer1sTurn() ? player1 : player2;
+        lateGame.flipCard(player, firstIndex);
+        return lateGame.flipCard(player, secondIndex);
+    }
+
+    @Benchmark
+    public boolean multiPlayerGameEnded() {
+        lateGame.gameEnded();
+        return lateGame.isGameOver();
+    }
+}
@@ -0,0 +1,39 @@
+package com.memo.game.gameModel;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Microbenchmarks for the single-player specific game state queries.
+ * The game is created with a no-op saver and left at tear down so its timer thread stops.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SinglePlayerBenchmark {
+    @Param({"8", "32", "512", "10000"})
+    public int numberOfPairs;
+
+    private SinglePlayer singlePlayer;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        singlePlayer = new SinglePlayer(numberOfPairs, Integer.MAX_VALUE,
+                (gameId, won, timeRemaining, pairs, initialTime) -> {});
+        for (int i = 0; i < singlePlayer.isGuessedBoard.length / 2; i++) {
+            singlePlayer.isGuessedBoard[i] = true;
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        singlePlayer.leaveGame();
+    }
+
+    @Benchmark
+    public int getNumOfGuessedPairs() {
+        return singlePlayer.getNumOfGuessedPairs();
+    }
+}
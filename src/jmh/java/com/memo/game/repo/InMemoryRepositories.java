@@ -0,0 +1,65 @@
+package com.memo.game.repo;
+
+import java.lang.reflect.Proxy;
+import java.util.*;
+
+/**
+ * In-memory stand-ins for the Spring Data repositories, so the services can be benchmarked
+ * without a database. Saved entities are kept in a list and every query returns an empty result.
+ */
+public final class InMemoryRepositories {
+    private InMemoryRepositories() {}
+
+    public static MemoSingleGameRepository singleGameRepository() {
+        return create(MemoSingleGameRepository.class);
+    }
+
+    public static MemoMultiGameRepository multiGameRepository() {
+        return create(MemoMultiGameRepository.class);
+    }
+
+    public static MemoUserRepository userRepository() {
+        return create(MemoUserRepository.class);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T create(Class<T> repositoryType) {
+        List<Object> saved = Collections.synchronizedList(new ArrayList<>());
+        return (T) Proxy.newProxyInstance(repositoryType.getClassLoader(), new Class<?>[]{repositoryType},
+                (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "save", "saveAndFlush" -> {
+                            saved.add(args[0]);
+                            return args[0];
+                        }
+                        case "findAll" -> {
+                            return new ArrayList<>(saved);
+                        }
+                        case "count" -> {
+                            return (long) saved.size();
+                        }
+                        case "hashCode" -> {
+                            return System.identityHashCode(proxy);
+                        }
+                        case "equals" -> {
+                            return proxy == args[0];
+                        }
+                        case "toString" -> {
+                            return "InMemory" + repositoryType.getSimpleName();
+                        }
+                        default -> {
+                            return defaultValue(method.getReturnType());
+                        }
+                    }
+                });
+    }
+
+    private static Object defaultValue(Class<?> type) {
+        if (type == int.class || type == Integer.class) return 0;
+        if (type == long.class || type == Long.class) return 0L;
+        if (type == boolean.class || type == Boolean.class) return false;
+        if (List.class.isAssignableFrom(type)) return new ArrayList<>();
+        if (type == Optional.class) return Optional.empty();
+        return null;
+    }
+}
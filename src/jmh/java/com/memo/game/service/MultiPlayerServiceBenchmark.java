@@ -0,0 +1,143 @@
+package com.memo.game.service;
+
+import com.memo.game.gameModel.MultiPlayer;
+import com.memo.game.repo.InMemoryRepositories;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Field;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks matchmaking and the registry of live multiplayer games at realistic session counts.
+ * The registry is seeded with started games (two players each) and a tenth as many friend rooms.
+ * Seeding writes the game lists directly, because joining one player at a time is quadratic
+ * and would take hours at one million sessions; the game counters are then set to match, so that
+ * leaving and removing games keeps them and their gauges consistent.
+ * The contended variants run on every available core and all serialize on the service monitor.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MultiPlayerServiceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int sessions;
+
+    private static final int SEEDED_PAIRS = 8;
+    private static final AtomicInteger THREAD_PAIRS = new AtomicInteger(SEEDED_PAIRS + 1);
+
+    private MultiPlayerService multiPlayerService;
+    private UUID[] seededPlayers;
+
+    /**
+     * Each benchmark thread plays with its own board size, so threads never match each other
+     * and every join scans the full seeded registry before creating a new game.
+     */
+    @State(Scope.Thread)
+    public static class PlayerState {
+        UUID player;
+        int numberOfPairs;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            player = UUID.randomUUID();
+            numberOfPairs = THREAD_PAIRS.getAndIncrement();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws ReflectiveOperationException {
+        multiPlayerService = new MultiPlayerService(InMemoryRepositories.multiGameRepository(),
+                new GameMetrics(new SimpleMeterRegistry()), new GameEventBuffer());
+        List<MultiPlayer> games = gameList("games");
+        List<MultiPlayer> gamesWithFriends = gameList("gamesWithFriends");
+
+        int friendRooms = sessions / 10;
+        int randomGames = sessions - friendRooms;
+        seededPlayers = new UUID[randomGames * 2];
+        for (int i = 0; i < randomGames; i++) {
+            UUID player1 = UUID.randomUUID();
+            UUID player2 = UUID.randomUUID();
+            MultiPlayer game = new MultiPlayer(SEEDED_PAIRS, player1, player2);
+            game.setGameStarted(true);
+            games.add(game);
+            seededPlayers[2 * i] = player1;
+            seededPlayers[2 * i + 1] = player2;
+        }
+        for (int i = 0; i < friendRooms; i++) {
+            gamesWithFriends.add(new MultiPlayer(SEEDED_PAIRS, UUID.randomUUID(), null));
+        }
+        counter("startedGames").set(randomGames);
+        counter("openFriendRooms").set(friendRooms);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<MultiPlayer> gameList(String fieldName) throws ReflectiveOperationException {
+        Field field = MultiPlayerService.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return (List<MultiPlayer>) field.get(multiPlayerService);
+    }
+
+    private AtomicInteger counter(String fieldName) throws ReflectiveOperationException {
+        Field field = MultiPlayerService.class.getDeclaredField(fieldName);
+        field.setAccessible(true);
+        return (AtomicInteger) field.get(multiPlayerService);
+    }
+
+    /**
+     * Joins a random game and leaves it again. No waiting game matches, so the join scans
+     * every random game, creates a new one, and the leave removes it.
+     */
+    @Benchmark
+    public MultiPlayer joinGame(PlayerState playerState) {
+        multiPlayerService.joinGame(playerState.player, playerState.numberOfPairs);
+        return multiPlayerService.leaveGame(playerState.player);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public MultiPlayer joinGameContended(PlayerState playerState) {
+        return joinGame(playerState);
+    }
+
+    /**
+     * Opens a friend room and leaves it again.
+     */
+    @Benchmark
+    public MultiPlayer joinGameWithFriend(PlayerState playerState) {
+        multiPlayerService.joinGameWithFriend(playerState.player, playerState.numberOfPairs, null);
+        return multiPlayerService.leaveGame(playerState.player);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public MultiPlayer joinGameWithFriendContended(PlayerState playerState) {
+        return joinGameWithFriend(playerState);
+    }
+
+    @Benchmark
+    public MultiPlayer getGameByPlayer() {
+        UUID player = seededPlayers[ThreadLocalRandom.current().nextInt(seededPlayers.length)];
+        return multiPlayerService.getGameByPlayer(player);
+    }
+
+    /**
+     * Leaves as a player who is in no game, which is the cost paid by every stray leave frame.
+     */
+    @Benchmark
+    public MultiPlayer leaveGame(PlayerState playerState) {
+        return multiPlayerService.leaveGame(playerState.player);
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public MultiPlayer leaveGameContended(PlayerState playerState) {
+        return leaveGame(playerState);
+    }
+}
@@ -0,0 +1,75 @@
+package com.memo.game.service;
+
+import com.memo.game.gameModel.SinglePlayer;
+import com.memo.game.repo.InMemoryRepositories;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the registry of live single-player sessions at realistic session counts.
+ * Sessions are seeded once per trial; every seeded game is left right away so its timer
+ * thread stops, which keeps one million sessions affordable while leaving the lists untouched.
+ */
+@State(Scope.Benchmark)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx6g"})
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class SinglePlayerServiceBenchmark {
+    @Param({"1000", "10000", "100000", "1000000"})
+    public int sessions;
+
+    private SinglePlayerService singlePlayerService;
+    private UUID[] gameIds;
+
+    private static final GameSaver NO_OP_SAVER = (gameId, won, timeRemaining, pairs, initialTime) -> {};
+
+    @State(Scope.Thread)
+    public static class PlayerState {
+        SinglePlayer spareGame;
+        UUID userId;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            spareGame = new SinglePlayer(8, 60, NO_OP_SAVER);
+            spareGame.leaveGame();
+            userId = UUID.randomUUID();
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        singlePlayerService = new SinglePlayerService(InMemoryRepositories.singleGameRepository(),
+                new GameMetrics(new SimpleMeterRegistry()));
+        gameIds = new UUID[sessions];
+        for (int i = 0; i < sessions; i++) {
+            SinglePlayer game = new SinglePlayer(1, 60, NO_OP_SAVER);
+            game.leaveGame();
+            singlePlayerService.addSinglePlayerToList(game, UUID.randomUUID());
+            gameIds[i] = game.getPlayId();
+        }
+    }
+
+    @Benchmark
+    public SinglePlayer getSinglePlayerByGameIdFromList() {
+        UUID id = gameIds[ThreadLocalRandom.current().nextInt(gameIds.length)];
+        return singlePlayerService.getSinglePlayerByGameIdFromList(id);
+    }
+
+    /**
+     * Adds a session and removes it again, so the registry keeps its seeded size.
+     * The removal scans the whole list, as it does when a game ends in production.
+     * Runs single-threaded because the registry itself is not synchronized.
+     */
+    @Benchmark
+    @Threads(1)
+    public int addSinglePlayerToList(PlayerState playerState) {
+        singlePlayerService.addSinglePlayerToList(playerState.spareGame, playerState.userId);
+        singlePlayerService.removeSinglePlayerFromList(playerState.spareGame);
+        return singlePlayerService.getPlays().size();
+    }
+}
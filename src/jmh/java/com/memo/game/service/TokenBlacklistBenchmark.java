@@ -0,0 +1,46 @@
+package com.memo.game.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures blacklist lookups with many tokens revoked: the common case of a token that was not revoked,
+ * which the Bloom filters answer alone, and a revoked token, which is also looked up in the exact store.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenBlacklistBenchmark {
+    @Param({"1000", "100000"})
+    public int revokedTokens;
+
+    private TokenBlacklistService blacklist;
+    private String revokedId;
+    private String validId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        blacklist = new TokenBlacklistService(new SimpleMeterRegistry(),
+                revokedTokens, TokenBlacklistService.DEFAULT_FALSE_POSITIVE_RATE);
+        long expiresAt = System.currentTimeMillis() + 1800000;
+        for (int i = 0; i < revokedTokens; i++) {
+            revokedId = UUID.randomUUID().toString();
+            blacklist.revoke(revokedId, expiresAt);
+        }
+        validId = UUID.randomUUID().toString();
+    }
+
+    @Benchmark
+    public boolean notRevoked() {
+        return blacklist.isRevoked(validId);
+    }
+
+    @Benchmark
+    public boolean revoked() {
+        return blacklist.isRevoked(revokedId);
+    }
+}
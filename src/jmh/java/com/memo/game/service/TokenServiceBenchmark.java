@@ -0,0 +1,52 @@
+package com.memo.game.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.memo.game.entity.MemoUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of authenticating a request with a token: decoding it without any checks (the old
+ * behaviour), verifying its signature and expiry, and looking it up among the tokens verified before,
+ * which is what {@link TokenService} does for every request after a user's first one.
+ */
+@State(Scope.Thread)
+@Warmup(iterations = 3, time = 1, timeUnit = TimeUnit.SECONDS)
+@Measurement(iterations = 5, time = 1, timeUnit = TimeUnit.SECONDS)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class TokenServiceBenchmark {
+    private TokenService tokenService;
+    private JWTVerifier verifier;
+    private String token;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenService = new TokenService(new TokenBlacklistService(new SimpleMeterRegistry(),
+                TokenBlacklistService.DEFAULT_EXPECTED_REVOCATIONS, TokenBlacklistService.DEFAULT_FALSE_POSITIVE_RATE));
+        verifier = JWT.require(TokenService.ALGORITHM).build();
+        MemoUser user = new MemoUser("name", "name@example.com", "password");
+        user.setId(UUID.randomUUID());
+        token = tokenService.generateJwtToken(user);
+        tokenService.isTokenValid(token);
+    }
+
+    @Benchmark
+    public DecodedJWT decodeOnly() {
+        return JWT.decode(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verify() {
+        return verifier.verify(token);
+    }
+
+    @Benchmark
+    public UUID cachedToken() {
+        return tokenService.isTokenValid(token) ? tokenService.extractUserIdFromToken(token) : null;
+    }
+}
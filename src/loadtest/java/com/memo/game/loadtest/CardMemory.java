@@ -0,0 +1,84 @@
+package com.memo.game.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * What a simulated player remembers about a board: every revealed card value and which
+ * cards are already guessed. Used to choose moves the way an attentive human would.
+ */
+public class CardMemory {
+    private final int numberOfPairs;
+    private final int[] known;
+    private final boolean[] guessed;
+    private int firstIndex = -1;
+
+    public CardMemory(int numberOfPairs) {
+        this.numberOfPairs = numberOfPairs;
+        this.known = new int[numberOfPairs * 2];
+        this.guessed = new boolean[numberOfPairs * 2];
+    }
+
+    /**
+     * Remembers a revealed card.
+     */
+    public void reveal(int index, int value) {
+        known[index] = value;
+    }
+
+    public void setGuessed(int index, boolean isGuessed) {
+        guessed[index] = isGuessed;
+    }
+
+    /**
+     * Sets the card flipped first in the current turn, or -1 once the turn is complete.
+     */
+    public void setFirstIndex(int firstIndex) {
+        this.firstIndex = firstIndex;
+    }
+
+    public int getFirstIndex() {
+        return firstIndex;
+    }
+
+    public int size() {
+        return known.length;
+    }
+
+    /**
+     * Picks the next card: completes a known pair when possible, otherwise reveals an unknown card.
+     *
+     * @return the index to flip, or -1 if every card is guessed
+     */
+    public int chooseIndex() {
+        if (firstIndex == -1) {
+            int[] seenAt = new int[numberOfPairs + 1];
+            Arrays.fill(seenAt, -1);
+            for (int i = 0; i < known.length; i++) {
+                if (!guessed[i] && known[i] != 0) {
+                    if (seenAt[known[i]] != -1) {
+                        return seenAt[known[i]];
+                    }
+                    seenAt[known[i]] = i;
+                }
+            }
+        } else {
+            for (int i = 0; i < known.length; i++) {
+                if (i != firstIndex && !guessed[i] && known[i] != 0 && known[i] == known[firstIndex]) {
+                    return i;
+                }
+            }
+        }
+        int fallback = -1;
+        for (int i = 0; i < known.length; i++) {
+            if (i != firstIndex && !guessed[i]) {
+                if (known[i] == 0) {
+                    return i;
+                }
+                if (fallback == -1) {
+                    fallback = i;
+                }
+            }
+        }
+        return fallback;
+    }
+}
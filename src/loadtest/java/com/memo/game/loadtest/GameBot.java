@@ -0,0 +1,249 @@
+package com.memo.game.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+
+import java.lang.reflect.Type;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * One simulated multiplayer client on its own STOMP session.
+ * The bot joins a random game, waits for an opponent, and plays until the game is over,
+ * remembering every revealed card so that games finish in a realistic number of moves.
+ * All callbacks of a session arrive on one thread at a time, but the start delay runs on the
+ * shared scheduler, so the game state is guarded by the bot's monitor.
+ */
+public class GameBot extends StompSessionHandlerAdapter {
+    private final TestUser user;
+    private final LoadStats stats;
+    private final ScheduledExecutorService scheduler;
+    private final int numberOfPairs;
+    private final long startDelayMillis;
+    private final String topicSuffix;
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+    private StompSession session;
+    private StompSession.Subscription gameSubscription;
+    private int gamesLeft;
+    private String gameId;
+    private String startedGameId;
+    private boolean amPlayer1;
+    private boolean started;
+    private boolean player1sTurn;
+    private int pendingIndex;
+    private long lastSeq;
+    private long joinSentAt;
+    private long moveSentAt;
+    private CardMemory memory;
+
+    public GameBot(TestUser user, LoadStats stats, ScheduledExecutorService scheduler,
+                   int numberOfPairs, int games, long startDelayMillis, String topicSuffix) {
+        this.user = user;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.numberOfPairs = numberOfPairs;
+        this.gamesLeft = games;
+        this.startDelayMillis = startDelayMillis;
+        this.topicSuffix = topicSuffix;
+    }
+
+    public CompletableFuture<Void> getFinished() {
+        return finished;
+    }
+
+    @Override
+    public synchronized void afterConnected(StompSession session, StompHeaders connectedHeaders) {
+        this.session = session;
+        stats.increment("sessions.connected");
+        session.subscribe("/user/queue/game.joined", new JsonHandler(this::onJoinReply));
+        session.subscribe("/user/queue/errors", new JsonHandler(this::onError));
+        session.subscribe("/user/queue/game.state", new JsonHandler(this::onSnapshot));
+        sendJoin();
+    }
+
+    private void sendJoin() {
+        gameId = null;
+        started = false;
+        player1sTurn = true;
+        pendingIndex = -1;
+        memory = new CardMemory(numberOfPairs);
+        joinSentAt = System.nanoTime();
+        session.send("/app/game.join", Map.of(
+                "numOfPairs", numberOfPairs,
+                "wantToPlayWithFriend", false));
+    }
+
+    private synchronized void onJoinReply(JsonNode message) {
+        if ("game.started".equals(text(message, "type"))) {
+            // May overtake the reply to our own join, so it is remembered until that reply arrives.
+            startedGameId = text(message, "gameId");
+            if (gameId != null && !started && gameId.equals(startedGameId)) {
+                startGame();
+            }
+            return;
+        }
+        if ("error".equals(text(message, "type"))) {
+            stats.increment("errors.join");
+            finishGame();
+            return;
+        }
+        stats.recordSince("join", joinSentAt);
+        stats.increment("joins");
+        gameId = text(message, "gameId");
+        lastSeq = message.path("seq").asLong();
+        amPlayer1 = user.id().toString().equals(text(message, "player1"));
+        gameSubscription = session.subscribe("/topic/game." + gameId + topicSuffix, new JsonHandler(this::onGameEvent));
+        if (message.hasNonNull("player2") || gameId.equals(startedGameId)) {
+            startGame();
+        }
+    }
+
+    private void startGame() {
+        started = true;
+        scheduler.schedule(this::move, startDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private synchronized void onError(JsonNode message) {
+        stats.increment("errors.move");
+        pendingIndex = -1;
+        move();
+    }
+
+    private synchronized void onGameEvent(JsonNode message) {
+        String type = text(message, "type");
+        if (!"game.move".equals(type) && !"game.gameOver".equals(type)) {
+            if ("game.left".equals(type)) {
+                finishGame();
+            }
+            return;
+        }
+
+        if (pendingIndex != -1) {
+            stats.recordSince("move", moveSentAt);
+            stats.increment("moves");
+            pendingIndex = -1;
+        }
+        long seq = message.path("seq").asLong();
+        if (seq != lastSeq + 1) {
+            stats.increment("errors.seqGap");
+            session.send("/app/game.resync", Map.of("gameId", gameId));
+        }
+        lastSeq = Math.max(lastSeq, seq);
+        JsonNode lastMove = message.get("lastMove");
+        boolean matched = message.path("matched").asBoolean();
+        if (lastMove != null && lastMove.size() > 0) {
+            Iterator<Map.Entry<String, JsonNode>> cards = lastMove.fields();
+            while (cards.hasNext()) {
+                Map.Entry<String, JsonNode> card = cards.next();
+                int index = Integer.parseInt(card.getKey());
+                memory.reveal(index, card.getValue().asInt());
+                if (matched) {
+                    memory.setGuessed(index, true);
+                }
+            }
+            if (lastMove.size() == 2) {
+                memory.setFirstIndex(-1);
+            } else {
+                memory.setFirstIndex(Integer.parseInt(lastMove.fieldNames().next()));
+            }
+        }
+        player1sTurn = message.path("player1sTurn").asBoolean(player1sTurn);
+
+        if ("game.gameOver".equals(type) || message.path("gameOver").asBoolean()) {
+            stats.increment("games.completed");
+            finishGame();
+        } else {
+            move();
+        }
+    }
+
+    private synchronized void onSnapshot(JsonNode message) {
+        if (gameId == null || !gameId.equals(text(message, "gameId"))) {
+            return;
+        }
+        lastSeq = message.path("seq").asLong();
+        JsonNode board = message.get("board");
+        if (board != null && board.isArray()) {
+            for (int i = 0; i < memory.size() && i < board.size(); i++) {
+                memory.setGuessed(i, !board.get(i).isNull());
+            }
+        }
+        move();
+    }
+
+    private synchronized void move() {
+        if (!started || pendingIndex != -1 || player1sTurn != amPlayer1 || gameId == null) {
+            return;
+        }
+        int index = memory.chooseIndex();
+        if (index == -1) {
+            return;
+        }
+        pendingIndex = index;
+        moveSentAt = System.nanoTime();
+        session.send("/app/game.move", Map.of(
+                "gameId", gameId,
+                "index", index));
+    }
+
+    private void finishGame() {
+        if (gameSubscription != null) {
+            gameSubscription.unsubscribe();
+            gameSubscription = null;
+        }
+        gameId = null;
+        started = false;
+        if (--gamesLeft > 0 && session.isConnected()) {
+            sendJoin();
+        } else {
+            session.disconnect();
+            finished.complete(null);
+        }
+    }
+
+    @Override
+    public void handleException(StompSession session, StompCommand command, StompHeaders headers,
+                                byte[] payload, Throwable exception) {
+        stats.increment("errors.frame");
+    }
+
+    @Override
+    public void handleTransportError(StompSession session, Throwable exception) {
+        stats.increment("errors.transport");
+        finished.complete(null);
+    }
+
+    @Override
+    public void handleFrame(StompHeaders headers, Object payload) {
+        stats.increment("errors.stomp");
+    }
+
+    private static String text(JsonNode message, String field) {
+        JsonNode value = message.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    /**
+     * Deserializes every frame of a subscription into a JSON tree.
+     */
+    private record JsonHandler(Consumer<JsonNode> consumer) implements StompFrameHandler {
+        @Override
+        public Type getPayloadType(StompHeaders headers) {
+            return JsonNode.class;
+        }
+
+        @Override
+        public void handleFrame(StompHeaders headers, Object payload) {
+            consumer.accept((JsonNode) payload);
+        }
+    }
+}
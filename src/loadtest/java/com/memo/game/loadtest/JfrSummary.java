@@ -0,0 +1,145 @@
+package com.memo.game.loadtest;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Summarizes the game events of a Flight Recorder recording taken with {@code jfr/memo-game.jfc}:
+ * the games that spent the most time handling messages, the slowest result saves,
+ * and the handling time per STOMP destination.
+ *
+ * <p>Options: {@code --file} (the .jfr recording, required) and {@code --top} (rows per table, default 10).
+ */
+public class JfrSummary {
+    private static final String CARD_FLIPPED = "com.memo.game.CardFlipped";
+    private static final String GAME_ENDED = "com.memo.game.GameEnded";
+    private static final String GAME_SAVED = "com.memo.game.GameSaved";
+    private static final String STOMP_MESSAGE = "com.memo.game.StompMessage";
+
+    /**
+     * Aggregated activity of a single game.
+     */
+    private static class GameActivity {
+        final String gameId;
+        String mode;
+        int numberOfPairs;
+        String outcome = "-";
+        long flips;
+        long messages;
+        long handlingNanos;
+        long maxHandlingNanos;
+
+        GameActivity(String gameId) {
+            this.gameId = gameId;
+        }
+    }
+
+    private final Map<String, GameActivity> games = new HashMap<>();
+    private final List<RecordedEvent> saves = new ArrayList<>();
+    private final Map<String, List<Long>> handlingByDestination = new HashMap<>();
+
+    public static void main(String[] args) throws IOException {
+        LoadTestOptions options = new LoadTestOptions(args);
+        String file = options.getString("file", null);
+        if (file == null) {
+            throw new IllegalArgumentException("Missing --file=<recording.jfr>");
+        }
+        JfrSummary summary = new JfrSummary();
+        try (RecordingFile recording = new RecordingFile(Path.of(file))) {
+            while (recording.hasMoreEvents()) {
+                summary.accept(recording.readEvent());
+            }
+        }
+        summary.print(System.out, options.getInt("top", 10));
+    }
+
+    private void accept(RecordedEvent event) {
+        switch (event.getEventType().getName()) {
+            case CARD_FLIPPED -> {
+                GameActivity game = game(event);
+                game.flips++;
+                game.mode = event.getString("mode");
+                game.numberOfPairs = event.getInt("numberOfPairs");
+            }
+            case GAME_ENDED -> {
+                GameActivity game = game(event);
+                game.mode = event.getString("mode");
+                game.numberOfPairs = event.getInt("numberOfPairs");
+                game.outcome = event.getString("outcome");
+            }
+            case GAME_SAVED -> saves.add(event);
+            case STOMP_MESSAGE -> {
+                long nanos = event.getDuration().toNanos();
+                handlingByDestination.computeIfAbsent(event.getString("destination"), d -> new ArrayList<>()).add(nanos);
+                if (event.getString("gameId") != null) {
+                    GameActivity game = game(event);
+                    game.messages++;
+                    game.handlingNanos += nanos;
+                    game.maxHandlingNanos = Math.max(game.maxHandlingNanos, nanos);
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private GameActivity game(RecordedEvent event) {
+        return games.computeIfAbsent(event.getString("gameId"), GameActivity::new);
+    }
+
+    private void print(PrintStream out, int top) {
+        out.println("Hottest games (by total STOMP handling time)");
+        out.printf("%-36s %-12s %6s %8s %8s %10s %10s %-10s%n",
+                "game", "mode", "pairs", "flips", "msgs", "total ms", "max ms", "outcome");
+        games.values().stream()
+                .sorted(Comparator.comparingLong((GameActivity g) -> g.handlingNanos)
+                        .thenComparingLong(g -> g.flips).reversed())
+                .limit(top)
+                .forEach(g -> out.printf("%-36s %-12s %6d %8d %8d %10.3f %10.3f %-10s%n",
+                        g.gameId, g.mode, g.numberOfPairs, g.flips, g.messages,
+                        millis(g.handlingNanos), millis(g.maxHandlingNanos), g.outcome));
+
+        out.println();
+        out.println("Slowest saves");
+        out.printf("%-36s %-12s %6s %-8s %10s%n", "game", "mode", "pairs", "outcome", "ms");
+        saves.stream()
+                .sorted(Comparator.comparing(RecordedEvent::getDuration, Comparator.reverseOrder()))
+                .limit(top)
+                .forEach(e -> out.printf("%-36s %-12s %6d %-8s %10.3f%n",
+                        e.getString("gameId"), e.getString("mode"), e.getInt("numberOfPairs"),
+                        e.getString("outcome"), millis(e.getDuration())));
+
+        out.println();
+        out.println("STOMP handling time per destination");
+        out.printf("%-14s %8s %10s %10s %10s%n", "destination", "count", "p50 ms", "p99 ms", "max ms");
+        handlingByDestination.forEach((destination, samples) -> {
+            samples.sort(null);
+            out.printf("%-14s %8d %10.3f %10.3f %10.3f%n", destination, samples.size(),
+                    millis(percentile(samples, 0.50)), millis(percentile(samples, 0.99)),
+                    millis(samples.get(samples.size() - 1)));
+        });
+    }
+
+    private static long percentile(List<Long> sorted, double percentile) {
+        int index = (int) Math.ceil(percentile * sorted.size()) - 1;
+        return sorted.get(Math.max(index, 0));
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+
+    private static double millis(Duration duration) {
+        return millis(duration.toNanos());
+    }
+}
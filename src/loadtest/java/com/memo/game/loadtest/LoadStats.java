@@ -0,0 +1,108 @@
+package com.memo.game.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe latency histograms and counters collected while a load test runs.
+ * Latencies are recorded in microseconds; each named histogram is fed through an HdrHistogram
+ * recorder so the reporting thread never blocks the threads that record.
+ */
+public class LoadStats {
+    private final Map<String, Recorder> recorders = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> totals = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> counters = new ConcurrentHashMap<>();
+    private final long startNanos = System.nanoTime();
+
+    /**
+     * Records one latency sample measured from {@code startNanos} until now.
+     *
+     * @param name       the histogram, e.g. the endpoint or message type
+     * @param startNanos the {@link System#nanoTime()} at which the request was sent
+     */
+    public void recordSince(String name, long startNanos) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+        recorders.computeIfAbsent(name, key -> new Recorder(3)).recordValue(Math.max(micros, 0));
+    }
+
+    public void increment(String counter) {
+        counters.computeIfAbsent(counter, key -> new LongAdder()).increment();
+    }
+
+    public long count(String counter) {
+        LongAdder adder = counters.get(counter);
+        return adder == null ? 0 : adder.sum();
+    }
+
+    public double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    /**
+     * Moves everything recorded since the previous call into the cumulative histograms.
+     *
+     * @return the samples recorded in the interval, per histogram name
+     */
+    public synchronized Map<String, Histogram> drainInterval() {
+        Map<String, Histogram> interval = new TreeMap<>();
+        recorders.forEach((name, recorder) -> {
+            Histogram histogram = recorder.getIntervalHistogram();
+            totals.computeIfAbsent(name, key -> new Histogram(3)).add(histogram);
+            interval.put(name, histogram);
+        });
+        return interval;
+    }
+
+    /**
+     * Prints one line per histogram with the samples of the last interval.
+     */
+    public void printInterval(PrintStream out) {
+        Map<String, Histogram> interval = drainInterval();
+        out.printf("[%7.1fs]", elapsedSeconds());
+        interval.forEach((name, histogram) -> out.printf(" %s: %d ops p50=%dus p99=%dus;", name,
+                histogram.getTotalCount(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99)));
+        out.println();
+    }
+
+    /**
+     * Prints the cumulative latency percentiles and all counters.
+     */
+    public void printSummary(PrintStream out) {
+        drainInterval();
+        double seconds = elapsedSeconds();
+        out.printf("%nDuration: %.1fs%n", seconds);
+        out.printf("%-28s %10s %10s %10s %10s %10s %10s %10s%n",
+                "latency (us)", "count", "ops/s", "p50", "p99", "p99.9", "max", "mean");
+        new TreeMap<>(totals).forEach((name, histogram) -> out.printf("%-28s %10d %10.1f %10d %10d %10d %10d %10.0f%n",
+                name, histogram.getTotalCount(), histogram.getTotalCount() / seconds,
+                histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9), histogram.getMaxValue(), histogram.getMean()));
+        out.printf("%n%-28s %10s %10s%n", "counter", "total", "per s");
+        new TreeMap<>(counters).forEach((name, adder) ->
+                out.printf("%-28s %10d %10.1f%n", name, adder.sum(), adder.sum() / seconds));
+    }
+
+    /**
+     * Writes the cumulative percentile distribution of every histogram to {@code <name>.hgrm}
+     * in the given directory, in the format read by the HdrHistogram plotter.
+     */
+    public void writeHistograms(Path directory) throws IOException {
+        drainInterval();
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Histogram> entry : totals.entrySet()) {
+            try (PrintStream out = new PrintStream(Files.newOutputStream(directory.resolve(entry.getKey() + ".hgrm")))) {
+                entry.getValue().outputPercentileDistribution(out, 1.0);
+            }
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.memo.game.loadtest;
+
+import java.net.http.HttpClient;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Single-player REST load generator.
+ * Registers and signs in the simulated players, then has each of them start games through
+ * {@code /api/singlePlayer/startSinglePlayer}, flip cards with think time through {@code getCard},
+ * poll {@code getRemainingTime} and finish with {@code leaveGame}.
+ * Prints per-endpoint latency and throughput every five seconds and a summary at the end;
+ * with {@code --jmx} it also reports the server's thread count and heap growth.
+ *
+ * <pre>
+ * gradlew restLoadTest -PloadArgs="--url=http://localhost:8080 --players=50000 --ramp-s=120 --jmx=localhost:9010"
+ * </pre>
+ *
+ * Options: {@code --url}, {@code --players}, {@code --ramp-s}, {@code --pairs}, {@code --initial-time},
+ * {@code --games}, {@code --flips} (per game), {@code --poll-every} (flips), {@code --think-min-ms},
+ * {@code --think-max-ms}, {@code --duration-s}, {@code --users=registered|generated},
+ * {@code --user-prefix}, {@code --jmx} and {@code --histograms} (directory for percentile files).
+ */
+public class RestLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        String url = options.getString("url", "http://localhost:8080");
+        int players = options.getInt("players", 1000);
+        long rampMillis = TimeUnit.SECONDS.toMillis(options.getLong("ramp-s", 60));
+        long durationSeconds = options.getLong("duration-s", 600);
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(Executors.newFixedThreadPool(Runtime.getRuntime().availableProcessors() * 2))
+                .build();
+        LoadStats stats = new LoadStats();
+        List<TestUser> users = createUsers(options, client, url, players);
+
+        ServerJvmSampler sampler = options.getString("jmx", null) == null
+                ? null : new ServerJvmSampler(options.getString("jmx", null));
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        scheduler.scheduleAtFixedRate(() -> {
+            stats.printInterval(System.out);
+            if (sampler != null) {
+                sampler.sample();
+                sampler.printInterval(System.out);
+            }
+        }, 5, 5, TimeUnit.SECONDS);
+
+        List<CompletableFuture<Void>> finished = new ArrayList<>(players);
+        for (TestUser user : users) {
+            RestPlayer player = new RestPlayer(client, url, user, stats, scheduler, options);
+            finished.add(player.getFinished());
+            player.start(rampMillis == 0 ? 0 : ThreadLocalRandom.current().nextLong(rampMillis));
+        }
+
+        try {
+            CompletableFuture.allOf(finished.toArray(new CompletableFuture[0]))
+                    .get(durationSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("Duration elapsed before every player finished.");
+        }
+        scheduler.shutdownNow();
+        stats.printSummary(System.out);
+        if (sampler != null) {
+            sampler.printSummary(System.out, players);
+            sampler.close();
+        }
+        String histograms = options.getString("histograms", null);
+        if (histograms != null) {
+            stats.writeHistograms(Path.of(histograms));
+        }
+        System.exit(0);
+    }
+
+    private static List<TestUser> createUsers(LoadTestOptions options, HttpClient client, String url, int players) {
+        if ("generated".equals(options.getString("users", "registered"))) {
+            return TestUsers.generate(players);
+        }
+        String prefix = options.getString("user-prefix", "rest" + System.currentTimeMillis() % 100000 + "u");
+        return TestUsers.register(client, url, players, prefix, 64);
+    }
+}
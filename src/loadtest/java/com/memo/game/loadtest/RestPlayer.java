@@ -0,0 +1,199 @@
+package com.memo.game.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulated single-player client on the REST API.
+ * The player starts a game, flips cards with a random think time between flips, polls the
+ * remaining time every few flips and leaves the game at the end. Nothing blocks: every request
+ * is sent asynchronously and the think time is a task on the shared scheduler, so tens of
+ * thousands of players fit in one process.
+ */
+public class RestPlayer {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final TestUser user;
+    private final LoadStats stats;
+    private final ScheduledExecutorService scheduler;
+    private final int numberOfPairs;
+    private final int initialTime;
+    private final int flipsPerGame;
+    private final int pollEvery;
+    private final long minThinkMillis;
+    private final long maxThinkMillis;
+    private final CompletableFuture<Void> finished = new CompletableFuture<>();
+
+    private int gamesLeft;
+    private String sessionId;
+    private CardMemory memory;
+    private int flips;
+
+    public RestPlayer(HttpClient client, String baseUrl, TestUser user, LoadStats stats,
+                      ScheduledExecutorService scheduler, LoadTestOptions options) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.user = user;
+        this.stats = stats;
+        this.scheduler = scheduler;
+        this.numberOfPairs = options.getInt("pairs", 8);
+        this.initialTime = options.getInt("initial-time", 120);
+        this.flipsPerGame = options.getInt("flips", 40);
+        this.pollEvery = options.getInt("poll-every", 5);
+        this.minThinkMillis = options.getLong("think-min-ms", 500);
+        this.maxThinkMillis = options.getLong("think-max-ms", 2000);
+        this.gamesLeft = options.getInt("games", 3);
+    }
+
+    public CompletableFuture<Void> getFinished() {
+        return finished;
+    }
+
+    public void start(long delayMillis) {
+        scheduler.schedule(this::startGame, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void startGame() {
+        call("startSinglePlayer", "/api/singlePlayer/startSinglePlayer",
+                Map.of("initialTime", initialTime, "numberOfPairs", numberOfPairs))
+                .thenAccept(response -> {
+                    sessionId = response.get("sessionId").asText();
+                    memory = new CardMemory(numberOfPairs);
+                    flips = 0;
+                    stats.increment("games.started");
+                    think(this::flip);
+                })
+                .exceptionally(this::fail);
+    }
+
+    private void flip() {
+        int index = memory.chooseIndex();
+        call("getCard", "/api/singlePlayer/getCard/" + sessionId, Map.of("index", index))
+                .thenAccept(response -> {
+                    flips++;
+                    remember(response);
+                    if (response.path("ended").asBoolean()) {
+                        stats.increment(response.path("won").asBoolean() ? "games.won" : "games.lost");
+                        nextGame();
+                    } else if (flips >= flipsPerGame) {
+                        leave();
+                    } else if (flips % pollEvery == 0) {
+                        pollRemainingTime();
+                    } else {
+                        think(this::flip);
+                    }
+                })
+                .exceptionally(this::fail);
+    }
+
+    private void remember(JsonNode response) {
+        Iterator<Map.Entry<String, JsonNode>> cards = response.path("cards").fields();
+        int revealed = 0;
+        int lastIndex = -1;
+        while (cards.hasNext()) {
+            Map.Entry<String, JsonNode> card = cards.next();
+            lastIndex = Integer.parseInt(card.getKey());
+            memory.reveal(lastIndex, card.getValue().asInt());
+            revealed++;
+        }
+        memory.setFirstIndex(revealed == 1 ? lastIndex : -1);
+        JsonNode guessedBoard = response.path("guessedBoard");
+        for (int i = 0; i < memory.size() && i < guessedBoard.size(); i++) {
+            memory.setGuessed(i, !guessedBoard.get(i).isNull());
+        }
+    }
+
+    private void pollRemainingTime() {
+        call("getRemainingTime", "/api/singlePlayer/getRemainingTime/" + sessionId, null)
+                .thenAccept(response -> {
+                    if (response.path("remainingTime").asInt() <= 0) {
+                        stats.increment("games.timedOut");
+                        nextGame();
+                    } else {
+                        think(this::flip);
+                    }
+                })
+                .exceptionally(this::fail);
+    }
+
+    private void leave() {
+        call("leaveGame", "/api/singlePlayer/leaveGame/" + sessionId, null)
+                .thenAccept(response -> {
+                    stats.increment("games.left");
+                    nextGame();
+                })
+                .exceptionally(this::fail);
+    }
+
+    private void nextGame() {
+        if (--gamesLeft > 0) {
+            think(this::startGame);
+        } else {
+            finished.complete(null);
+        }
+    }
+
+    private void think(Runnable next) {
+        long thinkMillis = ThreadLocalRandom.current().nextLong(minThinkMillis, maxThinkMillis + 1);
+        scheduler.schedule(next, thinkMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private Void fail(Throwable error) {
+        stats.increment("errors.player");
+        finished.complete(null);
+        return null;
+    }
+
+    /**
+     * Sends an authorized POST, records its latency under {@code endpoint} and parses the JSON reply.
+     * Non-2xx responses are counted per endpoint and status, and fail the returned future.
+     */
+    private CompletableFuture<JsonNode> call(String endpoint, String path, Object body) {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .header("Authorization", "Bearer " + user.token())
+                    .header("Content-Type", "application/json")
+                    .POST(body == null ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        long sentAt = System.nanoTime();
+        return client.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        stats.increment("errors." + endpoint + ".io");
+                    } else {
+                        stats.recordSince(endpoint, sentAt);
+                    }
+                })
+                .thenApply(response -> {
+                    if (response.statusCode() / 100 != 2) {
+                        stats.increment("errors." + endpoint + "." + response.statusCode());
+                        throw new IllegalStateException(endpoint + " returned " + response.statusCode());
+                    }
+                    try {
+                        return response.body().isEmpty()
+                                ? objectMapper.createObjectNode()
+                                : objectMapper.readTree(response.body());
+                    } catch (Exception e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+}
@@ -0,0 +1,88 @@
+package com.memo.game.loadtest;
+
+import javax.management.MBeanServerConnection;
+import javax.management.remote.JMXConnector;
+import javax.management.remote.JMXConnectorFactory;
+import javax.management.remote.JMXServiceURL;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+
+/**
+ * Samples the thread count, heap usage and process CPU time of the server under test over remote JMX.
+ * The server has to be started with {@code -Dcom.sun.management.jmxremote.port=<port>}
+ * (see the {@code jmxPort} property of {@code bootRun}).
+ */
+public class ServerJvmSampler implements AutoCloseable {
+    private final JMXConnector connector;
+    private final ThreadMXBean threads;
+    private final MemoryMXBean memory;
+    private final com.sun.management.OperatingSystemMXBean os;
+    private final int startThreads;
+    private final long startHeap;
+    private final long startCpuNanos;
+    private int peakThreads;
+    private long peakHeap;
+    private int lastThreads;
+    private long lastHeap;
+    private long lastCpuNanos;
+
+    /**
+     * @param hostAndPort the JMX address of the server, e.g. {@code localhost:9010}
+     */
+    public ServerJvmSampler(String hostAndPort) throws IOException {
+        connector = JMXConnectorFactory.connect(
+                new JMXServiceURL("service:jmx:rmi:///jndi/rmi://" + hostAndPort + "/jmxrmi"));
+        MBeanServerConnection connection = connector.getMBeanServerConnection();
+        threads = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.THREAD_MXBEAN_NAME, ThreadMXBean.class);
+        memory = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.MEMORY_MXBEAN_NAME, MemoryMXBean.class);
+        os = ManagementFactory.newPlatformMXBeanProxy(connection,
+                ManagementFactory.OPERATING_SYSTEM_MXBEAN_NAME, com.sun.management.OperatingSystemMXBean.class);
+        sample();
+        startThreads = lastThreads;
+        startHeap = lastHeap;
+        startCpuNanos = lastCpuNanos;
+    }
+
+    /**
+     * Reads the current values and updates the peaks.
+     */
+    public synchronized void sample() {
+        lastThreads = threads.getThreadCount();
+        lastHeap = memory.getHeapMemoryUsage().getUsed();
+        lastCpuNanos = os.getProcessCpuTime();
+        peakThreads = Math.max(peakThreads, lastThreads);
+        peakHeap = Math.max(peakHeap, lastHeap);
+    }
+
+    public synchronized void printInterval(PrintStream out) {
+        out.printf("          server: threads=%d heapUsed=%dMB cpu=%ds%n", lastThreads, lastHeap >> 20,
+                (lastCpuNanos - startCpuNanos) / 1_000_000_000L);
+    }
+
+    /**
+     * Prints the thread count and heap usage at start, peak and end, and the growth per client,
+     * followed by the CPU time the server used during the run.
+     *
+     * @param clients the number of simulated clients, used to derive per-client figures
+     */
+    public synchronized void printSummary(PrintStream out, int clients) {
+        sample();
+        out.printf("%n%-28s %10s %10s %10s %10s%n", "server", "start", "peak", "end", "per client");
+        out.printf("%-28s %10d %10d %10d %10.3f%n", "threads",
+                startThreads, peakThreads, lastThreads, (double) (peakThreads - startThreads) / clients);
+        out.printf("%-28s %10d %10d %10d %10.1f%n", "heap used (KB)",
+                startHeap >> 10, peakHeap >> 10, lastHeap >> 10, (double) ((peakHeap - startHeap) >> 10) / clients);
+        long cpuMillis = (lastCpuNanos - startCpuNanos) / 1_000_000L;
+        out.printf("%-28s %10s %10s %10d %10.1f%n", "cpu time (ms)", "", "", cpuMillis, (double) cpuMillis / clients);
+    }
+
+    @Override
+    public void close() throws IOException {
+        connector.close();
+    }
+}
@@ -0,0 +1,120 @@
+package com.memo.game.loadtest;
+
+import com.memo.game.config.WebSocketConfig;
+import org.springframework.messaging.converter.CompositeMessageConverter;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+import org.springframework.web.socket.sockjs.client.SockJsClient;
+import org.springframework.web.socket.sockjs.client.WebSocketTransport;
+
+import java.net.http.HttpClient;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Headless multiplayer load generator.
+ * Opens one STOMP session per simulated player, over SockJS against {@code /ws} or, with
+ * {@code --transport=native}, over plain WebSocket against {@code /ws-native}. It joins random games
+ * through {@code /app/game.join} and plays them to the end through {@code /app/game.move}.
+ * Reports join and move round-trip latency percentiles, joins per second and error counts;
+ * with {@code --jmx} also the server's threads, heap and CPU time per connection.
+ *
+ * <pre>
+ * gradlew stompLoadTest -PloadArgs="--url=http://localhost:8080 --players=2000 --pairs=8"
+ * </pre>
+ *
+ * Options: {@code --url}, {@code --players}, {@code --pairs}, {@code --games} (per player),
+ * {@code --connect-rate} (sessions per second), {@code --start-delay-ms}, {@code --duration-s},
+ * {@code --users=generated|registered}, {@code --user-prefix} and {@code --encoding=json|cbor}
+ * (the encoding of the game topic the bots subscribe to), {@code --transport=sockjs|native} and {@code --jmx}.
+ * Generated users are only valid against the {@code inmemory} profile, because PostgreSQL
+ * rejects saving games of players missing from {@code memo_users}.
+ */
+public class StompLoadTest {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        String url = options.getString("url", "http://localhost:8080");
+        int players = options.getInt("players", 1000);
+        int pairs = options.getInt("pairs", 8);
+        int games = options.getInt("games", 3);
+        int connectRate = options.getInt("connect-rate", 200);
+        long startDelayMillis = options.getLong("start-delay-ms", 250);
+        long durationSeconds = options.getLong("duration-s", 300);
+        boolean nativeTransport = "native".equals(options.getString("transport", "sockjs"));
+        String topicSuffix = "cbor".equals(options.getString("encoding", "json"))
+                ? WebSocketConfig.CBOR_TOPIC_SUFFIX : "";
+
+        LoadStats stats = new LoadStats();
+        List<TestUser> users = createUsers(options, url, players);
+
+        WebSocketStompClient stompClient = nativeTransport
+                ? new WebSocketStompClient(new StandardWebSocketClient())
+                : new WebSocketStompClient(new SockJsClient(List.of(new WebSocketTransport(new StandardWebSocketClient()))));
+        String endpoint = nativeTransport ? url.replaceFirst("^http", "ws") + "/ws-native" : url + "/ws";
+        stompClient.setMessageConverter(new CompositeMessageConverter(List.of(
+                WebSocketConfig.cborMessageConverter(), new MappingJackson2MessageConverter())));
+        stompClient.setInboundMessageSizeLimit(1024 * 1024);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors());
+        ServerJvmSampler sampler = options.getString("jmx", null) == null
+                ? null : new ServerJvmSampler(options.getString("jmx", null));
+        scheduler.scheduleAtFixedRate(() -> {
+            stats.printInterval(System.out);
+            if (sampler != null) {
+                sampler.sample();
+                sampler.printInterval(System.out);
+            }
+        }, 5, 5, TimeUnit.SECONDS);
+
+        List<CompletableFuture<Void>> finished = new ArrayList<>(players);
+        long pauseNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(connectRate, 1);
+        for (TestUser user : users) {
+            GameBot bot = new GameBot(user, stats, scheduler, pairs, games, startDelayMillis, topicSuffix);
+            finished.add(bot.getFinished());
+            long connectStartedAt = System.nanoTime();
+            StompHeaders connectHeaders = new StompHeaders();
+            connectHeaders.add("Authorization", "Bearer " + user.token());
+            stompClient.connectAsync(endpoint, new WebSocketHttpHeaders(), connectHeaders, bot).whenComplete((session, error) -> {
+                if (error != null) {
+                    stats.increment("errors.connect");
+                    bot.getFinished().complete(null);
+                } else {
+                    stats.recordSince("connect", connectStartedAt);
+                }
+            });
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+        }
+
+        try {
+            CompletableFuture.allOf(finished.toArray(new CompletableFuture[0]))
+                    .get(durationSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            System.out.println("Duration elapsed before every game finished.");
+        }
+        scheduler.shutdownNow();
+        stats.printSummary(System.out);
+        if (sampler != null) {
+            sampler.printSummary(System.out, players);
+            sampler.close();
+        }
+        System.exit(0);
+    }
+
+    private static List<TestUser> createUsers(LoadTestOptions options, String url, int players) {
+        if ("registered".equals(options.getString("users", "generated"))) {
+            String prefix = options.getString("user-prefix", "stomp" + System.currentTimeMillis() % 100000 + "u");
+            return TestUsers.register(HttpClient.newHttpClient(), url, players, prefix, 64);
+        }
+        return TestUsers.generate(players);
+    }
+}
@@ -0,0 +1,9 @@
+package com.memo.game.loadtest;
+
+import java.util.UUID;
+
+/**
+ * A simulated player: its user id and a JWT accepted by the server.
+ */
+public record TestUser(UUID id, String userName, String token) {
+}
@@ -0,0 +1,90 @@
+package com.memo.game.loadtest;
+
+import com.auth0.jwt.JWT;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.memo.game.entity.MemoUser;
+import com.memo.game.service.TokenService;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Creates the players of a load test.
+ * Generated users only exist inside their tokens, which is enough for the in-memory backend.
+ * Registered users go through {@code /api/register} and {@code /api/signIn}, so their games
+ * can be persisted by a PostgreSQL backend with foreign keys on the user table.
+ */
+public final class TestUsers {
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private TestUsers() {}
+
+    /**
+     * Signs tokens for random user ids with the same key and claims as the server.
+     */
+    public static List<TestUser> generate(int count) {
+        TokenService tokenService = new TokenService();
+        List<TestUser> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            MemoUser user = new MemoUser("load" + i, "load" + i + "@example.com", "");
+            user.setId(UUID.randomUUID());
+            users.add(new TestUser(user.getId(), user.getUserName(), tokenService.generateJwtToken(user)));
+        }
+        return users;
+    }
+
+    /**
+     * Registers and signs in {@code count} users through the REST API.
+     * Users that already exist from a previous run are signed in with the same password.
+     *
+     * @param baseUrl     the server root, e.g. {@code http://localhost:8080}
+     * @param count       the number of users
+     * @param prefix      the prefix of the generated user names, unique per run if needed
+     * @param parallelism the number of registrations in flight at once
+     */
+    public static List<TestUser> register(HttpClient client, String baseUrl, int count, String prefix, int parallelism) {
+        Semaphore inFlight = new Semaphore(parallelism);
+        List<CompletableFuture<TestUser>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String userName = prefix + i;
+            Map<String, String> body = Map.of(
+                    "username", userName,
+                    "email", userName + "@example.com",
+                    "password", "password" + i);
+            inFlight.acquireUninterruptibly();
+            CompletableFuture<TestUser> future = post(client, baseUrl + "/api/register", body)
+                    .thenCompose(registered -> post(client, baseUrl + "/api/signIn", body))
+                    .thenApply(response -> {
+                        if (response.statusCode() != 200) {
+                            throw new IllegalStateException("Sign in of " + userName + " failed: "
+                                    + response.statusCode() + " " + response.body());
+                        }
+                        String token = response.body();
+                        return new TestUser(UUID.fromString(JWT.decode(token).getSubject()), userName, token);
+                    })
+                    .whenComplete((user, error) -> inFlight.release());
+            futures.add(future);
+        }
+        return futures.stream().map(CompletableFuture::join).toList();
+    }
+
+    static CompletableFuture<HttpResponse<String>> post(HttpClient client, String url, Object body) {
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)))
+                    .build();
+            return client.sendAsync(request, HttpResponse.BodyHandlers.ofString());
+        } catch (Exception e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+}
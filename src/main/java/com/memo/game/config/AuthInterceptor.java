@@ -0,0 +1,73 @@
+package com.memo.game.config;
+
+import com.memo.game.dto.UserPrincipal;
+import com.memo.game.service.TokenService;
+import com.memo.game.service.UserNameDirectory;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.cors.CorsUtils;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Authenticates requests to the protected REST endpoints before they reach a controller.
+ * <p>
+ * The bearer token is verified once per request; the user ID is bound to the request attribute
+ * {@value #USER_ID_ATTRIBUTE}, the username from the token to {@value #USER_NAME_ATTRIBUTE} and the token
+ * to {@value #TOKEN_ATTRIBUTE}, where handlers read them with {@code @RequestAttribute}. The username is also
+ * handed to the {@link UserNameDirectory}. Requests without a valid token are answered with 401 and never
+ * dispatched.
+ */
+@Component
+public class AuthInterceptor implements HandlerInterceptor {
+    public static final String USER_ID_ATTRIBUTE = "userId";
+    public static final String USER_NAME_ATTRIBUTE = "userName";
+    public static final String TOKEN_ATTRIBUTE = "token";
+
+    private final TokenService tokenService;
+    private final UserNameDirectory userNameDirectory;
+    private final Timer authenticated;
+    private final Timer rejected;
+
+    public AuthInterceptor(TokenService tokenService, UserNameDirectory userNameDirectory, MeterRegistry registry) {
+        this.tokenService = tokenService;
+        this.userNameDirectory = userNameDirectory;
+        this.authenticated = authentications(registry, "authenticated");
+        this.rejected = authentications(registry, "rejected");
+    }
+
+    private static Timer authentications(MeterRegistry registry, String result) {
+        return Timer.builder("memo.auth.request.duration")
+                .description("Authentication of a REST request")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (CorsUtils.isPreFlightRequest(request)) {
+            return true;
+        }
+        long start = System.nanoTime();
+        String token = tokenService.extractTokenFromRequest(request);
+        UserPrincipal user = tokenService.authenticate(token);
+        if (user == null) {
+            response.setStatus(HttpStatus.UNAUTHORIZED.value());
+            rejected.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return false;
+        }
+        request.setAttribute(USER_ID_ATTRIBUTE, user.getUserId());
+        if (user.getUserName() != null) {
+            request.setAttribute(USER_NAME_ATTRIBUTE, user.getUserName());
+            userNameDirectory.remember(user);
+        }
+        request.setAttribute(TOKEN_ATTRIBUTE, token);
+        authenticated.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package com.memo.game.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Connection settings of the external STOMP broker used when {@code memo.websocket.broker=relay},
+ * e.g. ActiveMQ Artemis or RabbitMQ with the STOMP plugin.
+ * <p>
+ * The broker has to map "/topic/" destinations to multicast and "/queue/" destinations to anycast addresses.
+ */
+@Component
+public class BrokerRelaySettings {
+    private final String host;
+    private final int port;
+    private final String login;
+    private final String passcode;
+    private final String virtualHost;
+
+    public BrokerRelaySettings(@Value("${memo.websocket.relay.host:localhost}") String host,
+                               @Value("${memo.websocket.relay.port:61613}") int port,
+                               @Value("${memo.websocket.relay.login:guest}") String login,
+                               @Value("${memo.websocket.relay.passcode:guest}") String passcode,
+                               @Value("${memo.websocket.relay.virtual-host:}") String virtualHost) {
+        this.host = host;
+        this.port = port;
+        this.login = login;
+        this.passcode = passcode;
+        this.virtualHost = virtualHost;
+    }
+
+    /**
+     * Getters
+     */
+    public String getHost() {
+        return host;
+    }
+
+    public int getPort() {
+        return port;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public String getPasscode() {
+        return passcode;
+    }
+
+    /**
+     * @return the virtual host to send in the CONNECT frames, or null to send none
+     */
+    public String getVirtualHost() {
+        return virtualHost == null || virtualHost.isBlank() ? null : virtualHost;
+    }
+}
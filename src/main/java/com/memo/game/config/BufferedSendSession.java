@@ -0,0 +1,203 @@
+package com.memo.game.config;
+
+import io.micrometer.core.instrument.Counter;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Session wrapper with a bounded queue of outgoing frames, protecting the outbound threads from clients
+ * that stop reading.
+ * <p>
+ * Sending never blocks on a slow client: the frame is queued, and whichever thread holds the flush lock
+ * writes the queue to the socket. While frames wait, a STOMP frame to one of the coalescing destinations
+ * replaces the queued frame to the same destination, since only the latest full game state matters.
+ * A session whose queue exceeds the frame or byte limit, or whose current write takes longer than the
+ * time limit, is closed and its queued frames are dropped.
+ */
+public class BufferedSendSession extends WebSocketSessionDecorator {
+
+    /**
+     * Counters shared by every session.
+     */
+    public record Meters(Counter coalesced, Counter dropped, Counter disconnected) {}
+
+    private record Frame(WebSocketMessage<?> message, String coalesceKey, int size) {}
+
+    private final int frameLimit;
+    private final int bufferSizeLimit;
+    private final long sendTimeLimitMillis;
+    private final Set<String> coalesceDestinations;
+    private final Meters meters;
+
+    private final Deque<Frame> queue = new ArrayDeque<>();
+    private final Lock flushLock = new ReentrantLock();
+    private int queuedBytes;
+    private volatile long sendStartedAt;
+    private volatile boolean closing;
+
+    public BufferedSendSession(WebSocketSession delegate, int frameLimit, int bufferSizeLimit,
+                               long sendTimeLimitMillis, Set<String> coalesceDestinations, Meters meters) {
+        super(delegate);
+        this.frameLimit = frameLimit;
+        this.bufferSizeLimit = bufferSizeLimit;
+        this.sendTimeLimitMillis = sendTimeLimitMillis;
+        this.coalesceDestinations = coalesceDestinations;
+        this.meters = meters;
+    }
+
+    /**
+     * Queues the frame and writes the queue if no other thread is writing it already.
+     *
+     * @param message the frame
+     * @throws IOException if writing to the socket failed
+     */
+    @Override
+    public void sendMessage(WebSocketMessage<?> message) throws IOException {
+        if (closing) {
+            return;
+        }
+        enqueue(message);
+        do {
+            if (!tryFlush()) {
+                checkLimits();
+                return;
+            }
+        } while (!isQueueEmpty() && !closing);
+    }
+
+    private void enqueue(WebSocketMessage<?> message) {
+        String destination = destinationOf(message);
+        String coalesceKey = destination != null && coalesceDestinations.contains(destination) ? destination : null;
+        synchronized (queue) {
+            if (coalesceKey != null) {
+                Iterator<Frame> frames = queue.iterator();
+                while (frames.hasNext()) {
+                    Frame queued = frames.next();
+                    if (coalesceKey.equals(queued.coalesceKey())) {
+                        frames.remove();
+                        queuedBytes -= queued.size();
+                        meters.coalesced().increment();
+                        break;
+                    }
+                }
+            }
+            Frame frame = new Frame(message, coalesceKey, message.getPayloadLength());
+            queue.addLast(frame);
+            queuedBytes += frame.size();
+        }
+    }
+
+    private boolean tryFlush() throws IOException {
+        if (!flushLock.tryLock()) {
+            return false;
+        }
+        try {
+            while (!closing) {
+                Frame frame;
+                synchronized (queue) {
+                    frame = queue.pollFirst();
+                    if (frame == null) {
+                        break;
+                    }
+                    queuedBytes -= frame.size();
+                }
+                sendStartedAt = System.currentTimeMillis();
+                getDelegate().sendMessage(frame.message());
+                sendStartedAt = 0;
+            }
+            return true;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean isQueueEmpty() {
+        synchronized (queue) {
+            return queue.isEmpty();
+        }
+    }
+
+    /**
+     * Closes the session if the client has fallen too far behind.
+     */
+    private void checkLimits() {
+        long started = sendStartedAt;
+        boolean tooSlow = started != 0 && System.currentTimeMillis() - started > sendTimeLimitMillis;
+        int dropped;
+        synchronized (queue) {
+            if (closing || !(tooSlow || queue.size() > frameLimit || queuedBytes > bufferSizeLimit)) {
+                return;
+            }
+            closing = true;
+            dropped = queue.size();
+            queue.clear();
+            queuedBytes = 0;
+        }
+        meters.dropped().increment(dropped);
+        meters.disconnected().increment();
+        try {
+            getDelegate().close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            // The session is being closed anyway.
+        }
+    }
+
+    /**
+     * @return the number of frames waiting to be written
+     */
+    public int getQueuedFrames() {
+        synchronized (queue) {
+            return queue.size();
+        }
+    }
+
+    /**
+     * Reads the destination header of a STOMP MESSAGE frame without decoding the rest of it.
+     *
+     * @param message the WebSocket message carrying the frame
+     * @return the destination, or null if the message is not a MESSAGE frame
+     */
+    static String destinationOf(WebSocketMessage<?> message) {
+        String headers;
+        if (message instanceof TextMessage textMessage) {
+            String payload = textMessage.getPayload();
+            int end = payload.indexOf("\n\n");
+            headers = end == -1 ? payload : payload.substring(0, end);
+        } else if (message instanceof BinaryMessage binaryMessage) {
+            ByteBuffer payload = binaryMessage.getPayload().asReadOnlyBuffer();
+            int end = payload.position();
+            while (end < payload.limit() - 1 && !(payload.get(end) == '\n' && payload.get(end + 1) == '\n')) {
+                end++;
+            }
+            byte[] bytes = new byte[end - payload.position()];
+            payload.get(bytes);
+            headers = new String(bytes, StandardCharsets.UTF_8);
+        } else {
+            return null;
+        }
+        if (!headers.startsWith("MESSAGE\n")) {
+            return null;
+        }
+        int start = headers.indexOf("\ndestination:");
+        if (start == -1) {
+            return null;
+        }
+        start += "\ndestination:".length();
+        int end = headers.indexOf('\n', start);
+        return end == -1 ? headers.substring(start) : headers.substring(start, end);
+    }
+}
@@ -0,0 +1,43 @@
+package com.memo.game.config;
+
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.SubProtocolWebSocketHandler;
+
+/**
+ * Sub-protocol handler that writes to each session through a {@link BufferedSendSession} instead of Spring's
+ * {@code ConcurrentWebSocketSessionDecorator}.
+ * <p>
+ * Spring wraps every session it sends to in its own decorator, which serializes the senders and buffers
+ * their frames itself. The bounded queue only sees frames pile up, and can only coalesce them, if it is
+ * that outermost decorator, so it replaces Spring's rather than wrapping the session before it.
+ */
+public class BufferingSubProtocolWebSocketHandler extends SubProtocolWebSocketHandler {
+    private final OutboundBufferDecoratorFactory outboundBufferDecoratorFactory;
+
+    public BufferingSubProtocolWebSocketHandler(MessageChannel clientInboundChannel,
+                                                SubscribableChannel clientOutboundChannel,
+                                                OutboundBufferDecoratorFactory outboundBufferDecoratorFactory) {
+        super(clientInboundChannel, clientOutboundChannel);
+        this.outboundBufferDecoratorFactory = outboundBufferDecoratorFactory;
+    }
+
+    /**
+     * Wraps the session in a {@link BufferedSendSession} that enforces the send limits of the transport.
+     *
+     * @param session the session of a new connection
+     * @return the session to send to
+     */
+    @Override
+    protected WebSocketSession decorateSession(WebSocketSession session) {
+        return outboundBufferDecoratorFactory.decorate(session, getSendTimeLimit(), getSendBufferSizeLimit());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+        outboundBufferDecoratorFactory.release(session.getId());
+        super.afterConnectionClosed(session, closeStatus);
+    }
+}
@@ -0,0 +1,93 @@
+package com.memo.game.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Builds the thread pools of the STOMP channels from the {@code memo.websocket.<channel>.*} properties,
+ * e.g. {@code memo.websocket.inbound.queue-capacity}.
+ * <p>
+ * Without properties the pools match Spring's defaults: twice as many core threads as processors,
+ * and an unbounded queue, so tasks are never rejected. With a bounded queue, the rejection policy decides what
+ * happens to a message once every thread is busy and the queue is full; every rejection is counted in
+ * {@code memo.websocket.executor.rejected}. The queue depth itself is bound by {@link MetricsConfig}.
+ */
+@Component
+public class ChannelExecutorFactory {
+
+    /**
+     * What to do with a message the pool has no room for.
+     */
+    public enum RejectionPolicy {
+        /** Run it on the sending thread, which slows down the socket or broker that produced it. */
+        CALLER_RUNS,
+        /** Throw, so the sender sees the failure; inbound frames of the session are dropped. */
+        ABORT,
+        /** Drop the oldest queued message to make room. */
+        DISCARD_OLDEST
+    }
+
+    private final Environment environment;
+    private final MeterRegistry registry;
+
+    public ChannelExecutorFactory(Environment environment, MeterRegistry registry) {
+        this.environment = environment;
+        this.registry = registry;
+    }
+
+    /**
+     * Creates the pool of a channel. Spring initializes it when it registers it as the channel's executor bean.
+     *
+     * @param channel the property and metric name of the channel: inbound, outbound or broker
+     * @param threadNamePrefix the prefix of the pool's thread names
+     * @return the uninitialized pool
+     */
+    public ThreadPoolTaskExecutor create(String channel, String threadNamePrefix) {
+        String prefix = "memo.websocket." + channel + ".";
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix(threadNamePrefix);
+        executor.setCorePoolSize(environment.getProperty(prefix + "core-pool-size", Integer.class,
+                Runtime.getRuntime().availableProcessors() * 2));
+        executor.setMaxPoolSize(environment.getProperty(prefix + "max-pool-size", Integer.class, Integer.MAX_VALUE));
+        executor.setQueueCapacity(environment.getProperty(prefix + "queue-capacity", Integer.class, Integer.MAX_VALUE));
+        executor.setKeepAliveSeconds(environment.getProperty(prefix + "keep-alive-seconds", Integer.class, 60));
+        executor.setAllowCoreThreadTimeOut(true);
+        RejectionPolicy policy = parsePolicy(environment.getProperty(prefix + "rejection-policy", "caller-runs"));
+        executor.setRejectedExecutionHandler(countingRejections(channel, policy));
+        return executor;
+    }
+
+    /**
+     * Parses a policy written in property style, e.g. {@code caller-runs}.
+     *
+     * @param value the property value
+     * @return the policy
+     * @throws IllegalArgumentException if the value names no policy
+     */
+    static RejectionPolicy parsePolicy(String value) {
+        return RejectionPolicy.valueOf(value.trim().toUpperCase().replace('-', '_'));
+    }
+
+    private RejectedExecutionHandler countingRejections(String channel, RejectionPolicy policy) {
+        Counter rejected = Counter.builder("memo.websocket.executor.rejected")
+                .description("Messages a STOMP channel executor had no room for")
+                .tag("channel", channel)
+                .tag("policy", policy.name().toLowerCase())
+                .register(registry);
+        RejectedExecutionHandler handler = switch (policy) {
+            case CALLER_RUNS -> new ThreadPoolExecutor.CallerRunsPolicy();
+            case ABORT -> new ThreadPoolExecutor.AbortPolicy();
+            case DISCARD_OLDEST -> new ThreadPoolExecutor.DiscardOldestPolicy();
+        };
+        return (task, executor) -> {
+            rejected.increment();
+            handler.rejectedExecution(task, executor);
+        };
+    }
+}
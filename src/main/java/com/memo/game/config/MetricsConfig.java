@@ -0,0 +1,72 @@
+package com.memo.game.config;
+
+import com.memo.game.service.MultiPlayerService;
+import com.memo.game.service.SinglePlayerService;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Configuration class for the operational metrics exposed at {@code /actuator/prometheus}.
+ * <p>
+ * Registers gauges for the live game sessions and binds the STOMP channel executors.
+ * Gameplay counters and timers are kept in {@link com.memo.game.service.GameMetrics};
+ * the database pool is bound by Spring Boot's HikariCP auto-configuration.
+ */
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Gauges for the live single-player sessions, and for the waiting, started and friend-room
+     * multiplayer games. They are only evaluated when the registry is scraped.
+     *
+     * @param singlePlayerService the registry of single-player sessions
+     * @param multiPlayerService the registry of multiplayer games
+     * @return the binder registering the gauges
+     */
+    @Bean
+    public MeterBinder sessionMetrics(SinglePlayerService singlePlayerService,
+                                      MultiPlayerService multiPlayerService) {
+        return registry -> {
+            Gauge.builder("memo.sessions", singlePlayerService, service -> service.getPlays().size())
+                    .tags("mode", "single", "state", "started")
+                    .register(registry);
+            Gauge.builder("memo.sessions", multiPlayerService, MultiPlayerService::countWaitingGames)
+                    .tags("mode", "multi", "state", "waiting")
+                    .register(registry);
+            Gauge.builder("memo.sessions", multiPlayerService, MultiPlayerService::countStartedGames)
+                    .tags("mode", "multi", "state", "started")
+                    .register(registry);
+            Gauge.builder("memo.sessions", multiPlayerService, MultiPlayerService::countOpenFriendRooms)
+                    .tags("mode", "multi", "state", "friendRoom")
+                    .register(registry);
+        };
+    }
+
+    /**
+     * Binds the pool size, queue depth and task counts of the STOMP channel executors once they
+     * have been initialized.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void bindChannelExecutors(ApplicationStartedEvent event) {
+        MeterRegistry registry = event.getApplicationContext().getBean(MeterRegistry.class);
+        bindExecutor(registry, event.getApplicationContext()
+                .getBean("clientInboundChannelExecutor", ThreadPoolTaskExecutor.class), "clientInbound");
+        bindExecutor(registry, event.getApplicationContext()
+                .getBean("clientOutboundChannelExecutor", ThreadPoolTaskExecutor.class), "clientOutbound");
+        bindExecutor(registry, event.getApplicationContext()
+                .getBean("brokerChannelExecutor", ThreadPoolTaskExecutor.class), "broker");
+    }
+
+    private void bindExecutor(MeterRegistry registry, ThreadPoolTaskExecutor executor, String channel) {
+        new ExecutorServiceMetrics(executor.getThreadPoolExecutor(), "stomp." + channel, Tags.empty())
+                .bindTo(registry);
+    }
+}
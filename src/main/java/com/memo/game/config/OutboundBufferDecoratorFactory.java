@@ -0,0 +1,78 @@
+package com.memo.game.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Gives every WebSocket session a {@link BufferedSendSession}, so that each session has its own bounded
+ * queue of outgoing frames and a client that stops reading is disconnected instead of holding up the
+ * outbound threads. The {@link BufferingSubProtocolWebSocketHandler} asks for the buffered session
+ * when a connection is established.
+ * <p>
+ * Exposes the frames queued over all sessions, and counts coalesced frames, frames dropped
+ * with a disconnected session, and slow consumers that were disconnected.
+ */
+@Component
+public class OutboundBufferDecoratorFactory {
+    private final int frameLimit;
+    private final Set<String> coalesceDestinations;
+    private final BufferedSendSession.Meters meters;
+    private final Map<String, BufferedSendSession> sessions = new ConcurrentHashMap<>();
+
+    public OutboundBufferDecoratorFactory(
+            MeterRegistry registry,
+            @Value("${memo.websocket.outbound.session-queue-limit:1000}") int frameLimit,
+            @Value("${memo.websocket.outbound.coalesce-destinations:/user/queue/game.state}") Set<String> coalesceDestinations) {
+        this.frameLimit = frameLimit;
+        this.coalesceDestinations = Set.copyOf(coalesceDestinations);
+        this.meters = new BufferedSendSession.Meters(
+                frames(registry, "coalesced"),
+                frames(registry, "dropped"),
+                Counter.builder("memo.websocket.slow.consumers")
+                        .description("Sessions closed because they fell too far behind")
+                        .register(registry));
+        Gauge.builder("memo.websocket.outbound.queued", sessions,
+                        live -> live.values().stream().mapToInt(BufferedSendSession::getQueuedFrames).sum())
+                .description("Frames waiting to be written, over all sessions")
+                .register(registry);
+    }
+
+    private static Counter frames(MeterRegistry registry, String result) {
+        return Counter.builder("memo.websocket.outbound.frames")
+                .description("Outgoing frames that were not written to their session")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Wraps a session in a {@link BufferedSendSession} and tracks it until {@link #release(String)}.
+     *
+     * @param session the session of a new connection
+     * @param sendTimeLimitMillis how long a single write may take before the session is closed
+     * @param bufferSizeLimit how many bytes may be queued before the session is closed
+     * @return the buffered session
+     */
+    public BufferedSendSession decorate(WebSocketSession session, long sendTimeLimitMillis, int bufferSizeLimit) {
+        BufferedSendSession buffered = new BufferedSendSession(session, frameLimit, bufferSizeLimit,
+                sendTimeLimitMillis, coalesceDestinations, meters);
+        sessions.put(session.getId(), buffered);
+        return buffered;
+    }
+
+    /**
+     * Stops tracking the session of a closed connection.
+     *
+     * @param sessionId the id of the session
+     */
+    public void release(String sessionId) {
+        sessions.remove(sessionId);
+    }
+}
@@ -0,0 +1,66 @@
+package com.memo.game.config;
+
+import com.memo.game.dto.UserPrincipal;
+import com.memo.game.service.TokenService;
+import com.memo.game.service.UserNameDirectory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Authenticates STOMP sessions once, when the client connects.
+ * <p>
+ * The client sends its JWT in the {@code Authorization} header of the CONNECT frame, either as
+ * {@code Bearer <token>} or as the bare token. If the token is valid, the user it was issued to is stored
+ * as the session's {@link UserPrincipal}, which Spring then attaches to every later frame of the session,
+ * so message handlers no longer decode the token. The username from the token is handed to the
+ * {@link UserNameDirectory}, where game messages look it up. Connections without a valid token are
+ * rejected with an ERROR frame.
+ */
+@Component
+public class StompAuthInterceptor implements ChannelInterceptor {
+    public static final String AUTHORIZATION_HEADER = "Authorization";
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final TokenService tokenService;
+    private final UserNameDirectory userNameDirectory;
+
+    public StompAuthInterceptor(TokenService tokenService, UserNameDirectory userNameDirectory) {
+        this.tokenService = tokenService;
+        this.userNameDirectory = userNameDirectory;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || !StompCommand.CONNECT.equals(accessor.getCommand())) {
+            return message;
+        }
+        String token = extractToken(accessor.getFirstNativeHeader(AUTHORIZATION_HEADER));
+        UserPrincipal user = tokenService.authenticate(token);
+        if (user == null) {
+            throw new MessageDeliveryException(message, "Unauthorized");
+        }
+        userNameDirectory.remember(user);
+        accessor.setUser(user);
+        return message;
+    }
+
+    /**
+     * Strips the optional "Bearer " prefix from the Authorization header value.
+     *
+     * @param header the value of the Authorization header, may be null
+     * @return the token, or null if the header is missing
+     */
+    private String extractToken(String header) {
+        if (header != null && header.startsWith(BEARER_PREFIX)) {
+            return header.substring(BEARER_PREFIX.length());
+        }
+        return header;
+    }
+}
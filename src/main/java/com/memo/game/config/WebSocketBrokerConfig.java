@@ -0,0 +1,38 @@
+package com.memo.game.config;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+/**
+ * Sets up the STOMP message broker in place of {@code @EnableWebSocketMessageBroker}, which has no other way
+ * to replace the handler that writes to the client sessions. Everything else is still configured by the
+ * {@link WebSocketConfig}.
+ */
+@Configuration
+public class WebSocketBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+    private final OutboundBufferDecoratorFactory outboundBufferDecoratorFactory;
+
+    public WebSocketBrokerConfig(OutboundBufferDecoratorFactory outboundBufferDecoratorFactory) {
+        this.outboundBufferDecoratorFactory = outboundBufferDecoratorFactory;
+    }
+
+    /**
+     * Creates the handler of the STOMP sessions, which sends to every session through its own bounded queue.
+     *
+     * @param clientInboundChannel the channel carrying messages from clients
+     * @param clientOutboundChannel the channel carrying messages to clients
+     * @return the buffering sub-protocol handler
+     */
+    @Bean
+    @Override
+    public WebSocketHandler subProtocolWebSocketHandler(
+            @Qualifier("clientInboundChannel") AbstractSubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") AbstractSubscribableChannel clientOutboundChannel) {
+        return new BufferingSubProtocolWebSocketHandler(clientInboundChannel, clientOutboundChannel,
+                outboundBufferDecoratorFactory);
+    }
+}
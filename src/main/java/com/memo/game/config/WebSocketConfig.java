@@ -1,45 +1,214 @@
 package com.memo.game.config;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.converter.MessageConverter;
+import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.MimeType;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.List;
 
 /**
  * Configuration class for setting up WebSocket messaging in the application.
  * <p>
  * Enables the use of STOMP (Simple Text Oriented Messaging Protocol) for sending messages between clients and servers.
+ * The broker itself is enabled by the {@link WebSocketBrokerConfig}.
  *
  * @author Joabson Arley do Nascimento
  */
 @Configuration
-@EnableWebSocketMessageBroker
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
+    /**
+     * Content type of the binary encoding of game messages.
+     */
+    public static final MimeType CBOR = MimeType.valueOf("application/cbor");
+    /**
+     * Suffix of the game topics carrying CBOR encoded events, e.g. "/topic/game.{gameId}.cbor".
+     */
+    public static final String CBOR_TOPIC_SUFFIX = ".cbor";
+
+    private final StompAuthInterceptor stompAuthInterceptor;
+    private final ChannelExecutorFactory channelExecutorFactory;
+    private final BrokerRelaySettings brokerRelaySettings;
+    private final String broker;
+    private final int messageSizeLimit;
+    private final int sendBufferSizeLimit;
+    private final int sendTimeLimit;
+    private final long heartbeatMillis;
+    private TaskScheduler messageBrokerTaskScheduler;
+
+    public WebSocketConfig(StompAuthInterceptor stompAuthInterceptor,
+                           ChannelExecutorFactory channelExecutorFactory,
+                           BrokerRelaySettings brokerRelaySettings,
+                           @Value("${memo.websocket.broker:simple}") String broker,
+                           @Value("${memo.websocket.message-size-limit:65536}") int messageSizeLimit,
+                           @Value("${memo.websocket.send-buffer-size-limit:524288}") int sendBufferSizeLimit,
+                           @Value("${memo.websocket.send-time-limit-ms:10000}") int sendTimeLimit,
+                           @Value("${memo.websocket.heartbeat-ms:10000}") long heartbeatMillis) {
+        this.stompAuthInterceptor = stompAuthInterceptor;
+        this.channelExecutorFactory = channelExecutorFactory;
+        this.brokerRelaySettings = brokerRelaySettings;
+        this.broker = broker;
+        this.messageSizeLimit = messageSizeLimit;
+        this.sendBufferSizeLimit = sendBufferSizeLimit;
+        this.sendTimeLimit = sendTimeLimit;
+        this.heartbeatMillis = heartbeatMillis;
+    }
+
+    /**
+     * Injects the scheduler Spring creates for the broker and SockJS. It is lazy because this configuration
+     * takes part in creating it.
+     *
+     * @param messageBrokerTaskScheduler the shared scheduler of the message broker
+     */
+    @Autowired
+    public void setMessageBrokerTaskScheduler(
+            @Lazy @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler) {
+        this.messageBrokerTaskScheduler = messageBrokerTaskScheduler;
+    }
 
     /**
-     * Registers the "/ws" endpoint, allowing clients to connect to the WebSocket message broker.
+     * Registers the "/ws" endpoint, allowing clients to connect to the WebSocket message broker through SockJS,
+     * and the "/ws-native" endpoint for clients that speak plain WebSocket. The native endpoint skips the SockJS
+     * framing and its HTTP streaming and polling fallbacks; both endpoints share the same message handlers.
      *
      * @param registry the registry for registering STOMP endpoints
      */
     @Override
     public void registerStompEndpoints(StompEndpointRegistry registry) {
         registry.addEndpoint("/ws").setAllowedOriginPatterns("*").withSockJS();
+        registry.addEndpoint("/ws-native").setAllowedOriginPatterns("*");
         //registry.addEndpoint("/ws").withSockJS();
     }
 
+    /**
+     * Limits the size of incoming STOMP messages, and how much and how long the server buffers outgoing
+     * messages for a slow client before it closes the session. Client frames (joins, moves) stay well below
+     * the servlet container's own WebSocket buffer, so only the STOMP limit needs configuring.
+     * The buffering itself is done per session by the {@link BufferingSubProtocolWebSocketHandler}, which also
+     * limits the number of queued frames and coalesces superseded game states.
+     *
+     * @param registration the registration of the WebSocket transport
+     */
+    @Override
+    public void configureWebSocketTransport(WebSocketTransportRegistration registration) {
+        registration.setMessageSizeLimit(messageSizeLimit);
+        registration.setSendBufferSizeLimit(sendBufferSizeLimit);
+        registration.setSendTimeLimit(sendTimeLimit);
+    }
+
     /**
      * Configures the message broker to use destination prefixes to filter messages.
      * All messages that start with "/app" are routed to the message-handling methods,
-     * while messages that start with "/queue", "/topic", or "/user" are routed to the message broker.
+     * while messages that start with "/queue" or "/topic" are routed to the message broker.
      * The message broker broadcasts messages to subscribed clients that are connected to the broker.
+     * Destinations starting with "/user" are resolved to the sessions of the connected user,
+     * e.g. "/user/queue/errors", so replies reach one player instead of every subscriber.
+     * The broker exchanges heartbeats with clients on the shared broker scheduler, and closes sessions
+     * that stay silent for longer than the negotiated interval. The broker channel runs on its own pool.
+     * <p>
+     * By default the broker is the in-memory simple broker, which only knows the subscriptions of this node.
+     * With {@code memo.websocket.broker=relay} subscriptions and messages are relayed to an external
+     * STOMP broker instead, so a message sent on one node reaches subscribers connected to any node.
      *
      * @param registry the registry for configuring the message broker
      */
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         registry.setApplicationDestinationPrefixes("/app");
-        registry.enableSimpleBroker("/queue", "/topic"/*, "/user"*/);
-        //registry.setUserDestinationPrefix("/user");
+        if ("relay".equals(broker)) {
+            enableBrokerRelay(registry);
+        } else if (heartbeatMillis > 0) {
+            registry.enableSimpleBroker("/queue", "/topic")
+                    .setHeartbeatValue(new long[] {heartbeatMillis, heartbeatMillis})
+                    .setTaskScheduler(messageBrokerTaskScheduler);
+        } else {
+            registry.enableSimpleBroker("/queue", "/topic");
+        }
+        registry.setUserDestinationPrefix("/user");
+        registry.configureBrokerChannel().taskExecutor(channelExecutorFactory.create("broker", "brokerChannel-"));
+    }
+
+    /**
+     * Relays "/queue" and "/topic" to the external broker. Messages for users connected to another node,
+     * and the registry of which node each user is connected to, are exchanged between the nodes through
+     * the broker as well, so user destinations such as "/user/queue/errors" keep working.
+     *
+     * @param registry the registry for configuring the message broker
+     */
+    private void enableBrokerRelay(MessageBrokerRegistry registry) {
+        StompBrokerRelayRegistration relay = registry.enableStompBrokerRelay("/queue", "/topic")
+                .setRelayHost(brokerRelaySettings.getHost())
+                .setRelayPort(brokerRelaySettings.getPort())
+                .setClientLogin(brokerRelaySettings.getLogin())
+                .setClientPasscode(brokerRelaySettings.getPasscode())
+                .setSystemLogin(brokerRelaySettings.getLogin())
+                .setSystemPasscode(brokerRelaySettings.getPasscode())
+                .setVirtualHost(brokerRelaySettings.getVirtualHost())
+                .setUserDestinationBroadcast("/topic/unresolved-user")
+                .setUserRegistryBroadcast("/topic/user-registry");
+        if (heartbeatMillis > 0) {
+            relay.setSystemHeartbeatSendInterval(heartbeatMillis)
+                    .setSystemHeartbeatReceiveInterval(heartbeatMillis);
+        }
+    }
+
+    /**
+     * Registers the interceptor that authenticates each session once, on the STOMP CONNECT frame,
+     * and the pool the message handlers run on.
+     *
+     * @param registration the registration of the channel carrying messages from clients
+     */
+    @Override
+    public void configureClientInboundChannel(ChannelRegistration registration) {
+        registration.interceptors(stompAuthInterceptor);
+        registration.taskExecutor(channelExecutorFactory.create("inbound", "clientInboundChannel-"));
+    }
+
+    /**
+     * Registers the pool that writes messages to the client sessions.
+     *
+     * @param registration the registration of the channel carrying messages to clients
+     */
+    @Override
+    public void configureClientOutboundChannel(ChannelRegistration registration) {
+        registration.taskExecutor(channelExecutorFactory.create("outbound", "clientOutboundChannel-"));
+    }
+
+    /**
+     * Adds the CBOR converter in front of the default String, byte array and JSON converters.
+     * It only handles messages whose content type is {@code application/cbor}, so clients that
+     * send and subscribe without a content type keep receiving JSON.
+     *
+     * @param messageConverters the converters to add to
+     * @return true, to keep the default converters as well
+     */
+    @Override
+    public boolean configureMessageConverters(List<MessageConverter> messageConverters) {
+        messageConverters.add(cborMessageConverter());
+        return true;
+    }
+
+    /**
+     * Creates the converter between game messages and their CBOR encoding.
+     *
+     * @return a converter that only handles the {@code application/cbor} content type
+     */
+    public static MappingJackson2MessageConverter cborMessageConverter() {
+        MappingJackson2MessageConverter converter = new MappingJackson2MessageConverter(CBOR);
+        converter.setObjectMapper(Jackson2ObjectMapperBuilder.cbor().build());
+        converter.setStrictContentTypeMatch(true);
+        return converter;
     }
-}
\ No newline at end of file
+}
@@ -1,21 +1,25 @@
 package com.memo.game.controller;
 
+import com.memo.game.config.AuthInterceptor;
 import com.memo.game.dto.AuthRequest;
 import com.memo.game.entity.MemoUser;
 import com.memo.game.service.*;
 import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseCookie;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CookieValue;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RestController;
 
-import org.mindrot.jbcrypt.BCrypt;
-
+import java.time.Duration;
 import java.util.HashMap;
-import java.util.Map;
 import java.util.UUID;
-import java.util.regex.Matcher;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.regex.Pattern;
 
 /**
@@ -28,14 +32,27 @@ import java.util.regex.Pattern;
 public class AuthController {
     private final UserService gameService;
     private final TokenService tokenService;
-    private final TokenBlacklistService tokenBlacklistService;
-    private static final String EMAIL_REGEX = "^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$";
+    private final TokenRevocationService tokenRevocationService;
+    private final PasswordHasher passwordHasher;
+    private final LoginRateLimiter loginRateLimiter;
+    private final RefreshTokenService refreshTokenService;
+    private final boolean secureRefreshCookie;
+    static final String REFRESH_COOKIE = "memo_refresh";
+    private static final Pattern EMAIL_PATTERN =
+            Pattern.compile("^[a-zA-Z0-9_+&*-]+(?:\\.[a-zA-Z0-9_+&*-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,7}$");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s");
 
     public AuthController(UserService gameService, TokenService tokenService,
-                          TokenBlacklistService tokenBlacklistService) {
+                          TokenRevocationService tokenRevocationService, PasswordHasher passwordHasher,
+                          LoginRateLimiter loginRateLimiter, RefreshTokenService refreshTokenService,
+                          @Value("${memo.auth.refresh.secure-cookie:true}") boolean secureRefreshCookie) {
         this.gameService=gameService;
         this.tokenService=tokenService;
-        this.tokenBlacklistService = tokenBlacklistService;
+        this.tokenRevocationService = tokenRevocationService;
+        this.passwordHasher = passwordHasher;
+        this.loginRateLimiter = loginRateLimiter;
+        this.refreshTokenService = refreshTokenService;
+        this.secureRefreshCookie = secureRefreshCookie;
     }
 
     /**
@@ -43,17 +60,17 @@ public class AuthController {
      *
      * This method handles a request to register a new user with the provided email, username, and password.
      * It validates the request data, ensuring that all required fields are provided and meet certain criteria.
-     * If the request data is valid, it checks if the email and username are unique. If not, it returns an error message.
-     * If the data is unique and meets the required criteria, it hashes the password, creates a new user object,
-     * and saves it to the database.
+     * If the email or username is already taken, it returns an error message before hashing the password.
+     * Otherwise it hashes the password and inserts the new user. A registration that takes the email or username
+     * in the meantime is caught by the unique constraints of the users table, with the same error message.
      *
      * @param registerRequest the request body containing the email, username, and password of the user to register
      * @return a ResponseEntity indicating the outcome of the registration attempt, with an OK status if successful
-     *         or a bad request status with an error message if the request data is incorrect or the email/username already exists
+     *         or a bad request status with an error message if the request data is incorrect or the email/username already exists,
+     *         or a service unavailable status if too many passwords are being hashed
      */
     @PostMapping("/api/register")
     public ResponseEntity<?> register(@RequestBody AuthRequest registerRequest) {
-        Map<String, Object> responseMap = new HashMap<>();
         String email = registerRequest.getEmail();
         String userName = registerRequest.getUsername();
         String password = registerRequest.getPassword();
@@ -68,23 +85,27 @@ public class AuthController {
         if(gameService.getByUserName(userName)!=null) {
             return ResponseEntity.badRequest().body("Existing username!");
         }
-        if(userName.length()<4 || userName.matches(".*\\s.*")) {
+        if(userName.length()<4 || WHITESPACE.matcher(userName).find()) {
             return ResponseEntity.badRequest().body("Username must be at least 4 characters long with no whitespaces!");
         }
-        if(password.length()<6 || password.matches(".*\\s.*")) {
+        if(password.length()<6 || WHITESPACE.matcher(password).find()) {
             return ResponseEntity.badRequest().body("Password must be at least 6 characters long with no whitespaces!");
         }
-
-        Pattern pattern = Pattern.compile(EMAIL_REGEX);
-        Matcher matcher = pattern.matcher(email);
-        if(matcher.matches()) {
-            String hashedPassword = BCrypt.hashpw(password, BCrypt.gensalt());
-            MemoUser memoUser = new MemoUser(userName, email, hashedPassword);
-            gameService.saveUser(memoUser);
-            return ResponseEntity.ok().build();
-        } else {
+        if(!EMAIL_PATTERN.matcher(email).matches()) {
             return ResponseEntity.badRequest().body("Incorrect email format!");
         }
+
+        String hashedPassword;
+        try {
+            hashedPassword = passwordHasher.hash(password);
+        } catch (RejectedExecutionException e) {
+            return tooBusy();
+        }
+        return switch (gameService.register(new MemoUser(userName, email, hashedPassword))) {
+            case CREATED -> ResponseEntity.ok().build();
+            case EXISTING_EMAIL -> ResponseEntity.badRequest().body("Existing email!");
+            case EXISTING_USERNAME -> ResponseEntity.badRequest().body("Existing username!");
+        };
     }
 
     /**
@@ -92,23 +113,33 @@ public class AuthController {
      *
      * This method handles a request to authenticate a user using their email or username and password.
      * It validates the request data, ensuring that either the email or username and the password are provided.
-     * If the request data is valid, it checks if the user exists based on the provided email or username.
+     * If the request data is valid and the client, username and email are within their sign-in rate limits,
+     * it checks if the user exists based on the provided email or username. Failed sign-ins count against
+     * the rate limits of the username and email.
      * If the user exists, it verifies the password using bcrypt hashing.
-     * If the password is correct, it generates a JWT token for the user and returns it.
+     * If the password is correct, it generates a JWT token for the user and returns it,
+     * together with a refresh token in an HttpOnly cookie.
      *
      * @param signInRequest the request body containing the email or username and password of the user to authenticate
+     * @param request the HTTP request, for the client's address
      * @return a ResponseEntity containing a JWT token if authentication is successful,
-     *         or an unauthorized status with an error message if the request data is incorrect or authentication fails
+     *         or an unauthorized status with an error message if the request data is incorrect or authentication fails,
+     *         or a too many requests status if a rate limit is exceeded,
+     *         or a service unavailable status if too many passwords are being checked
      */
     @PostMapping("/api/signIn")
-    public ResponseEntity<?> signIn(@RequestBody AuthRequest signInRequest) {
-        UUID userId = null;
+    public ResponseEntity<?> signIn(@RequestBody AuthRequest signInRequest, HttpServletRequest request) {
         MemoUser user = null;
 
         if((signInRequest.getEmail()==null && signInRequest.getUsername()==null) ||
             signInRequest.getPassword()==null) {
             return ResponseEntity.badRequest().body("Incorrect request data!");
         }
+        if(!loginRateLimiter.tryAcquire(request.getRemoteAddr(), signInRequest.getUsername(), signInRequest.getEmail())) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(loginRateLimiter.getRetryAfterSeconds()))
+                    .body("Too many sign-in attempts, please try again later!");
+        }
 
         if(signInRequest.getUsername()!=null) {
             user = gameService.getByUserName(signInRequest.getUsername());
@@ -117,45 +148,127 @@ public class AuthController {
             user = gameService.getByEmail(signInRequest.getEmail());
         }
         if(user!=null) {
-            if(BCrypt.checkpw(signInRequest.getPassword(), user.getPassword())) {
+            boolean passwordMatches;
+            try {
+                passwordMatches = passwordHasher.check(signInRequest.getPassword(), user.getPassword());
+            } catch (RejectedExecutionException e) {
+                return tooBusy();
+            }
+            if(passwordMatches) {
                 String token = tokenService.generateJwtToken(user);
-                return ResponseEntity.ok(token);
+                return ResponseEntity.ok()
+                        .header(HttpHeaders.SET_COOKIE, refreshCookie(refreshTokenService.issue(user.getId())).toString())
+                        .body(token);
             } else {
+                loginRateLimiter.signInFailed(signInRequest.getUsername(), signInRequest.getEmail());
                 return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Password is incorrect!");
             }
         } else {
+            loginRateLimiter.signInFailed(signInRequest.getUsername(), signInRequest.getEmail());
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Email or username is incorrect!");
         }
     }
 
+    /**
+     * Answers a request whose password could not be queued for BCrypt, asking the client to try again later.
+     */
+    private ResponseEntity<?> tooBusy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHasher.getRetryAfterSeconds()))
+                .body("Too many sign-in attempts, please try again later!");
+    }
+
     /**
      * Retrieves user information based on the provided JWT token.
      *
      * This method handles a request to fetch user information such as user ID and username based on the provided JWT token.
-     * It extracts the token from the request, validates it, and then extracts the user ID from the token.
-     * If the token is valid and the user ID is successfully extracted, it retrieves the username associated with the user ID.
+     * The token has already been validated by {@link AuthInterceptor}, which bound the user ID and username
+     * carried by it to the request, so no database lookup is needed. Only tokens issued without a username
+     * fall back to retrieving the username associated with the user ID.
      * It then constructs a response containing the user ID and username and returns it.
      *
-     * @param request the HTTP request containing the JWT token
-     * @return a ResponseEntity containing the user information (user ID and username) if the token is valid,
-     *         or an unauthorized status with an error message if the token is invalid or the user ID cannot be extracted
+     * @param userId the ID of the authenticated user
+     * @param userName the username from the token, or null if the token has none
+     * @return a ResponseEntity containing the user information (user ID and username)
      */
     @PostMapping("api/getUserInfo")
-    public ResponseEntity<?> getUserInfo(HttpServletRequest request) {
-        String token = tokenService.extractTokenFromRequest(request);
-        if (!tokenService.isTokenValid(token)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-
-        UUID userId = tokenService.extractUserIdFromToken(token);
-        if(userId==null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found!");
+    public ResponseEntity<?> getUserInfo(@RequestAttribute(AuthInterceptor.USER_ID_ATTRIBUTE) UUID userId,
+                                         @RequestAttribute(name = AuthInterceptor.USER_NAME_ATTRIBUTE, required = false) String userName) {
+        if (userName == null) {
+            userName = gameService.getUserNameById(userId);
         }
-        String userName = gameService.getUserNameById(userId);
 
         HashMap<String, Object> responseMap = new HashMap<>();
         responseMap.put("userId", userId);
         responseMap.put("userName", userName);
         return ResponseEntity.ok(responseMap);
     }
+
+    /**
+     * Issues a new JWT token in exchange for the refresh token cookie, without the password.
+     *
+     * The refresh token is replaced with a new one on every call. Presenting a refresh token that was already
+     * replaced revokes all refresh tokens descended from the same sign-in. The user is read once per refresh,
+     * so the new JWT token carries their current username and user version.
+     *
+     * @param refreshToken the refresh token from the cookie, may be null
+     * @return a ResponseEntity containing a new JWT token and setting the new refresh token cookie,
+     *         or an unauthorized status clearing the cookie if the refresh token is missing, expired, revoked or reused,
+     *         or its user no longer exists
+     */
+    @PostMapping("api/refresh")
+    public ResponseEntity<?> refresh(@CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        MemoUser user = rotation == null ? null : gameService.getById(rotation.userId());
+        if (user == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED)
+                    .header(HttpHeaders.SET_COOKIE, clearedRefreshCookie().toString())
+                    .build();
+        }
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, refreshCookie(rotation.refreshToken()).toString())
+                .body(tokenService.generateJwtToken(user));
+    }
+
+    /**
+     * Signs a user out by blacklisting their JWT token and revoking their refresh token.
+     *
+     * The token stays blacklisted on every node until it expires, so it can no longer be used for new requests
+     * or new STOMP connections. STOMP sessions are only authenticated on CONNECT, so a session that is already
+     * connected keeps playing until it disconnects.
+     *
+     * @param token the JWT token validated by {@link AuthInterceptor}
+     * @param refreshToken the refresh token from the cookie, may be null
+     * @return a ResponseEntity with an ok status once the token was blacklisted
+     */
+    @PostMapping("api/signOut")
+    public ResponseEntity<?> signOut(@RequestAttribute(AuthInterceptor.TOKEN_ATTRIBUTE) String token,
+                                     @CookieValue(name = REFRESH_COOKIE, required = false) String refreshToken) {
+        tokenRevocationService.revoke(token);
+        refreshTokenService.revoke(refreshToken);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, clearedRefreshCookie().toString())
+                .build();
+    }
+
+    private ResponseCookie refreshCookie(String refreshToken) {
+        return refreshCookie(refreshToken, refreshTokenService.getTimeToLive());
+    }
+
+    private ResponseCookie clearedRefreshCookie() {
+        return refreshCookie("", Duration.ZERO);
+    }
+
+    /**
+     * The refresh token is only sent back to the auth endpoints, and is out of reach of scripts.
+     */
+    private ResponseCookie refreshCookie(String value, Duration maxAge) {
+        return ResponseCookie.from(REFRESH_COOKIE, value)
+                .httpOnly(true)
+                .secure(secureRefreshCookie)
+                .sameSite("Strict")
+                .path("/api")
+                .maxAge(maxAge)
+                .build();
+    }
 }
\ No newline at end of file
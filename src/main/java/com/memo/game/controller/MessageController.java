@@ -1,26 +1,39 @@
 package com.memo.game.controller;
 
+import com.memo.game.config.WebSocketConfig;
 import com.memo.game.dto.JoinMessage;
+import com.memo.game.dto.MoveEvent;
 import com.memo.game.dto.MultiPlayerMessage;
-import com.memo.game.dto.PlayerMessage;
+import com.memo.game.dto.ResumeMessage;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.gameModel.MultiPlayer;
-import com.memo.game.service.UserService;
+import com.memo.game.jfr.StompMessageEvent;
+import com.memo.game.service.GameEventBuffer;
+import com.memo.game.service.GameMetrics;
+import com.memo.game.service.GameReconnectService;
+import com.memo.game.service.UserNameSearcher;
 import com.memo.game.service.MultiPlayerService;
-import com.memo.game.service.TokenService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.annotation.SendToUser;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Controller;
+import org.springframework.util.MimeType;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
+import java.security.Principal;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Controller class for managing WebSocket messages and multiplayer games.
@@ -31,6 +44,22 @@ import java.util.UUID;
  */
 @Controller
 public class MessageController {
+    /**
+     * User destination the join result is sent to, on the session that asked to join.
+     */
+    public static final String JOIN_REPLY_DESTINATION = "/queue/game.joined";
+    /**
+     * User destination errors of a move are sent to, on the session that made the move.
+     */
+    public static final String ERROR_DESTINATION = "/queue/errors";
+    /**
+     * User destination full game snapshots are sent to when a client asks to resync.
+     */
+    public static final String STATE_DESTINATION = "/queue/game.state";
+    /**
+     * User destination the missed events are sent to when a client resumes a game.
+     */
+    public static final String RESUME_DESTINATION = "/queue/game.resumed";
 
     /**
      * Template for sending messages to clients through the message broker.
@@ -38,11 +67,19 @@ public class MessageController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     @Autowired
-    private TokenService tokenService;
-    @Autowired
-    private UserService userService;
+    private UserNameSearcher userNameSearcher;
     @Autowired
     private MultiPlayerService multiPlayerService;
+    @Autowired
+    private GameMetrics gameMetrics;
+    @Autowired
+    private GameEventBuffer gameEventBuffer;
+    @Autowired
+    private GameReconnectService gameReconnectService;
+    /**
+     * Games with a subscriber on their CBOR topic; only these are also broadcast in CBOR.
+     */
+    private final Set<UUID> cborGames = ConcurrentHashMap.newKeySet();
 
     /**
      * Creates an error message to be sent to clients over WebSocket in case of errors during multiplayer game interactions.
@@ -52,7 +89,7 @@ public class MessageController {
      * @return The MultiPlayerMessage representing the error message.
      */
     private MultiPlayerMessage createErrorMessage(String content, UUID playerId) {
-        MultiPlayerMessage responseMessage = new MultiPlayerMessage(userService);
+        MultiPlayerMessage responseMessage = new MultiPlayerMessage(userNameSearcher);
         responseMessage.setType("error");
         responseMessage.setContent(content);
         responseMessage.setPlayer1(playerId);
@@ -61,22 +98,39 @@ public class MessageController {
 
     /**
      * Handles a request from a client to join a MultiPlayer game.
-     * If a game is available and the player is successfully added to the game,
-     * the current state of the game is sent to all subscribers of the game's topic.
+     * The result, or an error, is sent only to the session that asked to join, through the
+     * user destination {@code /user/queue/game.joined}.
+     * When the join starts the game, the waiting player is sent a {@code game.started} message
+     * on the same user destination, so that they learn that the opponent has arrived.
      *
-     * @param message the message from the client containing the player's token, number of pairs for the game,
+     * @param message the message from the client containing the number of pairs for the game,
      *                and weather the player wants to play with a friend, and the code of their friend's game
+     * @param principal the user the session was authenticated as on CONNECT
      * @return the current state of the game, or an error message if the player was unable to join
      */
     @MessageMapping("/game.join")
-    @SendTo("/topic/game.state")
-    public MultiPlayerMessage joinGame(@Payload JoinMessage message, SimpMessageHeaderAccessor headerAccessor) {
-        if (!tokenService.isTokenValid(message.getToken())) {
-            return createErrorMessage("Unauthorized", null);
-        }
-        UUID playerId = tokenService.extractUserIdFromToken(message.getToken());
+    @SendToUser(destinations = JOIN_REPLY_DESTINATION, broadcast = false)
+    public MultiPlayerMessage joinGame(@Payload JoinMessage message, Principal principal,
+                                       SimpMessageHeaderAccessor headerAccessor) {
+        StompMessageEvent event = StompMessageEvent.start("/game.join");
+        MultiPlayerMessage response = processJoin(message, principal, headerAccessor);
+        event.finish(response.getGameId(), message.getNumOfPairs(), response.getType());
+        return response;
+    }
+
+    /**
+     * Validates a join request and adds the player to a matching game.
+     *
+     * @param message the message from the client
+     * @param principal the user the session was authenticated as on CONNECT
+     * @param headerAccessor the accessor of the session the player joins from
+     * @return the current state of the game, or an error message if the player was unable to join
+     */
+    private MultiPlayerMessage processJoin(JoinMessage message, Principal principal,
+                                           SimpMessageHeaderAccessor headerAccessor) {
+        UUID playerId = getPlayerId(principal);
         if(playerId==null) {
-            return createErrorMessage("User not found", null);
+            return createErrorMessage("Unauthorized", null);
         }
 
         MultiPlayer game;
@@ -107,11 +161,18 @@ public class MessageController {
 
         headerAccessor.getSessionAttributes().put("gameId", game.getPlayId());
         headerAccessor.getSessionAttributes().put("player", playerId);
+        gameReconnectService.playerConnected(playerId, headerAccessor.getSessionId());
+
+        UUID opponent = playerId.equals(game.getPlayer1Id()) ? game.getPlayer2Id() : game.getPlayer1Id();
+        if (game.isGameStarted() && opponent != null) {
+            MultiPlayerMessage startedMessage = gameToMessage(game);
+            startedMessage.setType("game.started");
+            messagingTemplate.convertAndSendToUser(opponent.toString(), JOIN_REPLY_DESTINATION, startedMessage);
+        }
 
         MultiPlayerMessage responseMessage;
         responseMessage = gameToMessage(game);
         responseMessage.setType("game.joined");
-        responseMessage.setSender(message.getToken());
         return responseMessage;
     }
 
@@ -120,106 +181,348 @@ public class MessageController {
      * If the player is successfully removed from the game, a message is sent to subscribers
      * of the game's topic indicating that the player has left.
      *
-     * @param message the message from the client containing the player's token
+     * @param principal the user the session was authenticated as on CONNECT
      */
     @MessageMapping("/game.leave")
-    public void leaveGame(@Payload PlayerMessage message) {
-        UUID playerId = tokenService.extractUserIdFromToken(message.getToken());
-        MultiPlayer game = multiPlayerService.leaveGame(playerId);
+    public void leaveGame(Principal principal) {
+        StompMessageEvent event = StompMessageEvent.start("/game.leave");
+        UUID playerId = getPlayerId(principal);
+        MultiPlayer game = playerId == null ? null : multiPlayerService.leaveGame(playerId);
         if (game != null) {
             MultiPlayerMessage gameMessage = gameToMessage(game);
             gameMessage.setType("game.left");
-            messagingTemplate.convertAndSend("/topic/game." + (game.getPlayId()).toString(), gameMessage);
+            broadcast(game.getPlayId(), gameMessage);
+            if (game.isGameOver()) {
+                cborGames.remove(game.getPlayId());
+            }
+            event.finish(game.getPlayId(), game.getNumberOfPairs(), gameMessage.getType());
+        } else {
+            event.finish(null, 0, "none");
         }
     }
 
     /**
      * Handles a request from a client to make a move in a MultiPlayer game.
-     * If the move is valid, the game state is updated and sent to all subscribers of the game's topic.
-     * If the game is over, a message is sent indicating the result of the game.
+     * If the move is valid, the game state is updated and a {@link MoveEvent} with only the changes
+     * is sent to all subscribers of the game's topic.
+     * If the game is over, the event is of type game.gameOver and carries the winner.
+     * Errors are sent only to the session that made the move, through {@code /user/queue/errors}.
      *
-     * @param message the message from the client containing the player's token, game ID, and index of the card
+     * @param message the message from the client containing the game ID and index of the card
+     * @param principal the user the session was authenticated as on CONNECT
+     * @param headerAccessor the accessor of the session the move was made from
      */
     @MessageMapping("/game.move")
-    public void makeMove(@Payload MultiPlayerMessage message) {
-        String token = message.getSenderToken();
+    public void makeMove(@Payload MultiPlayerMessage message, Principal principal,
+                         SimpMessageHeaderAccessor headerAccessor) {
+        long start = System.nanoTime();
+        StompMessageEvent event = StompMessageEvent.start("/game.move");
+        MultiPlayer game = multiPlayerService.getGame(message.getGameId());
+        String outcome = "exception";
+        try {
+            outcome = processMove(message, game, principal, headerAccessor.getSessionId());
+        } finally {
+            gameMetrics.makeMove(start);
+            event.finish(message.getGameId(), game == null ? 0 : game.getNumberOfPairs(), outcome);
+        }
+    }
+
+    /**
+     * Validates and applies a move, then broadcasts the result to the game's topic,
+     * or sends an error back to the player's session.
+     *
+     * @param message the message from the client containing the game ID and index of the card
+     * @param game the game with the ID of the message, or null if there is none
+     * @param principal the user the session was authenticated as on CONNECT
+     * @param sessionId the id of the session the move was made from
+     * @return the type of the message sent
+     */
+    private String processMove(MultiPlayerMessage message, MultiPlayer game, Principal principal, String sessionId) {
         UUID gameId = message.getGameId();
         int index = message.getIndex();
-        MultiPlayer game = multiPlayerService.getGame(gameId);
 
-        if (!tokenService.isTokenValid(token)) {
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId,
-                    createErrorMessage("Unauthorized", null));
-            return;
-        }
-        UUID player = tokenService.extractUserIdFromToken(token);
+        UUID player = getPlayerId(principal);
         if(player==null) {
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId,
-                    createErrorMessage("Invalid token", null));
-            return;
+            sendToSession(principal, sessionId, ERROR_DESTINATION, createErrorMessage("Unauthorized", null));
+            return "error";
         }
         if (game == null) {
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId,
-                    createErrorMessage("Game not found or is already over.", player));
-            return;
+            sendToSession(principal, sessionId, ERROR_DESTINATION, createErrorMessage("Game not found or is already over.", player));
+            return "error";
         }
         if (!game.isGameStarted()) {
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId,
-                    createErrorMessage("Game is waiting for another player to join.", player));
-            return;
+            sendToSession(principal, sessionId, ERROR_DESTINATION, createErrorMessage("Game is waiting for another player to join.", player));
+            return "error";
         }
         if (!game.isPlayersTurn(player)) {
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId,
-                    createErrorMessage("Not your turn", player));
-            return;
+            sendToSession(principal, sessionId, ERROR_DESTINATION, createErrorMessage("Not your turn", player));
+            return "error";
         }
 
         Map<Integer, Integer> lastMove = new HashMap<>();
         try {
+            long flipStart = System.nanoTime();
             lastMove = game.flipCard(player, index);
+            gameMetrics.multiFlip(flipStart, lastMove.size() == 2 && game.getArePreviousCardsEqual());
         } catch (Exception e) {
-            this.messagingTemplate.convertAndSend("/topic/game." + gameId,
-                    createErrorMessage("Incorrect params", player));
-            return;
+            sendToSession(principal, sessionId, ERROR_DESTINATION, createErrorMessage("Incorrect params", player));
+            return "error";
+        }
+        if (lastMove.isEmpty()) {
+            sendToSession(principal, sessionId, ERROR_DESTINATION, createErrorMessage("Incorrect params", player));
+            return "error";
         }
 
-        MultiPlayerMessage gameStateMessage = new MultiPlayerMessage(game, userService);
-        gameStateMessage.setType("game.move");
-        gameStateMessage.setLastMove(lastMove);
+        MoveEvent moveEvent = new MoveEvent(game, lastMove);
+        gameEventBuffer.record(moveEvent);
 
         if (game.isGameOver()) {
-            gameStateMessage.setType("game.gameOver");
+            moveEvent.setType("game.gameOver");
+            moveEvent.setWinner(gameToMessage(game).getWinner());
             multiPlayerService.saveGame(game);
             multiPlayerService.removeGame(gameId);
         }
-        this.messagingTemplate.convertAndSend("/topic/game." + gameId, gameStateMessage);
+        broadcast(gameId, moveEvent);
+        if (game.isGameOver()) {
+            cborGames.remove(gameId);
+        }
+        return moveEvent.getType();
+    }
+
+    /**
+     * Handles a request from a client for a full snapshot of a game it plays in, e.g. after it noticed
+     * a gap in the sequence numbers of the move events. The snapshot is sent only to the requesting session.
+     *
+     * @param message the message from the client containing the game ID
+     * @param principal the user the session was authenticated as on CONNECT
+     * @return the current state of the game, or an error message if the player is not in the game
+     */
+    @MessageMapping("/game.resync")
+    @SendToUser(destinations = STATE_DESTINATION, broadcast = false)
+    public MultiPlayerMessage resync(@Payload MultiPlayerMessage message, Principal principal) {
+        UUID playerId = getPlayerId(principal);
+        if (playerId == null) {
+            return createErrorMessage("Unauthorized", null);
+        }
+        MultiPlayer game = multiPlayerService.getGame(message.getGameId());
+        if (game == null || !isPlayerOf(game, playerId)) {
+            return createErrorMessage("Game not found or is already over.", playerId);
+        }
+        MultiPlayerMessage snapshot = gameToMessage(game);
+        snapshot.setType("game.state");
+        return snapshot;
+    }
+
+    /**
+     * Handles a client that reconnected within the grace period and wants to continue its game.
+     * The player is kept in the game, and the move events after the sequence number the client last saw
+     * are sent to its new session on {@code /user/queue/game.resumed}. If some of them are no longer buffered,
+     * a full snapshot is sent on {@code /user/queue/game.state} instead. The reply is CBOR encoded if the request was.
+     * The opponent is told that the player is back.
+     *
+     * @param message the message from the client containing the game ID and the last sequence number it saw
+     * @param principal the user the session was authenticated as on CONNECT
+     * @param headerAccessor the accessor of the new session
+     */
+    @MessageMapping("/game.resume")
+    public void resume(@Payload MultiPlayerMessage message, Principal principal,
+                       SimpMessageHeaderAccessor headerAccessor) {
+        String sessionId = headerAccessor.getSessionId();
+        UUID playerId = getPlayerId(principal);
+        if (playerId == null) {
+            return;
+        }
+        MultiPlayer game = multiPlayerService.getGame(message.getGameId());
+        if (game == null || !isPlayerOf(game, playerId)) {
+            sendToSession(principal, sessionId, ERROR_DESTINATION,
+                    createErrorMessage("Game not found or is already over.", playerId));
+            return;
+        }
+
+        boolean wasAway = gameReconnectService.playerConnected(playerId, sessionId);
+        headerAccessor.getSessionAttributes().put("gameId", game.getPlayId());
+        headerAccessor.getSessionAttributes().put("player", playerId);
+
+        MimeType contentType = WebSocketConfig.CBOR.equalsTypeAndSubtype(headerAccessor.getContentType())
+                ? WebSocketConfig.CBOR : null;
+        List<MoveEvent> missed = gameEventBuffer.eventsSince(game.getPlayId(), message.getSeq());
+        if (missed == null) {
+            MultiPlayerMessage snapshot = gameToMessage(game);
+            snapshot.setType("game.state");
+            sendToSession(principal, sessionId, STATE_DESTINATION, snapshot, contentType);
+        } else {
+            sendToSession(principal, sessionId, RESUME_DESTINATION,
+                    new ResumeMessage(game.getPlayId(), game.getSequence(), missed), contentType);
+        }
+
+        if (wasAway) {
+            MultiPlayerMessage gameMessage = gameToMessage(game);
+            gameMessage.setType("game.playerReconnected");
+            gameMessage.setContent(playerId.toString());
+            broadcast(game.getPlayId(), gameMessage);
+        }
     }
 
     /**
      * Listens for WebSocket session disconnect events. When a player disconnects from a game session,
      * this method handles the cleanup process for the associated multiplayer game. It retrieves the game ID
-     * and player UUID from the session attributes, obtains the corresponding multiplayer game from the
-     * {@code MultiPlayerService}, removes the disconnected player from the game, sends a game over message
-     * to all subscribers of the game's topic, and finally removes the game from the service.
+     * and player UUID from the session attributes and obtains the corresponding multiplayer game from the
+     * {@code MultiPlayerService}.
+     * If reconnecting is enabled, the opponent is told that the player is away and the player has the
+     * grace period of the {@code GameReconnectService} to resume the game. Otherwise, or when the grace
+     * period runs out, the player is removed from the game, a game over message is sent to all subscribers
+     * of the game's topic, and the game is removed from the service.
      *
      * @param event The event indicating that a WebSocket session has been disconnected.
      */
     @EventListener
     public void SessionDisconnectEvent(SessionDisconnectEvent event) {
+        gameMetrics.disconnected();
         StompHeaderAccessor headerAccessor = StompHeaderAccessor.wrap(event.getMessage());
         UUID gameId = (UUID) headerAccessor.getSessionAttributes().get("gameId");
         UUID player = (UUID) headerAccessor.getSessionAttributes().get("player");
         MultiPlayer game = multiPlayerService.getGame(gameId);
 
         if (game != null) {
-            game.playerLeaves(player);
+            GameReconnectService.Disconnect disconnect = game.isGameOver()
+                    ? GameReconnectService.Disconnect.REMOVE
+                    : gameReconnectService.playerDisconnected(player, event.getSessionId(),
+                            () -> removeDisconnectedPlayer(gameId, player));
+            if (disconnect == GameReconnectService.Disconnect.GRACE_PERIOD) {
+                MultiPlayerMessage gameMessage = gameToMessage(game);
+                gameMessage.setType("game.playerDisconnected");
+                gameMessage.setContent(player.toString());
+                broadcast(gameId, gameMessage);
+            } else if (disconnect == GameReconnectService.Disconnect.REMOVE) {
+                removeDisconnectedPlayer(gameId, player);
+            }
+        }
+    }
+
+    /**
+     * Removes a disconnected player and their game from the service, and tells the other player
+     * that the game is over.
+     *
+     * @param gameId the UUID of the game
+     * @param player the UUID of the disconnected player
+     */
+    private void removeDisconnectedPlayer(UUID gameId, UUID player) {
+        MultiPlayer game = multiPlayerService.removeDisconnectedPlayer(gameId, player);
+        if (game != null) {
             MultiPlayerMessage gameMessage = gameToMessage(game);
             gameMessage.setType("game.gameOver");
-            messagingTemplate.convertAndSend("/topic/game." + gameId, gameMessage);
-            multiPlayerService.removeGame(gameId);
+            broadcast(gameId, gameMessage);
+            cborGames.remove(gameId);
+        }
+    }
+
+    /**
+     * Listens for subscriptions to the CBOR topic of a game, {@code /topic/game.{gameId}.cbor}.
+     * If the game exists and the subscriber plays in it, from then on every message of the game
+     * is also broadcast CBOR encoded on that topic.
+     *
+     * @param event The event indicating that a client subscribed to a destination.
+     */
+    @EventListener
+    public void SessionSubscribeEvent(SessionSubscribeEvent event) {
+        String destination = SimpMessageHeaderAccessor.getDestination(event.getMessage().getHeaders());
+        if (destination == null || !destination.startsWith("/topic/game.")
+                || !destination.endsWith(WebSocketConfig.CBOR_TOPIC_SUFFIX)) {
+            return;
+        }
+        String gameId = destination.substring("/topic/game.".length(),
+                destination.length() - WebSocketConfig.CBOR_TOPIC_SUFFIX.length());
+        UUID playerId = getPlayerId(event.getUser());
+        MultiPlayer game;
+        try {
+            game = playerId == null ? null : multiPlayerService.getGame(UUID.fromString(gameId));
+        } catch (IllegalArgumentException e) {
+            // Not a game topic, nothing is broadcast there.
+            return;
+        }
+        if (game != null && isPlayerOf(game, playerId)) {
+            cborGames.add(game.getPlayId());
+        }
+    }
+
+    /**
+     * Sends a message to every subscriber of a game's topic as JSON, and CBOR encoded to the
+     * subscribers of the game's CBOR topic, if there are any.
+     *
+     * @param gameId the UUID of the game
+     * @param payload the message
+     */
+    private void broadcast(UUID gameId, Object payload) {
+        messagingTemplate.convertAndSend("/topic/game." + gameId, payload);
+        if (cborGames.contains(gameId)) {
+            SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            headers.setContentType(WebSocketConfig.CBOR);
+            headers.setLeaveMutable(true);
+            messagingTemplate.convertAndSend("/topic/game." + gameId + WebSocketConfig.CBOR_TOPIC_SUFFIX, payload,
+                    headers.getMessageHeaders());
         }
     }
 
+    /**
+     * Sends a message to one session of a user only, rather than to everyone subscribed to the game.
+     *
+     * @param principal the user the session belongs to; without one there is nobody to reply to
+     * @param sessionId the id of the session to send the message to
+     * @param destination the user destination, e.g. {@link #ERROR_DESTINATION}
+     * @param payload the message
+     */
+    private void sendToSession(Principal principal, String sessionId, String destination, Object payload) {
+        sendToSession(principal, sessionId, destination, payload, null);
+    }
+
+    /**
+     * Sends a message to one session of a user only, in the given encoding.
+     *
+     * @param principal the user the session belongs to; without one there is nobody to reply to
+     * @param sessionId the id of the session to send the message to
+     * @param destination the user destination
+     * @param payload the message
+     * @param contentType the content type to encode the message in, or null for JSON
+     */
+    private void sendToSession(Principal principal, String sessionId, String destination, Object payload,
+                               MimeType contentType) {
+        if (principal == null) {
+            return;
+        }
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setSessionId(sessionId);
+        if (contentType != null) {
+            headers.setContentType(contentType);
+        }
+        headers.setLeaveMutable(true);
+        messagingTemplate.convertAndSendToUser(principal.getName(), destination, payload,
+                headers.getMessageHeaders());
+    }
+
+    /**
+     * Checks whether a player is one of the two players of a game.
+     *
+     * @param game the game
+     * @param playerId the UUID of the player
+     * @return true if the player plays in the game
+     */
+    private boolean isPlayerOf(MultiPlayer game, UUID playerId) {
+        return playerId.equals(game.getPlayer1Id()) || playerId.equals(game.getPlayer2Id());
+    }
+
+    /**
+     * Reads the player's id from the principal set by the {@code StompAuthInterceptor} on CONNECT.
+     *
+     * @param principal the principal of the session, may be null
+     * @return the player's id, or null if the session is not authenticated
+     */
+    private UUID getPlayerId(Principal principal) {
+        if (principal instanceof UserPrincipal userPrincipal) {
+            return userPrincipal.getUserId();
+        }
+        return null;
+    }
+
     /**
      * Converts a MultiPlayer game object into a MultiPlayerMessage object for sending game state updates
      * and information to clients over WebSocket.
@@ -228,7 +531,7 @@ public class MessageController {
      * @return The MultiPlayerMessage containing the game state and information.
      */
     private MultiPlayerMessage gameToMessage(MultiPlayer game) {
-        MultiPlayerMessage message = new MultiPlayerMessage(userService);
+        MultiPlayerMessage message = new MultiPlayerMessage(userNameSearcher);
         message.setGameId(game.getPlayId());
         message.setPlayer1(game.getPlayer1Id());
         message.setPlayer2(game.getPlayer2Id());
@@ -239,15 +542,12 @@ public class MessageController {
         message.setGameOver(game.isGameOver());
         message.setPlayer1GuessedCards(game.getPlayer1GuessedCards());
         message.setPlayer2GuessedCards(game.getPlayer2GuessedCards());
+        message.setSeq(game.getSequence());
         return message;
     }
 
-    public void setTokenService(TokenService tokenService) {
-        this.tokenService = tokenService;
-    }
-
-    public void setMemoUsersService(UserService userService) {
-        this.userService = userService;
+    public void setMemoUsersService(UserNameSearcher userNameSearcher) {
+        this.userNameSearcher = userNameSearcher;
     }
 
     public void setMultiPlayerService(MultiPlayerService multiPlayerService) {
@@ -257,4 +557,16 @@ public class MessageController {
     public void setMessagingTemplate(SimpMessagingTemplate messagingTemplate) {
         this.messagingTemplate = messagingTemplate;
     }
+
+    public void setGameMetrics(GameMetrics gameMetrics) {
+        this.gameMetrics = gameMetrics;
+    }
+
+    public void setGameEventBuffer(GameEventBuffer gameEventBuffer) {
+        this.gameEventBuffer = gameEventBuffer;
+    }
+
+    public void setGameReconnectService(GameReconnectService gameReconnectService) {
+        this.gameReconnectService = gameReconnectService;
+    }
 }
\ No newline at end of file
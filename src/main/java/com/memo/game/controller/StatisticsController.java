@@ -1,15 +1,16 @@
 package com.memo.game.controller;
 
+import com.memo.game.config.AuthInterceptor;
 import com.memo.game.entity.MemoSingleGame;
+import com.memo.game.service.GameMetrics;
 import com.memo.game.service.SinglePlayerService;
 import com.memo.game.service.MultiPlayerStatService;
 import com.memo.game.service.SinglePlayerStatService;
-import com.memo.game.service.TokenService;
-import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -25,41 +26,32 @@ import java.util.List;
 @RestController
 public class StatisticsController {
     private final SinglePlayerService singlePlayerService;
-    private final TokenService tokenService;
     private final MultiPlayerStatService multiPlayerStatService;
+    private final GameMetrics gameMetrics;
 
     @Autowired
-    public StatisticsController(SinglePlayerService singlePlayerService, TokenService tokenService, MultiPlayerStatService multiPlayerStatService) {
+    public StatisticsController(SinglePlayerService singlePlayerService,
+                                MultiPlayerStatService multiPlayerStatService, GameMetrics gameMetrics) {
         this.singlePlayerService = singlePlayerService;
-        this.tokenService = tokenService;
         this.multiPlayerStatService = multiPlayerStatService;
+        this.gameMetrics = gameMetrics;
     }
 
     /**
      * Retrieves paginated single-player game statistics for a user.
      *
      * This method handles a request to fetch paginated statistics for single-player games played by the user.
-     * It extracts the player's token from the request, validates it, and retrieves the user's ID.
-     * It then calculates the pagination parameters and fetches the appropriate game data from the database.
+     * It calculates the pagination parameters and fetches the appropriate game data from the database.
      *
-     * @param request the HTTP request containing the player's token
+     * @param userId the ID of the user authenticated by {@link AuthInterceptor}
      * @param page the current page number (default is 1)
      * @param size the number of items per page (default is 10)
-     * @return a ResponseEntity containing paginated game statistics or an error message if the token is invalid,
-     *         the user is not found, or the pagination parameters are incorrect
+     * @return a ResponseEntity containing paginated game statistics or an error message if the pagination parameters are incorrect
      */
     @PostMapping("/api/singlePlayerStatistics/all")
-    public ResponseEntity<?> getSinglePlayerGames(HttpServletRequest request,
+    public ResponseEntity<?> getSinglePlayerGames(@RequestAttribute(AuthInterceptor.USER_ID_ATTRIBUTE) UUID userId,
             @RequestParam(defaultValue = "1") int page,
             @RequestParam(defaultValue = "10") int size) {
-        String token = tokenService.extractTokenFromRequest(request);
-        if (!tokenService.isTokenValid(token)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-        UUID userId = tokenService.extractUserIdFromToken(token);
-        if(userId==null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found!");
-        }
         if(size<=0) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Incorrect param: size");
         }
@@ -92,23 +84,13 @@ public class StatisticsController {
      * Retrieves summarized statistics for single-player games played by a user.
      *
      * This method handles a request to fetch summarized statistics for single-player games played by the user.
-     * It extracts the player's token from the request, validates it, and retrieves the user's ID.
-     * It then fetches the list of games played by the user from the database and calculates the summarized statistics.
+     * It fetches the list of games played by the user from the database and calculates the summarized statistics.
      *
-     * @param request the HTTP request containing the player's token
-     * @return a ResponseEntity containing the summarized game statistics or an error message if the token is invalid or the user is not found
+     * @param userId the ID of the user authenticated by {@link AuthInterceptor}
+     * @return a ResponseEntity containing the summarized game statistics
      */
     @PostMapping("/api/singlePlayerStatistics/summarized")
-    public ResponseEntity<?> getSinglePlayerStats(HttpServletRequest request) {
-        String token = tokenService.extractTokenFromRequest(request);
-        if (!tokenService.isTokenValid(token)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
-        UUID userId = tokenService.extractUserIdFromToken(token);
-        if (userId == null) {
-            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("User not found!");
-        }
-
+    public ResponseEntity<?> getSinglePlayerStats(@RequestAttribute(AuthInterceptor.USER_ID_ATTRIBUTE) UUID userId) {
         List<MemoSingleGame> games = singlePlayerService.findGamesByUserIdInDb(userId);
         SinglePlayerStatService singlePlayerStatService = new SinglePlayerStatService();
         return ResponseEntity.ok(singlePlayerStatService.addList(games));
@@ -118,24 +100,19 @@ public class StatisticsController {
      * Retrieves the leaderboard for multiplayer games.
      *
      * This method handles a request to fetch the leaderboard for multiplayer games based on the specified number of pairs.
-     * It extracts the player's token from the request and validates it. If the token is valid, it retrieves the leaderboard
-     * data from the database based on the specified number of pairs. The default number of pairs is 8 if not provided.
+     * It retrieves the leaderboard data from the database based on the specified number of pairs. The default number of pairs is 8 if not provided.
      *
-     * @param request the HTTP request containing the player's token
      * @param pairs the number of pairs for which to retrieve the leaderboard (default is 8 if not provided)
-     * @return a ResponseEntity containing the leaderboard data or an error message if the token is invalid or the pairs parameter is incorrect
+     * @return a ResponseEntity containing the leaderboard data or an error message if the pairs parameter is incorrect
      */
     @PostMapping("/api/multiPlayerStatistics")
-    public ResponseEntity<?> getLeaderBoard(HttpServletRequest request,
-                @RequestParam(defaultValue = "8") int pairs) {
-        String token = tokenService.extractTokenFromRequest(request);
-        if (!tokenService.isTokenValid(token)) {
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+    public ResponseEntity<?> getLeaderBoard(@RequestParam(defaultValue = "8") int pairs) {
         if(pairs<=0) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body("Incorrect param: page");
         }
+        long start = System.nanoTime();
         List<HashMap<String, Object>> leaderboard = multiPlayerStatService.getLeaderBoard(pairs);
+        gameMetrics.leaderBoard(start);
         return ResponseEntity.ok(leaderboard);
     }
 }
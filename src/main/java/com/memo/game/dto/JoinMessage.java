@@ -2,7 +2,6 @@ package com.memo.game.dto;
 
 public class JoinMessage {
     private int numOfPairs;
-    private String token;
     private boolean wantToPlayWithFriend;
     private String friendRoomId;
 
@@ -10,10 +9,6 @@ public class JoinMessage {
         return numOfPairs;
     }
 
-    public String getToken() {
-        return token;
-    }
-
     public boolean isWantToPlayWithFriend() {
         return wantToPlayWithFriend;
     }
@@ -26,10 +21,6 @@ public class JoinMessage {
         this.numOfPairs = numOfPairs;
     }
 
-    public void setToken(String token) {
-        this.token = token;
-    }
-
     public void setWantToPlayWithFriend(boolean wantToPlayWithFriend) {
         this.wantToPlayWithFriend = wantToPlayWithFriend;
     }
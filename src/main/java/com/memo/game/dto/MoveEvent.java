@@ -0,0 +1,132 @@
+package com.memo.game.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.memo.game.gameModel.MultiPlayer;
+
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Compact update broadcast to a multiplayer game's topic after every move.
+ * <p>
+ * Unlike {@link MultiPlayerMessage} it carries no board and no player names, only what the move changed:
+ * the flipped cards, whether they matched, whose turn it is and the scores. {@code seq} is the game's
+ * sequence number after the move; a client that sees a gap asks for a full snapshot with
+ * {@code /game.resync}. The winner is only included once the game is over.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MoveEvent {
+    private String type;
+    private UUID gameId;
+    private long seq;
+    private Map<Integer, Integer> lastMove;
+    private boolean matched;
+    private boolean player1sTurn;
+    private int player1GuessedCards;
+    private int player2GuessedCards;
+    private boolean gameOver;
+    private String winner;
+
+    public MoveEvent() {}
+
+    /**
+     * Creates the update for a move that has just been applied to the game.
+     *
+     * @param game the game after the move
+     * @param lastMove the cards flipped by the move, by index
+     */
+    public MoveEvent(MultiPlayer game, Map<Integer, Integer> lastMove) {
+        this.type = "game.move";
+        this.gameId = game.getPlayId();
+        this.seq = game.getSequence();
+        this.lastMove = lastMove;
+        this.matched = lastMove.size() == 2 && game.getArePreviousCardsEqual();
+        this.player1sTurn = game.isPlayer1sTurn();
+        this.player1GuessedCards = game.getPlayer1GuessedCards();
+        this.player2GuessedCards = game.getPlayer2GuessedCards();
+        this.gameOver = game.isGameOver();
+    }
+
+    /**
+     * Getters and Setters
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public Map<Integer, Integer> getLastMove() {
+        return lastMove;
+    }
+
+    public void setLastMove(Map<Integer, Integer> lastMove) {
+        this.lastMove = lastMove;
+    }
+
+    public boolean isMatched() {
+        return matched;
+    }
+
+    public void setMatched(boolean matched) {
+        this.matched = matched;
+    }
+
+    public boolean isPlayer1sTurn() {
+        return player1sTurn;
+    }
+
+    public void setPlayer1sTurn(boolean player1sTurn) {
+        this.player1sTurn = player1sTurn;
+    }
+
+    public int getPlayer1GuessedCards() {
+        return player1GuessedCards;
+    }
+
+    public void setPlayer1GuessedCards(int player1GuessedCards) {
+        this.player1GuessedCards = player1GuessedCards;
+    }
+
+    public int getPlayer2GuessedCards() {
+        return player2GuessedCards;
+    }
+
+    public void setPlayer2GuessedCards(int player2GuessedCards) {
+        this.player2GuessedCards = player2GuessedCards;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
+    public String getWinner() {
+        return winner;
+    }
+
+    public void setWinner(String winner) {
+        this.winner = winner;
+    }
+}
@@ -29,14 +29,14 @@ public class MultiPlayerMessage {
     private Integer[] board;
     @JsonProperty("index")
     private int index;
-    @JsonProperty("senderToken")
-    private String senderToken;
     private boolean isGameStarted;
     private boolean isGameOver;
     @JsonProperty("lastMove")
     private Map<Integer,Integer> lastMove;
     private int player1GuessedCards;
     private int player2GuessedCards;
+    @JsonProperty("seq")
+    private long seq;
     public MultiPlayerMessage() {}
 
     public MultiPlayerMessage (UserNameSearcher memoUsersService) {
@@ -67,6 +67,7 @@ public class MultiPlayerMessage {
         this.isGameOver = game.isGameOver();
         this.player1GuessedCards = game.getPlayer1GuessedCards();
         this.player2GuessedCards = game.getPlayer2GuessedCards();
+        this.seq = game.getSequence();
     }
 
     /**
@@ -153,14 +154,6 @@ public class MultiPlayerMessage {
         this.content = content;
     }
 
-    public String getSenderToken() {
-        return senderToken;
-    }
-
-    public void setSender(String senderToken) {
-        this.senderToken = senderToken;
-    }
-
     public boolean isGameOver() {
         return isGameOver;
     }
@@ -200,4 +193,12 @@ public class MultiPlayerMessage {
     public int getPlayer2GuessedCards() {
         return player2GuessedCards;
     }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
 }
@@ -1,13 +0,0 @@
-package com.memo.game.dto;
-
-public class PlayerMessage {
-    private String token;
-
-    public String getToken() {
-        return token;
-    }
-
-    public void setToken(String token) {
-        this.token = token;
-    }
-}
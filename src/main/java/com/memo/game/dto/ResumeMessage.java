@@ -0,0 +1,58 @@
+package com.memo.game.dto;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reply to a client that resumed a multiplayer game after reconnecting.
+ * Carries only the move events the client missed, oldest first, and the game's current sequence number.
+ */
+public class ResumeMessage {
+    private String type = "game.resumed";
+    private UUID gameId;
+    private long seq;
+    private List<MoveEvent> events;
+
+    public ResumeMessage() {}
+
+    public ResumeMessage(UUID gameId, long seq, List<MoveEvent> events) {
+        this.gameId = gameId;
+        this.seq = seq;
+        this.events = events;
+    }
+
+    /**
+     * Getters and Setters
+     */
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public UUID getGameId() {
+        return gameId;
+    }
+
+    public void setGameId(UUID gameId) {
+        this.gameId = gameId;
+    }
+
+    public long getSeq() {
+        return seq;
+    }
+
+    public void setSeq(long seq) {
+        this.seq = seq;
+    }
+
+    public List<MoveEvent> getEvents() {
+        return events;
+    }
+
+    public void setEvents(List<MoveEvent> events) {
+        this.events = events;
+    }
+}
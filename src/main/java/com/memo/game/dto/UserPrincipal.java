@@ -0,0 +1,62 @@
+package com.memo.game.dto;
+
+import java.security.Principal;
+import java.util.UUID;
+
+/**
+ * The authenticated user of a request or WebSocket session.
+ * Created from the verified token, its name is the user's id; the username and user version are the ones
+ * the token was issued with.
+ */
+public class UserPrincipal implements Principal {
+    private final UUID userId;
+    private final String userName;
+    private final long userVersion;
+
+    public UserPrincipal(UUID userId) {
+        this(userId, null, 0);
+    }
+
+    public UserPrincipal(UUID userId, String userName, long userVersion) {
+        this.userId = userId;
+        this.userName = userName;
+        this.userVersion = userVersion;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the username carried by the token, or null if the token was issued without one
+     */
+    public String getUserName() {
+        return userName;
+    }
+
+    public long getUserVersion() {
+        return userVersion;
+    }
+
+    @Override
+    public String getName() {
+        return userId.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        return userId.equals(((UserPrincipal) o).userId);
+    }
+
+    @Override
+    public int hashCode() {
+        return userId.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return "UserPrincipal{" + userId + '}';
+    }
+}
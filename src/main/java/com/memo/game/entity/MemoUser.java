@@ -7,14 +7,20 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "memo_users")
+@Table(name = "memo_users", uniqueConstraints = {
+        @UniqueConstraint(name = MemoUser.USER_NAME_CONSTRAINT, columnNames = "user_name"),
+        @UniqueConstraint(name = MemoUser.EMAIL_CONSTRAINT, columnNames = "email")
+})
 public class MemoUser {
+    public static final String USER_NAME_CONSTRAINT = "memo_users_user_name_key";
+    public static final String EMAIL_CONSTRAINT = "memo_users_email_key";
+
     @Id
     @GeneratedValue(strategy = GenerationType.AUTO)
     private UUID id;
-    @Column(nullable = false, unique = true)
+    @Column(name = "user_name", nullable = false)
     private String userName;
-    @Column(nullable = false, unique = true)
+    @Column(nullable = false)
     private String email;
     @Column(nullable = false)
     private String password;
@@ -55,6 +61,19 @@ public class MemoUser {
         return email;
     }
 
+    public Timestamp getUpdatedAt() {
+        return updatedAt;
+    }
+
+    /**
+     * The version of the user's details that tokens carry along with the username; changes whenever the user is updated.
+     *
+     * @return the time of the last update, in milliseconds since the epoch
+     */
+    public long getVersion() {
+        return updatedAt == null ? 0 : updatedAt.getTime();
+    }
+
     public void setUpdatedAt(Timestamp updatedAt) {
         this.updatedAt = updatedAt;
     }
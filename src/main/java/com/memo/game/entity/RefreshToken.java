@@ -0,0 +1,84 @@
+package com.memo.game.entity;
+
+import jakarta.persistence.*;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+/**
+ * A refresh token, stored by the SHA-256 hash of its value.
+ * <p>
+ * Every refresh replaces the token with a new one of the same family. A token that is presented again after it
+ * has been replaced gives the family away as stolen, and the whole family is revoked.
+ */
+@Entity
+@Table(name = "memo_refresh_tokens")
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    private UUID id;
+    @Column(name = "token_hash", nullable = false, unique = true, length = 64)
+    private String tokenHash;
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+    @Column(name = "family_id", nullable = false)
+    private UUID familyId;
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+    @Column(name = "used_at")
+    private Timestamp usedAt;
+    @Column(nullable = false)
+    private boolean revoked;
+    @Column(name = "created_at", columnDefinition = "TIMESTAMP DEFAULT CURRENT_TIMESTAMP")
+    private Timestamp createdAt;
+
+    public RefreshToken() {}
+
+    public RefreshToken(String tokenHash, UUID userId, UUID familyId, Timestamp expiresAt, Timestamp createdAt) {
+        this.tokenHash = tokenHash;
+        this.userId = userId;
+        this.familyId = familyId;
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getTokenHash() {
+        return tokenHash;
+    }
+
+    public UUID getUserId() {
+        return userId;
+    }
+
+    public UUID getFamilyId() {
+        return familyId;
+    }
+
+    public Timestamp getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Timestamp getUsedAt() {
+        return usedAt;
+    }
+
+    public void setUsedAt(Timestamp usedAt) {
+        this.usedAt = usedAt;
+    }
+
+    public boolean isRevoked() {
+        return revoked;
+    }
+
+    public void setRevoked(boolean revoked) {
+        this.revoked = revoked;
+    }
+}
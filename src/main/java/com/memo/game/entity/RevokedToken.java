@@ -0,0 +1,41 @@
+package com.memo.game.entity;
+
+import jakarta.persistence.*;
+
+import java.sql.Timestamp;
+
+/**
+ * A token revoked before its expiry, kept until it expires so that every node and every restart
+ * keeps rejecting it.
+ */
+@Entity
+@Table(name = "memo_revoked_tokens")
+public class RevokedToken {
+    @Id
+    @Column(name = "token_id", length = 100)
+    private String tokenId;
+    @Column(name = "expires_at", nullable = false)
+    private Timestamp expiresAt;
+    @Column(name = "revoked_at", nullable = false)
+    private Timestamp revokedAt;
+
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenId, Timestamp expiresAt, Timestamp revokedAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+        this.revokedAt = revokedAt;
+    }
+
+    public String getTokenId() {
+        return tokenId;
+    }
+
+    public Timestamp getExpiresAt() {
+        return expiresAt;
+    }
+
+    public Timestamp getRevokedAt() {
+        return revokedAt;
+    }
+}
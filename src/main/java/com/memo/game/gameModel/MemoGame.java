@@ -1,6 +1,11 @@
 package com.memo.game.gameModel;
 
+import com.memo.game.jfr.CardFlippedEvent;
+import com.memo.game.jfr.GameCreatedEvent;
+import com.memo.game.jfr.GameEndedEvent;
+
 import java.util.*;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * The MemoGame class represents the abstract model for a memory game.
@@ -31,6 +36,14 @@ public abstract class MemoGame {
      * A boolean indicating whether the previous two flipped cards are equal.
      */
     protected boolean arePreviousCardsEqual = false;
+    /**
+     * The {@link System#nanoTime()} at which the board was generated, used to report the game duration.
+     */
+    private long createdAtNanos;
+    /**
+     * Whether the end of the game has been reported to Flight Recorder.
+     */
+    private final AtomicBoolean endRecorded = new AtomicBoolean();
 
     /**
      * Configures the game by generating the game board and initializing game settings.
@@ -42,6 +55,8 @@ public abstract class MemoGame {
         if(numberOfPairs<=0) {
             throw new IllegalArgumentException("Number of pairs must be positive.");
         }
+        GameCreatedEvent event = new GameCreatedEvent();
+        event.begin();
         board = new int[numberOfPairs*2];
         isGuessedBoard = new Boolean[numberOfPairs*2];
         int index = 0;
@@ -62,6 +77,14 @@ public abstract class MemoGame {
         }
 
         playId = UUID.randomUUID();
+        createdAtNanos = System.nanoTime();
+        event.end();
+        if (event.shouldCommit()) {
+            event.gameId = playId.toString();
+            event.mode = getClass().getSimpleName();
+            event.numberOfPairs = numberOfPairs;
+            event.commit();
+        }
     }
 
     /**
@@ -78,6 +101,8 @@ public abstract class MemoGame {
         if(index==firstCardIndex) {
             throw new IllegalArgumentException("Index (" +  index + ") is same as the previous (" + firstCardIndex + ").");
         }
+        CardFlippedEvent event = new CardFlippedEvent();
+        event.begin();
         Map<Integer, Integer> map = new HashMap<Integer, Integer>();
         if(!isGameOver) {
             if (firstCardIndex == -1) {
@@ -90,6 +115,16 @@ public abstract class MemoGame {
             }
             gameEnded();
         }
+        event.end();
+        if (event.shouldCommit()) {
+            event.gameId = playId.toString();
+            event.mode = getClass().getSimpleName();
+            event.numberOfPairs = board.length/2;
+            event.index = index;
+            event.matched = map.size()==2 && arePreviousCardsEqual;
+            event.gameOver = isGameOver;
+            event.commit();
+        }
         return(map);
     }
 
@@ -132,6 +167,27 @@ public abstract class MemoGame {
      */
     protected abstract void gameEnded();
 
+    /**
+     * Reports the end of the game to Flight Recorder. Called by the game modes when the game is over;
+     * only the first call is reported, e.g. a won single-player game that is then left ends once.
+     *
+     * @param outcome how the game ended, e.g. "won" or "draw"
+     */
+    protected void recordGameEnded(String outcome) {
+        if (!endRecorded.compareAndSet(false, true)) {
+            return;
+        }
+        GameEndedEvent event = new GameEndedEvent();
+        if (event.isEnabled()) {
+            event.gameId = playId.toString();
+            event.mode = getClass().getSimpleName();
+            event.numberOfPairs = board.length/2;
+            event.outcome = outcome;
+            event.gameDuration = System.nanoTime() - createdAtNanos;
+            event.commit();
+        }
+    }
+
     public UUID getPlayId() {
         return playId;
     }
@@ -28,6 +28,9 @@ public class MultiPlayer extends MemoGame {
     /** Flag indicating if the game has started */
     private boolean isGameStarted = false;
 
+    /** Number of cards flipped so far, used as the sequence number of move events */
+    private long sequence = 0;
+
     /**
      * Constructs a MultiPlayer game session with the specified number of pairs and player IDs.
      *
@@ -63,6 +66,9 @@ public class MultiPlayer extends MemoGame {
         }
 
         Map<Integer, Integer> map = flipOneCard(index);
+        if(!map.isEmpty()) {
+            sequence++;
+        }
 
         if(firstCardIndex==-1) {
             isPlayer1sTurn = !isPlayer1sTurn;
@@ -102,6 +108,7 @@ public class MultiPlayer extends MemoGame {
             } else if(player1GuessedCards<player2GuessedCards) {
                 winner = player2Id.toString();
             }
+            recordGameEnded("draw".equals(winner) ? "draw" : "decided");
         }
     }
 
@@ -117,6 +124,7 @@ public class MultiPlayer extends MemoGame {
      * @param player the UUID of the player who leaves the game
      */
     public void playerLeaves(UUID player) {
+        boolean wasGameOver = isGameOver;
         if(isGameStarted) {
             if(player.equals(player1Id)) {
                 winner=player2Id.toString();
@@ -126,9 +134,13 @@ public class MultiPlayer extends MemoGame {
                 winner=player1Id.toString();
                 isGameOver=true;
             }
+            if(isGameOver && !wasGameOver) {
+                recordGameEnded("forfeit");
+            }
         } else {
             if(player.equals(player1Id) && player2Id==null) {
                 isGameOver = true;
+                recordGameEnded("abandoned");
             }
             if(player1Id!=null && player.equals(player2Id)) {
                 player2Id = null;
@@ -180,6 +192,10 @@ public class MultiPlayer extends MemoGame {
         return  isGameStarted;
     }
 
+    public long getSequence() {
+        return sequence;
+    }
+
     public boolean isPlayersTurn(UUID player) {
         return (isPlayer1sTurn && player.equals(player1Id)) ||
                 (!isPlayer1sTurn && player.equals(player2Id));
@@ -144,6 +144,7 @@ public class SinglePlayer extends MemoGame {
      * Saves the game state after it ends.
      */
     private void saveGame() {
+        recordGameEnded(won ? "won" : "lost");
         gameSaver.saveGameAfterEnded(playId, won, timeRemaining, board.length/2, initialTime);
     }
 
@@ -0,0 +1,31 @@
+package com.memo.game.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted for every card flip, with the time spent in the game model.
+ */
+@Name("com.memo.game.CardFlipped")
+@Label("Card Flipped")
+@Category({"Memo", "Game"})
+@StackTrace(false)
+public class CardFlippedEvent extends Event {
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Number of Pairs")
+    public int numberOfPairs;
+
+    @Label("Index")
+    public int index;
+
+    @Label("Matched")
+    @Description("Whether the flip completed a matching pair")
+    public boolean matched;
+
+    @Label("Game Over")
+    public boolean gameOver;
+}
@@ -0,0 +1,22 @@
+package com.memo.game.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted when a game board has been generated.
+ * The event duration is the time spent generating and shuffling the board.
+ */
+@Name("com.memo.game.GameCreated")
+@Label("Game Created")
+@Category({"Memo", "Game"})
+@StackTrace(false)
+public class GameCreatedEvent extends Event {
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Number of Pairs")
+    public int numberOfPairs;
+}
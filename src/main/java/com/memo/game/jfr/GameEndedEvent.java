@@ -0,0 +1,29 @@
+package com.memo.game.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted once when a game is over, however it ended.
+ */
+@Name("com.memo.game.GameEnded")
+@Label("Game Ended")
+@Category({"Memo", "Game"})
+@StackTrace(false)
+public class GameEndedEvent extends Event {
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Number of Pairs")
+    public int numberOfPairs;
+
+    @Label("Outcome")
+    @Description("won or lost for single-player games; decided, draw, forfeit or abandoned for multiplayer games")
+    public String outcome;
+
+    @Label("Game Duration")
+    @Timespan(Timespan.NANOSECONDS)
+    public long gameDuration;
+}
@@ -0,0 +1,25 @@
+package com.memo.game.jfr;
+
+import jdk.jfr.*;
+
+/**
+ * Flight Recorder event emitted when the result of a game has been persisted.
+ * The event duration is the time spent saving the result.
+ */
+@Name("com.memo.game.GameSaved")
+@Label("Game Result Persisted")
+@Category({"Memo", "Persistence"})
+@StackTrace(false)
+public class GameSavedEvent extends Event {
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Mode")
+    public String mode;
+
+    @Label("Number of Pairs")
+    public int numberOfPairs;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,58 @@
+package com.memo.game.jfr;
+
+import jdk.jfr.*;
+
+import java.util.UUID;
+
+/**
+ * Flight Recorder event emitted for every STOMP message handled by the message controller.
+ * The event duration is the handling time, including the reply or broadcast.
+ */
+@Name("com.memo.game.StompMessage")
+@Label("STOMP Message Handled")
+@Category({"Memo", "WebSocket"})
+@StackTrace(false)
+public class StompMessageEvent extends Event {
+    @Label("Destination")
+    public String destination;
+
+    @Label("Game Id")
+    public String gameId;
+
+    @Label("Number of Pairs")
+    public int numberOfPairs;
+
+    @Label("Outcome")
+    @Description("The type of the message sent back, e.g. game.move or error")
+    public String outcome;
+
+    /**
+     * Creates the event and starts timing the handling of a message.
+     *
+     * @param destination the application destination of the message
+     * @return the started event
+     */
+    public static StompMessageEvent start(String destination) {
+        StompMessageEvent event = new StompMessageEvent();
+        event.destination = destination;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Stops timing and commits the event if it is enabled and above its threshold.
+     *
+     * @param gameId the game the message belonged to, or null if unknown
+     * @param numberOfPairs the board size of the game, or 0 if unknown
+     * @param outcome the type of the message sent back
+     */
+    public void finish(UUID gameId, int numberOfPairs, String outcome) {
+        end();
+        if (shouldCommit()) {
+            this.gameId = gameId == null ? null : gameId.toString();
+            this.numberOfPairs = numberOfPairs;
+            this.outcome = outcome;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.memo.game.service;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BinaryOperator;
+
+/**
+ * Concurrent least-recently-used cache with a fixed capacity.
+ * <p>
+ * New entries are always admitted; when a segment is full, its least recently used entry is evicted in
+ * constant time. Keys are spread over up to 16 segments, each an access-ordered {@link LinkedHashMap} behind
+ * a lock of its own, so concurrent lookups rarely wait for one another. Small caches have a single segment
+ * and evict in exact least-recently-used order.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the values
+ */
+public class BoundedCache<K, V> {
+    private static final int MAX_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 64;
+
+    private final List<Segment<K, V>> segments;
+
+    public BoundedCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Cache capacity must be positive.");
+        }
+        int count = Math.max(1, Math.min(MAX_SEGMENTS, Integer.highestOneBit(capacity / MIN_SEGMENT_CAPACITY)));
+        segments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            segments.add(new Segment<>(capacity / count + (i < capacity % count ? 1 : 0)));
+        }
+    }
+
+    /**
+     * Returns the value of a key and marks it as recently used.
+     *
+     * @param key the key
+     * @return the value, or null if the key is not cached
+     */
+    public V get(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            return segment.entries.get(key);
+        }
+    }
+
+    /**
+     * Caches a value, evicting the least recently used entry of its segment if that is full.
+     *
+     * @param key the key
+     * @param value the value
+     */
+    public void put(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.put(key, value);
+            segment.evictEldest();
+        }
+    }
+
+    /**
+     * Caches a value, or if the key is already cached, the result of merging the cached value with it.
+     *
+     * @param key the key
+     * @param value the value
+     * @param remapping combines the cached value and the new one into the value to cache
+     * @return the value cached for the key
+     */
+    public V merge(K key, V value, BinaryOperator<V> remapping) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            V merged = segment.entries.merge(key, value, remapping);
+            segment.evictEldest();
+            return merged;
+        }
+    }
+
+    public void remove(K key) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.remove(key);
+        }
+    }
+
+    /**
+     * Removes a key only if it is still cached with the given value.
+     *
+     * @param key the key
+     * @param value the value the key is expected to have
+     */
+    public void remove(K key, V value) {
+        Segment<K, V> segment = segmentFor(key);
+        synchronized (segment) {
+            segment.entries.remove(key, value);
+        }
+    }
+
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.entries.size();
+            }
+        }
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        return segments.get((hash ^ (hash >>> 16)) & (segments.size() - 1));
+    }
+
+    /**
+     * An access-ordered map, kept within its capacity by evicting the eldest entry after each insert.
+     */
+    private static class Segment<K, V> {
+        private final int capacity;
+        private final Map<K, V> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+        Segment(int capacity) {
+            this.capacity = capacity;
+        }
+
+        void evictEldest() {
+            if (entries.size() > capacity) {
+                Iterator<K> eldest = entries.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+        }
+    }
+}
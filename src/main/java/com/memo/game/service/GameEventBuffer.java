@@ -0,0 +1,111 @@
+package com.memo.game.service;
+
+import com.memo.game.dto.MoveEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the most recent move events of every running multiplayer game in a bounded ring buffer,
+ * so that a client that reconnects can be sent only the events it missed.
+ */
+@Service
+public class GameEventBuffer {
+    public static final int DEFAULT_CAPACITY = 64;
+
+    private final int capacity;
+    private final Map<UUID, EventRing> rings = new ConcurrentHashMap<>();
+
+    public GameEventBuffer() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    @Autowired
+    public GameEventBuffer(@Value("${memo.multiplayer.event-buffer-size:64}") int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Event buffer size must be positive.");
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Stores an event of a game, overwriting the oldest one once the game's buffer is full.
+     *
+     * @param event the event to store, with the game's sequence number after the move
+     */
+    public void record(MoveEvent event) {
+        rings.computeIfAbsent(event.getGameId(), id -> new EventRing(capacity)).add(event);
+    }
+
+    /**
+     * Returns the events of a game after the given sequence number, oldest first.
+     *
+     * @param gameId the UUID of the game
+     * @param lastSeq the last sequence number the client has seen
+     * @return the missed events, an empty list if none were missed, or null if some of them
+     *         are no longer buffered and the client needs a full snapshot instead
+     */
+    public List<MoveEvent> eventsSince(UUID gameId, long lastSeq) {
+        EventRing ring = rings.get(gameId);
+        if (ring == null) {
+            return lastSeq == 0 ? List.of() : null;
+        }
+        return ring.since(lastSeq);
+    }
+
+    /**
+     * Drops the buffered events of a game that has been removed.
+     *
+     * @param gameId the UUID of the game
+     */
+    public void remove(UUID gameId) {
+        if (gameId != null) {
+            rings.remove(gameId);
+        }
+    }
+
+    /**
+     * Fixed-size buffer of one game's events, indexed by sequence number.
+     */
+    private static class EventRing {
+        private final MoveEvent[] events;
+        private long newestSeq = 0;
+
+        EventRing(int capacity) {
+            events = new MoveEvent[capacity];
+        }
+
+        synchronized void add(MoveEvent event) {
+            events[slot(event.getSeq())] = event;
+            newestSeq = Math.max(newestSeq, event.getSeq());
+        }
+
+        synchronized List<MoveEvent> since(long lastSeq) {
+            if (lastSeq >= newestSeq) {
+                return List.of();
+            }
+            if (newestSeq - lastSeq > events.length) {
+                return null;
+            }
+            List<MoveEvent> missed = new ArrayList<>((int) (newestSeq - lastSeq));
+            for (long seq = lastSeq + 1; seq <= newestSeq; seq++) {
+                MoveEvent event = events[slot(seq)];
+                if (event == null || event.getSeq() != seq) {
+                    return null;
+                }
+                missed.add(event);
+            }
+            return missed;
+        }
+
+        private int slot(long seq) {
+            return (int) (seq % events.length);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.memo.game.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service holding the gameplay, authentication and persistence meters of the application.
+ * Every counter and timer is registered once in the constructor and kept in a field,
+ * so recording on the hot path is a single lock-free increment without any tag lookup.
+ * Durations are passed in as {@link System#nanoTime()} differences to avoid allocating samples.
+ */
+@Service
+public class GameMetrics {
+    private final Counter singleFlips;
+    private final Counter multiFlips;
+    private final Counter singleMatches;
+    private final Counter multiMatches;
+    private final Counter singleWon;
+    private final Counter singleLost;
+    private final Counter multiDecided;
+    private final Counter multiDraw;
+    private final Counter disconnects;
+    private final Timer singleFlipCard;
+    private final Timer multiFlipCard;
+    private final Timer makeMove;
+    private final Timer singleSaveGame;
+    private final Timer multiSaveGame;
+    private final Timer leaderBoard;
+    private final Timer passwordCheck;
+    private final Timer passwordHash;
+
+    @Autowired
+    public GameMetrics(MeterRegistry registry) {
+        singleFlips = flips(registry, "single");
+        multiFlips = flips(registry, "multi");
+        singleMatches = matches(registry, "single");
+        multiMatches = matches(registry, "multi");
+        singleWon = gamesEnded(registry, "single", "won");
+        singleLost = gamesEnded(registry, "single", "lost");
+        multiDecided = gamesEnded(registry, "multi", "decided");
+        multiDraw = gamesEnded(registry, "multi", "draw");
+        disconnects = Counter.builder("memo.websocket.disconnects")
+                .description("STOMP sessions that were disconnected")
+                .register(registry);
+        singleFlipCard = Timer.builder("memo.game.flip.duration").tag("mode", "single").register(registry);
+        multiFlipCard = Timer.builder("memo.game.flip.duration").tag("mode", "multi").register(registry);
+        makeMove = Timer.builder("memo.multiplayer.move.duration")
+                .description("Handling of a /game.move frame, including validation and the broadcast")
+                .register(registry);
+        singleSaveGame = Timer.builder("memo.game.save.duration").tag("mode", "single").register(registry);
+        multiSaveGame = Timer.builder("memo.game.save.duration").tag("mode", "multi").register(registry);
+        leaderBoard = Timer.builder("memo.statistics.leaderboard.duration").register(registry);
+        passwordCheck = Timer.builder("memo.auth.bcrypt.duration").tag("operation", "check").register(registry);
+        passwordHash = Timer.builder("memo.auth.bcrypt.duration").tag("operation", "hash").register(registry);
+    }
+
+    private static Counter flips(MeterRegistry registry, String mode) {
+        return Counter.builder("memo.game.flips").tag("mode", mode).register(registry);
+    }
+
+    private static Counter matches(MeterRegistry registry, String mode) {
+        return Counter.builder("memo.game.matches").tag("mode", mode).register(registry);
+    }
+
+    private static Counter gamesEnded(MeterRegistry registry, String mode, String outcome) {
+        return Counter.builder("memo.games.ended").tag("mode", mode).tag("outcome", outcome).register(registry);
+    }
+
+    /**
+     * Records a single-player flip.
+     *
+     * @param startNanos the {@link System#nanoTime()} before the flip
+     * @param matched whether the flip completed a matching pair
+     */
+    public void singleFlip(long startNanos, boolean matched) {
+        singleFlipCard.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        singleFlips.increment();
+        if (matched) {
+            singleMatches.increment();
+        }
+    }
+
+    /**
+     * Records a multiplayer flip.
+     *
+     * @param startNanos the {@link System#nanoTime()} before the flip
+     * @param matched whether the flip completed a matching pair
+     */
+    public void multiFlip(long startNanos, boolean matched) {
+        multiFlipCard.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        multiFlips.increment();
+        if (matched) {
+            multiMatches.increment();
+        }
+    }
+
+    public void makeMove(long startNanos) {
+        makeMove.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void singleGameSaved(long startNanos, boolean won) {
+        singleSaveGame.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        (won ? singleWon : singleLost).increment();
+    }
+
+    public void multiGameSaved(long startNanos, boolean draw) {
+        multiSaveGame.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        (draw ? multiDraw : multiDecided).increment();
+    }
+
+    public void leaderBoard(long startNanos) {
+        leaderBoard.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void passwordChecked(long startNanos) {
+        passwordCheck.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void passwordHashed(long startNanos) {
+        passwordHash.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void disconnected() {
+        disconnects.increment();
+    }
+}
@@ -0,0 +1,116 @@
+package com.memo.game.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Gives multiplayer players who lost their connection a grace period to reconnect
+ * before they are removed from their game.
+ * <p>
+ * Tracks the session each player last joined or resumed their game from, so that the late
+ * disconnect of a session the player has already replaced does not start a grace period.
+ */
+@Service
+public class GameReconnectService {
+    public static final long DEFAULT_GRACE_MILLIS = 30000;
+
+    /**
+     * What the caller should do about a disconnected session.
+     */
+    public enum Disconnect {
+        /** The player has already moved to another session, nothing to do. */
+        STALE_SESSION,
+        /** The player has been given time to reconnect and is removed later if they do not. */
+        GRACE_PERIOD,
+        /** Reconnecting is disabled, the player should be removed now. */
+        REMOVE
+    }
+
+    private final long graceMillis;
+    private final Map<UUID, String> activeSessions = new ConcurrentHashMap<>();
+    private final Map<UUID, ScheduledFuture<?>> pendingRemovals = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "game-reconnect");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public GameReconnectService() {
+        this(DEFAULT_GRACE_MILLIS);
+    }
+
+    @Autowired
+    public GameReconnectService(@Value("${memo.multiplayer.reconnect-grace-ms:30000}") long graceMillis) {
+        this.graceMillis = graceMillis;
+    }
+
+    /**
+     * Records the session a player plays their game from and ends their grace period, if any.
+     *
+     * @param player the UUID of the player
+     * @param sessionId the id of the player's session, may be null if unknown
+     * @return true if the player was within their grace period
+     */
+    public boolean playerConnected(UUID player, String sessionId) {
+        if (player == null) {
+            return false;
+        }
+        if (sessionId != null) {
+            activeSessions.put(player, sessionId);
+        }
+        ScheduledFuture<?> pending = pendingRemovals.remove(player);
+        return pending != null && pending.cancel(false);
+    }
+
+    /**
+     * Handles the end of a player's session and, if reconnecting is enabled, schedules their removal
+     * for when the grace period runs out.
+     *
+     * @param player the UUID of the player
+     * @param sessionId the id of the session that ended, may be null if unknown
+     * @param removal removes the player from their game; run on the service's own thread
+     * @return what the caller should do about the disconnect
+     */
+    public Disconnect playerDisconnected(UUID player, String sessionId, Runnable removal) {
+        if (player == null) {
+            return Disconnect.REMOVE;
+        }
+        String activeSession = activeSessions.get(player);
+        if (activeSession != null && sessionId != null && !activeSession.equals(sessionId)) {
+            return Disconnect.STALE_SESSION;
+        }
+        if (sessionId != null) {
+            activeSessions.remove(player, sessionId);
+        }
+        if (graceMillis <= 0) {
+            return Disconnect.REMOVE;
+        }
+        ScheduledFuture<?> previous = pendingRemovals.put(player, scheduler.schedule(() -> {
+            pendingRemovals.remove(player);
+            removal.run();
+        }, graceMillis, TimeUnit.MILLISECONDS));
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        return Disconnect.GRACE_PERIOD;
+    }
+
+    public long getGraceMillis() {
+        return graceMillis;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
@@ -0,0 +1,216 @@
+package com.memo.game.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits sign-in attempts per remote address and failed sign-ins per account (username or email), so that
+ * credential-stuffing bursts are turned away before they cost a user lookup and a BCrypt check.
+ * <p>
+ * Every attempt counts against its address, but only failed ones count against the account, so a user who
+ * signs in successfully is never throttled by their own sign-ins. Anyone can still hold an account at its
+ * limit by sending wrong passwords for it; the account is then throttled only until the failures slide out
+ * of the window, which is the price of stopping password guessing from many addresses.
+ * <p>
+ * Each key has a sliding-window counter: the attempts of the current window plus the share of the previous
+ * window's attempts that still overlaps the last window length. Counters are updated with compare-and-set, and
+ * keys idle for two windows are evicted at most once per window. A limit of {@code 0} disables that check.
+ */
+@Service
+public class LoginRateLimiter {
+    private final int accountLimit;
+    private final int addressLimit;
+    private final long windowMillis;
+    private final LongSupplier clock;
+    private final Map<String, SlidingWindow> windows = new ConcurrentHashMap<>();
+    private final AtomicLong evictedWindow = new AtomicLong();
+    private final Counter accountThrottled;
+    private final Counter addressThrottled;
+
+    @Autowired
+    public LoginRateLimiter(
+            MeterRegistry registry,
+            @Value("${memo.auth.rate-limit.per-account:10}") int accountLimit,
+            @Value("${memo.auth.rate-limit.per-address:50}") int addressLimit,
+            @Value("${memo.auth.rate-limit.window-seconds:60}") long windowSeconds) {
+        this(registry, accountLimit, addressLimit, windowSeconds * 1000, System::currentTimeMillis);
+    }
+
+    LoginRateLimiter(MeterRegistry registry, int accountLimit, int addressLimit, long windowMillis, LongSupplier clock) {
+        if (windowMillis <= 0) {
+            throw new IllegalArgumentException("Rate limit window must be positive.");
+        }
+        this.accountLimit = accountLimit;
+        this.addressLimit = addressLimit;
+        this.windowMillis = windowMillis;
+        this.clock = clock;
+        this.accountThrottled = throttled(registry, "account");
+        this.addressThrottled = throttled(registry, "address");
+        Gauge.builder("memo.auth.login.tracked", windows, Map::size)
+                .description("Usernames, emails and addresses with a sign-in attempt in the last two windows")
+                .register(registry);
+    }
+
+    private static Counter throttled(MeterRegistry registry, String key) {
+        return Counter.builder("memo.auth.login.throttled")
+                .description("Sign-in attempts turned away by the rate limiter")
+                .tag("key", key)
+                .register(registry);
+    }
+
+    /**
+     * Records a sign-in attempt against the limit of its remote address, and checks that its account
+     * has not failed to sign in too often.
+     *
+     * @param remoteAddress the client's address, may be null
+     * @param username the username signed in with, may be null
+     * @param email the email signed in with, may be null
+     * @return true if the attempt may go ahead, false if it has to be rejected
+     */
+    public boolean tryAcquire(String remoteAddress, String username, String email) {
+        long now = clock.getAsLong();
+        evictIdle(now);
+        if (remoteAddress != null && !tryAcquire("address:" + remoteAddress, addressLimit, now)) {
+            addressThrottled.increment();
+            return false;
+        }
+        if ((username != null && isExhausted(usernameKey(username), accountLimit, now))
+                || (email != null && isExhausted(emailKey(email), accountLimit, now))) {
+            accountThrottled.increment();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Records a failed sign-in against the limit of its account.
+     *
+     * @param username the username signed in with, may be null
+     * @param email the email signed in with, may be null
+     */
+    public void signInFailed(String username, String email) {
+        if (accountLimit <= 0) {
+            return;
+        }
+        long now = clock.getAsLong();
+        if (username != null) {
+            window(usernameKey(username), now).record(now, windowMillis);
+        }
+        if (email != null) {
+            window(emailKey(email), now).record(now, windowMillis);
+        }
+    }
+
+    /**
+     * @return the number of seconds a throttled client is asked to wait before trying again
+     */
+    public long getRetryAfterSeconds() {
+        return Math.max(1, windowMillis / 1000);
+    }
+
+    private boolean tryAcquire(String key, int limit, long now) {
+        if (limit <= 0) {
+            return true;
+        }
+        return window(key, now).tryAcquire(limit, now, windowMillis);
+    }
+
+    private boolean isExhausted(String key, int limit, long now) {
+        if (limit <= 0) {
+            return false;
+        }
+        SlidingWindow window = windows.get(key);
+        return window != null && window.isExhausted(limit, now, windowMillis);
+    }
+
+    private SlidingWindow window(String key, long now) {
+        return windows.computeIfAbsent(key, k -> new SlidingWindow(now / windowMillis));
+    }
+
+    private static String usernameKey(String username) {
+        return "username:" + username.toLowerCase(Locale.ROOT);
+    }
+
+    private static String emailKey(String email) {
+        return "email:" + email.toLowerCase(Locale.ROOT);
+    }
+
+    private void evictIdle(long now) {
+        long window = now / windowMillis;
+        long evicted = evictedWindow.get();
+        if (window <= evicted || !evictedWindow.compareAndSet(evicted, window)) {
+            return;
+        }
+        windows.values().removeIf(slidingWindow -> slidingWindow.isIdle(window));
+    }
+
+    /**
+     * Attempt counts of the current and the previous window of one key.
+     */
+    private record Counts(long window, int previous, int current) {}
+
+    private static class SlidingWindow {
+        private final AtomicReference<Counts> counts;
+
+        SlidingWindow(long window) {
+            counts = new AtomicReference<>(new Counts(window, 0, 0));
+        }
+
+        boolean tryAcquire(int limit, long now, long windowMillis) {
+            long window = now / windowMillis;
+            while (true) {
+                Counts seen = counts.get();
+                Counts rolled = rolled(seen, window);
+                if (isExhausted(rolled, limit, now, windowMillis)) {
+                    if (rolled != seen) {
+                        counts.compareAndSet(seen, rolled);
+                    }
+                    return false;
+                }
+                if (counts.compareAndSet(seen, new Counts(window, rolled.previous(), rolled.current() + 1))) {
+                    return true;
+                }
+            }
+        }
+
+        boolean isExhausted(int limit, long now, long windowMillis) {
+            return isExhausted(rolled(counts.get(), now / windowMillis), limit, now, windowMillis);
+        }
+
+        void record(long now, long windowMillis) {
+            long window = now / windowMillis;
+            while (true) {
+                Counts seen = counts.get();
+                Counts rolled = rolled(seen, window);
+                if (counts.compareAndSet(seen, new Counts(window, rolled.previous(), rolled.current() + 1))) {
+                    return;
+                }
+            }
+        }
+
+        private static Counts rolled(Counts seen, long window) {
+            return seen.window() == window ? seen
+                    : new Counts(window, seen.window() == window - 1 ? seen.current() : 0, 0);
+        }
+
+        private static boolean isExhausted(Counts counts, int limit, long now, long windowMillis) {
+            double previousWeight = 1 - (double) (now % windowMillis) / windowMillis;
+            return counts.previous() * previousWeight + counts.current() >= limit;
+        }
+
+        boolean isIdle(long window) {
+            return counts.get().window() < window - 1;
+        }
+    }
+}
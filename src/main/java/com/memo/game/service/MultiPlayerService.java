@@ -2,11 +2,13 @@ package com.memo.game.service;
 
 import com.memo.game.entity.MemoMultiGame;
 import com.memo.game.gameModel.MultiPlayer;
+import com.memo.game.jfr.GameSavedEvent;
 import com.memo.game.repo.MemoMultiGameRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Service class that manages multiplayer games.
@@ -25,10 +27,22 @@ public class MultiPlayerService {
      */
     private final List<MultiPlayer> gamesWithFriends = new ArrayList<>();
     private final MemoMultiGameRepository memoMultiGameRepository;
+    private final GameMetrics gameMetrics;
+    private final GameEventBuffer gameEventBuffer;
+    /**
+     * Counts of the waiting random games, the started games and the open friend rooms, updated under this
+     * service's lock whenever a game is added, started or removed, so that reading them never takes the lock.
+     */
+    private final AtomicInteger waitingGames = new AtomicInteger();
+    private final AtomicInteger startedGames = new AtomicInteger();
+    private final AtomicInteger openFriendRooms = new AtomicInteger();
 
     @Autowired
-    public MultiPlayerService(MemoMultiGameRepository memoMultiGameRepository) {
+    public MultiPlayerService(MemoMultiGameRepository memoMultiGameRepository, GameMetrics gameMetrics,
+                              GameEventBuffer gameEventBuffer) {
         this.memoMultiGameRepository = memoMultiGameRepository;
+        this.gameMetrics = gameMetrics;
+        this.gameEventBuffer = gameEventBuffer;
     }
 
     /**
@@ -55,7 +69,7 @@ public class MultiPlayerService {
             if(game==null) return null;
             if (game.getPlayer1Id() != null && game.getPlayer2Id() == null) {
                 game.setPlayer2Id(player);
-                game.setGameStarted(true);
+                start(game, games.contains(game) ? waitingGames : openFriendRooms);
                 return game;
             }
         }
@@ -63,6 +77,7 @@ public class MultiPlayerService {
         if(numberOfPairs<=0) return null;
         MultiPlayer game = new MultiPlayer(numberOfPairs, player, null);
         gamesWithFriends.add(game);
+        openFriendRooms.incrementAndGet();
         return game;
     }
 
@@ -87,16 +102,31 @@ public class MultiPlayerService {
             if (game.getPlayer1Id() != null && game.getPlayer2Id() == null
                     && game.getNumberOfPairs()==numberOfPairs) {
                 game.setPlayer2Id(player);
-                game.setGameStarted(true);
+                start(game, waitingGames);
                 return game;
             }
         }
 
         MultiPlayer game = new MultiPlayer(numberOfPairs, player, null);
         games.add(game);
+        waitingGames.incrementAndGet();
         return game;
     }
 
+    /**
+     * Starts a game whose second player has just joined and moves it to the started count.
+     *
+     * @param game the game to start
+     * @param waiting the count the game was waiting in
+     */
+    private void start(MultiPlayer game, AtomicInteger waiting) {
+        if (!game.isGameStarted()) {
+            waiting.decrementAndGet();
+            startedGames.incrementAndGet();
+        }
+        game.setGameStarted(true);
+    }
+
     /**
      * Allows a player to leave a game.
      *
@@ -121,6 +151,25 @@ public class MultiPlayerService {
         return null;
     }
 
+    /**
+     * Removes a player who lost their connection from their game, and the game from the active games.
+     *
+     * Runs under the same lock as joining and leaving games, since it is called from the thread
+     * on which the reconnect grace period runs out.
+     *
+     * @param gameId the UUID of the game
+     * @param player the UUID of the disconnected player
+     * @return the game the player was removed from, or null if there is no such game
+     */
+    public synchronized MultiPlayer removeDisconnectedPlayer(UUID gameId, UUID player) {
+        MultiPlayer game = getGame(gameId);
+        if (game != null) {
+            game.playerLeaves(player);
+            removeGame(gameId);
+        }
+        return game;
+    }
+
     /**
      * Retrieves the game a player is currently in.
      *
@@ -163,14 +212,19 @@ public class MultiPlayerService {
     /**
      * Removes a game by its ID.
      *
-     * Finds the game with the specified ID and removes it from the active games list.
+     * Finds the game with the specified ID and removes it from the active games list,
+     * together with its buffered move events.
      *
      * @param gameId the UUID of the game to be removed
      */
-    public void removeGame(UUID gameId) {
+    public synchronized void removeGame(UUID gameId) {
         MultiPlayer game = getGame(gameId);
-        games.remove(game);
-        gamesWithFriends.remove(game);
+        if (game != null) {
+            AtomicInteger waiting = games.remove(game) ? waitingGames : openFriendRooms;
+            gamesWithFriends.remove(game);
+            (game.isGameStarted() ? startedGames : waiting).decrementAndGet();
+        }
+        gameEventBuffer.remove(gameId);
     }
 
     /**
@@ -181,6 +235,9 @@ public class MultiPlayerService {
      * @param game the game to be saved
      */
     public void saveGame(MultiPlayer game) {
+        long start = System.nanoTime();
+        GameSavedEvent event = new GameSavedEvent();
+        event.begin();
         MemoMultiGame memoMultiGame = new MemoMultiGame(
                 game.getPlayId(),
                 game.getPlayer1Id(),
@@ -191,6 +248,42 @@ public class MultiPlayerService {
                 game.getPlayer2GuessedCards()
         );
         memoMultiGameRepository.save(memoMultiGame);
+        gameMetrics.multiGameSaved(start, "draw".equals(game.getWinner()));
+        event.end();
+        if (event.shouldCommit()) {
+            event.gameId = game.getPlayId().toString();
+            event.mode = "MultiPlayer";
+            event.numberOfPairs = game.getNumberOfPairs();
+            event.outcome = "draw".equals(game.getWinner()) ? "draw" : "decided";
+            event.commit();
+        }
+    }
+
+    /**
+     * Counts the random games that are waiting for a second player.
+     *
+     * @return the number of random games that have not started yet
+     */
+    public int countWaitingGames() {
+        return waitingGames.get();
+    }
+
+    /**
+     * Counts the games that are being played, both random and with friends.
+     *
+     * @return the number of started games
+     */
+    public int countStartedGames() {
+        return startedGames.get();
+    }
+
+    /**
+     * Counts the friend rooms that are waiting for the invited friend.
+     *
+     * @return the number of games with friends that have not started yet
+     */
+    public int countOpenFriendRooms() {
+        return openFriendRooms.get();
     }
 
     public List<MultiPlayer> getGames() {
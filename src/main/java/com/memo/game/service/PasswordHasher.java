@@ -0,0 +1,147 @@
+package com.memo.game.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.mindrot.jbcrypt.BCrypt;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and checks passwords with BCrypt on a fixed pool of threads, one per core by default.
+ * <p>
+ * BCrypt is deliberately slow, so a burst of sign-ins run on the request threads would leave none for
+ * the game endpoints. Here at most the pool size plus the queue capacity of request threads wait for BCrypt;
+ * once the queue is full, further requests are rejected at once with a {@link RejectedExecutionException}.
+ */
+@Service
+public class PasswordHasher {
+    private final int cost;
+    private final long retryAfterSeconds;
+    private final ThreadPoolExecutor executor;
+    private final GameMetrics gameMetrics;
+    private final Timer queueWait;
+    private final Counter rejected;
+
+    public PasswordHasher(
+            GameMetrics gameMetrics,
+            MeterRegistry registry,
+            @Value("${memo.auth.bcrypt.cost:10}") int cost,
+            @Value("${memo.auth.bcrypt.pool-size:0}") int poolSize,
+            @Value("${memo.auth.bcrypt.queue-capacity:64}") int queueCapacity,
+            @Value("${memo.auth.bcrypt.retry-after-seconds:1}") long retryAfterSeconds) {
+        if (cost < 4 || cost > 31) {
+            throw new IllegalArgumentException("BCrypt cost must be between 4 and 31.");
+        }
+        if (queueCapacity <= 0) {
+            throw new IllegalArgumentException("BCrypt queue capacity must be positive.");
+        }
+        int threads = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.cost = cost;
+        this.retryAfterSeconds = retryAfterSeconds;
+        this.gameMetrics = gameMetrics;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), runnable -> {
+                    Thread thread = new Thread(runnable, "bcrypt-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.queueWait = Timer.builder("memo.auth.bcrypt.queue.wait")
+                .description("Time a password hash or check waited for a BCrypt thread")
+                .register(registry);
+        this.rejected = Counter.builder("memo.auth.bcrypt.rejected")
+                .description("Password hashes and checks rejected because the BCrypt queue was full")
+                .register(registry);
+        Gauge.builder("memo.auth.bcrypt.queued", executor, pool -> pool.getQueue().size())
+                .description("Password hashes and checks waiting for a BCrypt thread")
+                .register(registry);
+    }
+
+    /**
+     * Hashes a password with a new salt.
+     *
+     * @param password the plain password
+     * @return the BCrypt hash of the password
+     * @throws RejectedExecutionException if too many passwords are already waiting to be hashed or checked
+     */
+    public String hash(String password) {
+        return run(() -> {
+            long start = System.nanoTime();
+            String hashed = BCrypt.hashpw(password, BCrypt.gensalt(cost));
+            gameMetrics.passwordHashed(start);
+            return hashed;
+        });
+    }
+
+    /**
+     * Checks a password against a BCrypt hash.
+     *
+     * @param password the plain password
+     * @param hashed the BCrypt hash
+     * @return true if the password matches the hash
+     * @throws RejectedExecutionException if too many passwords are already waiting to be hashed or checked
+     */
+    public boolean check(String password, String hashed) {
+        return run(() -> {
+            long start = System.nanoTime();
+            boolean matches = BCrypt.checkpw(password, hashed);
+            gameMetrics.passwordChecked(start);
+            return matches;
+        });
+    }
+
+    /**
+     * Runs a task on the pool and waits for its result.
+     *
+     * @throws RejectedExecutionException if the queue is full
+     */
+    <T> T run(Callable<T> task) {
+        long queued = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                queueWait.record(System.nanoTime() - queued, TimeUnit.NANOSECONDS);
+                return task.call();
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw e;
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for BCrypt", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * @return the number of seconds a rejected client is asked to wait before trying again
+     */
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,140 @@
+package com.memo.game.service;
+
+import com.memo.game.entity.RefreshToken;
+import com.memo.game.repo.RefreshTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Issues and rotates refresh tokens, which mint new access tokens without the password.
+ * <p>
+ * A refresh token is a random value handed to the client once; only its SHA-256 hash is stored. Redeeming it
+ * marks it used and returns a new token of the same family. Redeeming a token that was used before means
+ * one of its copies has been stolen, so the whole family is revoked and the user has to sign in again.
+ */
+@Service
+public class RefreshTokenService {
+    private static final int TOKEN_BYTES = 32;
+    private static final long CLEANUP_INTERVAL_MILLIS = 3600000;
+
+    /**
+     * The result of redeeming a refresh token.
+     *
+     * @param userId the user the token was issued to
+     * @param refreshToken the refresh token that replaces the redeemed one
+     */
+    public record Rotation(UUID userId, String refreshToken) {}
+
+    private final RefreshTokenRepository refreshTokenRepository;
+    private final Duration timeToLive;
+    private final SecureRandom random = new SecureRandom();
+    private final AtomicLong lastCleanup = new AtomicLong();
+    private final Counter rotated;
+    private final Counter reused;
+    private final Counter rejected;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository,
+                               MeterRegistry registry,
+                               @Value("${memo.auth.refresh.ttl-days:14}") long timeToLiveDays) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.timeToLive = Duration.ofDays(timeToLiveDays);
+        this.rotated = refreshes(registry, "rotated");
+        this.reused = refreshes(registry, "reused");
+        this.rejected = refreshes(registry, "rejected");
+    }
+
+    private static Counter refreshes(MeterRegistry registry, String result) {
+        return Counter.builder("memo.auth.refresh")
+                .description("Refresh token redemptions by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Issues a refresh token of a new family, e.g. after a sign-in.
+     *
+     * @param userId the user the token is issued to
+     * @return the refresh token
+     */
+    public String issue(UUID userId) {
+        return issue(userId, UUID.randomUUID());
+    }
+
+    /**
+     * Redeems a refresh token, replacing it with a new one.
+     *
+     * @param refreshToken the refresh token presented by the client
+     * @return the user and the new refresh token, or null if the token is unknown, expired, revoked or was used before
+     */
+    public Rotation rotate(String refreshToken) {
+        RefreshToken stored = refreshToken == null ? null : refreshTokenRepository.findByTokenHash(hash(refreshToken));
+        long now = System.currentTimeMillis();
+        if (stored == null || stored.getExpiresAt().getTime() <= now) {
+            rejected.increment();
+            return null;
+        }
+        if (stored.isRevoked() || stored.getUsedAt() != null
+                || refreshTokenRepository.markUsed(stored.getId(), new Timestamp(now)) == 0) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+            reused.increment();
+            return null;
+        }
+        rotated.increment();
+        return new Rotation(stored.getUserId(), issue(stored.getUserId(), stored.getFamilyId()));
+    }
+
+    /**
+     * Revokes the family of a refresh token, e.g. when the user signs out.
+     *
+     * @param refreshToken the refresh token presented by the client, may be null
+     */
+    public void revoke(String refreshToken) {
+        RefreshToken stored = refreshToken == null ? null : refreshTokenRepository.findByTokenHash(hash(refreshToken));
+        if (stored != null) {
+            refreshTokenRepository.revokeFamily(stored.getFamilyId());
+        }
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    private String issue(UUID userId, UUID familyId) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String refreshToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        long now = System.currentTimeMillis();
+        refreshTokenRepository.save(new RefreshToken(hash(refreshToken), userId, familyId,
+                new Timestamp(now + timeToLive.toMillis()), new Timestamp(now)));
+        cleanUpIfDue(now);
+        return refreshToken;
+    }
+
+    private void cleanUpIfDue(long now) {
+        long last = lastCleanup.get();
+        if (now - last >= CLEANUP_INTERVAL_MILLIS && lastCleanup.compareAndSet(last, now)) {
+            refreshTokenRepository.deleteExpired(new Timestamp(now));
+        }
+    }
+
+    private static String hash(String refreshToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(refreshToken.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.memo.game.service;
 
 import com.memo.game.entity.MemoSingleGame;
 import com.memo.game.gameModel.SinglePlayer;
+import com.memo.game.jfr.GameSavedEvent;
 import com.memo.game.repo.MemoSingleGameRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
@@ -27,10 +28,12 @@ public class SinglePlayerService implements GameSaver {
      */
     private final Map<UUID, UUID> playsWithUsers= new HashMap<UUID, UUID>();
     private final MemoSingleGameRepository gameRepository;
+    private final GameMetrics gameMetrics;
 
     @Autowired
-    public SinglePlayerService(MemoSingleGameRepository gameRepository) {
+    public SinglePlayerService(MemoSingleGameRepository gameRepository, GameMetrics gameMetrics) {
         this.gameRepository = gameRepository;
+        this.gameMetrics = gameMetrics;
     }
 
     /**
@@ -78,9 +81,21 @@ public class SinglePlayerService implements GameSaver {
     @Override
     public void saveGameAfterEnded(UUID gameId, boolean won, int timeRemaining,
                   int pairs, int initialTime) {
+        long start = System.nanoTime();
+        GameSavedEvent event = new GameSavedEvent();
+        event.begin();
         UUID userId = playsWithUsers.get(gameId);
         MemoSingleGame game = new MemoSingleGame(gameId, userId, won, timeRemaining, pairs, initialTime);
         saveGame(game);
+        gameMetrics.singleGameSaved(start, won);
+        event.end();
+        if (event.shouldCommit()) {
+            event.gameId = gameId.toString();
+            event.mode = "SinglePlayer";
+            event.numberOfPairs = pairs;
+            event.outcome = won ? "won" : "lost";
+            event.commit();
+        }
     }
 
     /**
@@ -1,28 +1,158 @@
 package com.memo.game.service;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
 
 /**
  * Service for managing blacklisted tokens.
+ * <p>
+ * Revoked tokens are kept by their token id ({@code jti}) until the token itself expires, since an expired
+ * token is rejected anyway. Each id is also filed in a one-minute bucket of its expiry; once a minute has passed,
+ * the next revocation drops its whole bucket. Memory is therefore bounded by the tokens revoked within one
+ * token lifetime, and lookups are a single read of a concurrent map.
+ * <p>
+ * In front of the map sits a Bloom filter per hour of token expiry, dropped once that hour has passed.
+ * Almost every token checked has not been revoked, and the filters answer that from one cache line each;
+ * only ids the filters probably contain are looked up in the map.
  */
 @Service
 public class TokenBlacklistService {
+    static final long BUCKET_MILLIS = 60000;
+    private static final long MAX_TOKEN_LIFETIME_MILLIS = 3600000;
+    static final long FILTER_WINDOW_MILLIS = MAX_TOKEN_LIFETIME_MILLIS;
+    public static final int DEFAULT_EXPECTED_REVOCATIONS = 10000;
+    public static final double DEFAULT_FALSE_POSITIVE_RATE = 0.01;
 
-    private final Set<String> blacklist = new HashSet<>();
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListMap<Long, Set<String>> buckets = new ConcurrentSkipListMap<>();
+    private final ConcurrentSkipListMap<Long, TokenBloomFilter> filters = new ConcurrentSkipListMap<>();
+    private final AtomicLong purgedBucket = new AtomicLong();
+    private final int expectedRevocations;
+    private final double falsePositiveRate;
+    private final LongSupplier clock;
+    private final Counter filteredLookups;
+    private final Counter falsePositives;
+    private final Counter revokedLookups;
+
+    @Autowired
+    public TokenBlacklistService(
+            MeterRegistry registry,
+            @Value("${memo.auth.blacklist.expected-revocations:10000}") int expectedRevocations,
+            @Value("${memo.auth.blacklist.false-positive-rate:0.01}") double falsePositiveRate) {
+        this(registry, expectedRevocations, falsePositiveRate, System::currentTimeMillis);
+    }
+
+    TokenBlacklistService(MeterRegistry registry, int expectedRevocations, double falsePositiveRate, LongSupplier clock) {
+        if (expectedRevocations <= 0) {
+            throw new IllegalArgumentException("Expected revocations must be positive.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1.");
+        }
+        this.expectedRevocations = expectedRevocations;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clock = clock;
+        this.filteredLookups = lookups(registry, "filtered");
+        this.falsePositives = lookups(registry, "false_positive");
+        this.revokedLookups = lookups(registry, "revoked");
+        Gauge.builder("memo.auth.blacklist.tokens", revoked, Map::size)
+                .description("Revoked tokens that have not expired yet")
+                .register(registry);
+        Gauge.builder("memo.auth.blacklist.filter.bytes", filters,
+                        live -> live.values().stream().mapToLong(TokenBloomFilter::byteSize).sum())
+                .description("Memory used by the Bloom filters in front of the blacklist")
+                .baseUnit("bytes")
+                .register(registry);
+        Gauge.builder("memo.auth.blacklist.filters", filters, Map::size)
+                .description("Bloom filters in front of the blacklist, one per hour of token expiry")
+                .register(registry);
+    }
+
+    private static Counter lookups(MeterRegistry registry, String result) {
+        return Counter.builder("memo.auth.blacklist.lookups")
+                .description("Blacklist lookups by how they were answered")
+                .tag("result", result)
+                .register(registry);
+    }
+
+    /**
+     * Returns the id a token is blacklisted by: its {@code jti} claim, or for tokens issued without one,
+     * its signature.
+     *
+     * @param decodedJWT the decoded token
+     * @return the token id
+     */
+    public static String tokenId(DecodedJWT decodedJWT) {
+        return decodedJWT.getId() != null ? decodedJWT.getId() : "sig:" + decodedJWT.getSignature();
+    }
 
     /**
      * Adds a token to the blacklist.
      *
      * This method adds a token to the blacklist, indicating that it should not be considered valid for authentication.
+     * The token is kept until it expires; tokens without an expiry are kept for the longest token lifetime.
      *
      * @param token the token to be added to the blacklist
-     * @return true if the token is successfully added to the blacklist, false otherwise
+     * @return true if the token is successfully added to the blacklist, false if it was already blacklisted,
+     *         has expired or is not a token
      */
     public boolean addToBlacklist(String token) {
-        return blacklist.add(token);
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            return false;
+        }
+        return revoke(tokenId(decodedJWT), expiresAt(decodedJWT));
+    }
+
+    /**
+     * Returns how long a token has to stay blacklisted: until its expiry, or for the longest token lifetime
+     * if it has none.
+     *
+     * @param decodedJWT the decoded token
+     * @return the time the token can be dropped from the blacklist, in milliseconds since the epoch
+     */
+    long expiresAt(DecodedJWT decodedJWT) {
+        return decodedJWT.getExpiresAt() != null
+                ? decodedJWT.getExpiresAt().getTime()
+                : clock.getAsLong() + MAX_TOKEN_LIFETIME_MILLIS;
+    }
+
+    /**
+     * Adds a token id to the blacklist until the given expiry.
+     *
+     * @param tokenId the id of the token
+     * @param expiresAtMillis the token's expiry, in milliseconds since the epoch
+     * @return true if the id is successfully added to the blacklist
+     */
+    public boolean revoke(String tokenId, long expiresAtMillis) {
+        long now = clock.getAsLong();
+        purgeExpired(now);
+        if (expiresAtMillis <= now) {
+            return false;
+        }
+        filters.computeIfAbsent(expiresAtMillis / FILTER_WINDOW_MILLIS,
+                window -> new TokenBloomFilter(expectedRevocations, falsePositiveRate)).put(tokenId);
+        if (revoked.putIfAbsent(tokenId, expiresAtMillis) != null) {
+            return false;
+        }
+        buckets.computeIfAbsent(expiresAtMillis / BUCKET_MILLIS, bucket -> ConcurrentHashMap.newKeySet()).add(tokenId);
+        return true;
     }
 
     /**
@@ -34,6 +164,68 @@ public class TokenBlacklistService {
      * @return true if the token is blacklisted, false otherwise
      */
     public boolean isBlacklisted(String token) {
-        return blacklist.contains(token);
+        try {
+            return token != null && isRevoked(tokenId(JWT.decode(token)));
+        } catch (JWTDecodeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Checks if a token id is blacklisted.
+     *
+     * @param tokenId the id of the token
+     * @return true if the token is blacklisted and has not expired yet
+     */
+    public boolean isRevoked(String tokenId) {
+        if (!mightBeRevoked(tokenId)) {
+            filteredLookups.increment();
+            return false;
+        }
+        Long expiresAt = revoked.get(tokenId);
+        if (expiresAt == null) {
+            falsePositives.increment();
+            return false;
+        }
+        if (expiresAt <= clock.getAsLong()) {
+            revoked.remove(tokenId, expiresAt);
+            return false;
+        }
+        revokedLookups.increment();
+        return true;
+    }
+
+    private boolean mightBeRevoked(String tokenId) {
+        for (TokenBloomFilter filter : filters.values()) {
+            if (filter.mightContain(tokenId)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of blacklisted tokens that have not been purged yet
+     */
+    public int size() {
+        return revoked.size();
+    }
+
+    /**
+     * Drops every bucket whose minute has passed, and every filter whose hour has passed, at most once per minute.
+     */
+    private void purgeExpired(long now) {
+        long currentBucket = now / BUCKET_MILLIS;
+        long purged = purgedBucket.get();
+        if (currentBucket <= purged || !purgedBucket.compareAndSet(purged, currentBucket)) {
+            return;
+        }
+        Map.Entry<Long, Set<String>> oldest;
+        while ((oldest = buckets.firstEntry()) != null && oldest.getKey() < currentBucket) {
+            if (buckets.remove(oldest.getKey(), oldest.getValue())) {
+                oldest.getValue().forEach(revoked::remove);
+            }
+        }
+        filters.headMap(now / FILTER_WINDOW_MILLIS).clear();
     }
 }
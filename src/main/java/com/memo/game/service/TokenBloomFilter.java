@@ -0,0 +1,141 @@
+package com.memo.game.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size, thread-safe Bloom filter of token ids.
+ * <p>
+ * The filter is blocked: all bits of an id lie in one 512-bit block, so a lookup reads a single cache line.
+ * It never reports an added id as absent, and reports an id it has not seen as present with roughly the
+ * false-positive rate it was sized for, as long as no more than the expected number of ids are added.
+ */
+class TokenBloomFilter {
+    private static final int WORDS_PER_BLOCK = 8;
+    private static final int BITS_PER_BLOCK = WORDS_PER_BLOCK * Long.SIZE;
+    /** Bit positions taken from one 64-bit hash, 9 bits each. */
+    private static final int PROBES_PER_HASH = 7;
+    private static final long MAX_BLOCKS = Integer.MAX_VALUE / WORDS_PER_BLOCK;
+
+    private final AtomicLongArray words;
+    private final int blockCount;
+    private final int hashCount;
+
+    TokenBloomFilter(int expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            throw new IllegalArgumentException("Expected insertions must be positive.");
+        }
+        if (!(falsePositiveRate > 0 && falsePositiveRate < 1)) {
+            throw new IllegalArgumentException("False-positive rate must be between 0 and 1.");
+        }
+        double ln2 = Math.log(2);
+        long bits = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (ln2 * ln2));
+        long blocks = Math.max(1, (bits + BITS_PER_BLOCK - 1) / BITS_PER_BLOCK);
+        // Ids spread unevenly over the blocks, so a blocked filter needs somewhat more bits than a plain one.
+        while (blocks < MAX_BLOCKS
+                && blockedFalsePositiveRate(expectedInsertions, blocks, hashCount(expectedInsertions, blocks)) > falsePositiveRate) {
+            blocks += Math.max(1, blocks / 20);
+        }
+        blockCount = (int) Math.min(blocks, MAX_BLOCKS);
+        words = new AtomicLongArray(blockCount * WORDS_PER_BLOCK);
+        hashCount = hashCount(expectedInsertions, blockCount);
+    }
+
+    private static int hashCount(int expectedInsertions, long blocks) {
+        return (int) Math.max(1, Math.min(16, Math.round((double) blocks * BITS_PER_BLOCK / expectedInsertions * Math.log(2))));
+    }
+
+    /**
+     * The false-positive rate of a blocked filter, weighting the rate of a single block by the
+     * Poisson-distributed number of ids that land in it.
+     */
+    private static double blockedFalsePositiveRate(int expectedInsertions, long blocks, int hashCount) {
+        double load = (double) expectedInsertions / blocks;
+        double rate = 0;
+        double probability = Math.exp(-load);
+        int maxIds = (int) (load + 10 * Math.sqrt(load) + 20);
+        for (int ids = 0; ids <= maxIds; ids++) {
+            if (ids > 0) {
+                probability *= load / ids;
+            }
+            double bitSet = 1 - Math.pow(1 - 1.0 / BITS_PER_BLOCK, (double) hashCount * ids);
+            rate += probability * Math.pow(bitSet, hashCount);
+        }
+        return rate;
+    }
+
+    /**
+     * Adds an id to the filter.
+     *
+     * @param id the token id
+     */
+    void put(String id) {
+        long hash = hash(id);
+        int base = block(hash) * WORDS_PER_BLOCK;
+        long bits = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            if (i % PROBES_PER_HASH == 0 && i > 0) {
+                bits = mix(bits);
+            }
+            int bit = (int) (bits >>> (i % PROBES_PER_HASH) * 9) & (BITS_PER_BLOCK - 1);
+            long mask = 1L << bit;
+            int word = base + (bit >>> 6);
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, added) -> current | added);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an id may have been added to the filter.
+     *
+     * @param id the token id
+     * @return false if the id has certainly not been added, true if it probably has
+     */
+    boolean mightContain(String id) {
+        long hash = hash(id);
+        int base = block(hash) * WORDS_PER_BLOCK;
+        long bits = mix(hash);
+        for (int i = 0; i < hashCount; i++) {
+            if (i % PROBES_PER_HASH == 0 && i > 0) {
+                bits = mix(bits);
+            }
+            int bit = (int) (bits >>> (i % PROBES_PER_HASH) * 9) & (BITS_PER_BLOCK - 1);
+            if ((words.get(base + (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the size of the filter's bit array in bytes
+     */
+    long byteSize() {
+        return (long) words.length() * Long.BYTES;
+    }
+
+    private int block(long hash) {
+        return (int) (((hash >>> 32) * blockCount) >>> 32);
+    }
+
+    /**
+     * 64-bit FNV-1a over the id's characters, finished with the MurmurHash3 mixer.
+     */
+    private static long hash(String id) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < id.length(); i++) {
+            hash ^= id.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
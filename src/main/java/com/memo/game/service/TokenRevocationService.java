@@ -0,0 +1,226 @@
+package com.memo.game.service;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.memo.game.entity.RevokedToken;
+import com.memo.game.repo.RevokedTokenRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes token revocations durable and shares them between nodes.
+ * <p>
+ * A revoked token is blacklisted locally, stored in {@code memo_revoked_tokens} until it expires and announced
+ * to the other nodes with a Postgres {@code NOTIFY} on {@value #CHANNEL}. Every node {@code LISTEN}s on that channel
+ * on a connection of its own and blacklists what it receives, so lookups stay in memory everywhere. On startup,
+ * and whenever the listening connection had to be reopened, the unexpired revocations are replayed from the table.
+ * On databases other than Postgres revocations are still stored and replayed, but not pushed to other nodes.
+ */
+@Service
+public class TokenRevocationService {
+    static final String CHANNEL = "memo_token_revoked";
+    private static final Logger LOGGER = LoggerFactory.getLogger(TokenRevocationService.class);
+    private static final long CLEANUP_INTERVAL_MILLIS = 3600000;
+    private static final long RETRY_MILLIS = 5000;
+    private static final int POLL_MILLIS = 1000;
+
+    private final TokenBlacklistService tokenBlacklistService;
+    private final RevokedTokenRepository revokedTokenRepository;
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean listen;
+    private final String nodeId = UUID.randomUUID().toString();
+    private final AtomicLong lastCleanup = new AtomicLong();
+    private final Timer propagationDelay;
+    private final Counter propagationFailures;
+    private volatile boolean postgres;
+    private volatile boolean running;
+    private Thread listener;
+
+    public TokenRevocationService(TokenBlacklistService tokenBlacklistService,
+                                  RevokedTokenRepository revokedTokenRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  MeterRegistry registry,
+                                  @Value("${memo.auth.revocation.listen:true}") boolean listen) {
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.revokedTokenRepository = revokedTokenRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSource = jdbcTemplate.getDataSource();
+        this.listen = listen;
+        this.propagationDelay = Timer.builder("memo.auth.revocation.propagation")
+                .description("Time from a revocation on one node until another node has blacklisted the token")
+                .publishPercentileHistogram()
+                .register(registry);
+        this.propagationFailures = Counter.builder("memo.auth.revocation.failures")
+                .description("Revocations that could not be stored or announced to the other nodes")
+                .register(registry);
+    }
+
+    /**
+     * Revokes a token on this node, stores the revocation and announces it to the other nodes.
+     *
+     * The token is blacklisted on this node even if it cannot be stored or announced.
+     *
+     * @param token the token to revoke
+     * @return true if the token was revoked, false if it was already revoked, has expired or is not a token
+     */
+    public boolean revoke(String token) {
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = JWT.decode(token);
+        } catch (JWTDecodeException e) {
+            return false;
+        }
+        String tokenId = TokenBlacklistService.tokenId(decodedJWT);
+        long expiresAt = tokenBlacklistService.expiresAt(decodedJWT);
+        if (!tokenBlacklistService.revoke(tokenId, expiresAt)) {
+            return false;
+        }
+        long revokedAt = System.currentTimeMillis();
+        try {
+            revokedTokenRepository.save(new RevokedToken(tokenId, new Timestamp(expiresAt), new Timestamp(revokedAt)));
+            if (postgres) {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL,
+                        nodeId + "," + expiresAt + "," + revokedAt + "," + tokenId);
+            }
+        } catch (DataAccessException e) {
+            propagationFailures.increment();
+            LOGGER.warn("Token revocation could not be stored or announced", e);
+        }
+        cleanUpIfDue(revokedAt);
+        return true;
+    }
+
+    /**
+     * Replays the stored revocations and starts listening for the revocations of other nodes.
+     */
+    @EventListener(ApplicationStartedEvent.class)
+    public void start() {
+        replay();
+        postgres = isPostgres();
+        if (listen && postgres) {
+            running = true;
+            listener = new Thread(this::listen, "token-revocation-listener");
+            listener.setDaemon(true);
+            listener.start();
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    /**
+     * Blacklists every stored revocation that has not expired yet and deletes the expired ones.
+     */
+    void replay() {
+        long now = System.currentTimeMillis();
+        try {
+            revokedTokenRepository.deleteExpired(new Timestamp(now));
+            lastCleanup.set(now);
+            for (RevokedToken revokedToken : revokedTokenRepository.findByExpiresAtAfter(new Timestamp(now))) {
+                tokenBlacklistService.revoke(revokedToken.getTokenId(), revokedToken.getExpiresAt().getTime());
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Stored token revocations could not be replayed", e);
+        }
+    }
+
+    /**
+     * Blacklists a token revoked on another node.
+     *
+     * @param payload the notification payload: node id, expiry, time of revocation and token id
+     */
+    void received(String payload) {
+        String[] parts = payload.split(",", 4);
+        if (parts.length < 4 || parts[0].equals(nodeId)) {
+            return;
+        }
+        try {
+            long expiresAt = Long.parseLong(parts[1]);
+            long revokedAt = Long.parseLong(parts[2]);
+            tokenBlacklistService.revoke(parts[3], expiresAt);
+            propagationDelay.record(Math.max(0, System.currentTimeMillis() - revokedAt), TimeUnit.MILLISECONDS);
+        } catch (NumberFormatException e) {
+            LOGGER.warn("Ignoring malformed token revocation: {}", payload);
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                // Revocations made while this node was not listening are only in the table.
+                replay();
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            received(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                LOGGER.warn("Listening for token revocations failed, retrying in {}", Duration.ofMillis(RETRY_MILLIS), e);
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private boolean isPostgres() {
+        try (Connection connection = dataSource.getConnection()) {
+            return connection.isWrapperFor(PGConnection.class);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private void cleanUpIfDue(long now) {
+        long last = lastCleanup.get();
+        if (now - last < CLEANUP_INTERVAL_MILLIS || !lastCleanup.compareAndSet(last, now)) {
+            return;
+        }
+        try {
+            revokedTokenRepository.deleteExpired(new Timestamp(now));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Expired token revocations could not be deleted", e);
+        }
+    }
+}
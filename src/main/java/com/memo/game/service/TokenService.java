@@ -1,9 +1,12 @@
 package com.memo.game.service;
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTDecodeException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import com.auth0.jwt.interfaces.DecodedJWT;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.entity.MemoUser;
+import com.memo.game.service.VerifiedTokenCache.VerifiedToken;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -13,11 +16,23 @@ import java.util.UUID;
 
 /**
  * Service class for managing tokens.
+ * <p>
+ * Tokens are signed and verified with one shared {@link Algorithm} and {@link JWTVerifier}. Verified tokens
+ * are cached until they expire, so authenticating a request with a known token costs a hash lookup.
+ * Tokens carry the username and user version alongside the user ID, so the user's identity is known
+ * without reading the database.
  */
 @Service
 public class TokenService {
+    static final Algorithm ALGORITHM = Algorithm.HMAC256("ckml43wekmv44lINJXN66e54clk2N34KJLKMS");
+    private static final JWTVerifier VERIFIER = JWT.require(ALGORITHM).build();
+    private static final int TOKEN_CACHE_SIZE = 10000;
+    static final String USER_NAME_CLAIM = "name";
+    static final String USER_VERSION_CLAIM = "ver";
+
     @Autowired
     private TokenBlacklistService tokenBlacklistService;
+    private final VerifiedTokenCache verifiedTokens = new VerifiedTokenCache(TOKEN_CACHE_SIZE);
 
     public TokenService() {}
     public TokenService(TokenBlacklistService tokenBlacklistService) {this.tokenBlacklistService=tokenBlacklistService;}
@@ -47,21 +62,40 @@ public class TokenService {
     /**
      * Checks if a JWT token is valid and not blacklisted.
      *
-     * This method verifies if a JWT token is not null and not present in the token blacklist.
-     * If the token is null or blacklisted, it returns false; otherwise, it returns true.
+     * This method verifies if a JWT token is not null, not present in the token blacklist,
+     * carries a valid signature and has not expired.
      *
      * @param token the JWT token to be validated
      * @return true if the token is valid and not blacklisted, false otherwise
      */
     public boolean isTokenValid(String token) {
-        return token != null && !tokenBlacklistService.isBlacklisted(token);
+        return authenticate(token) != null;
+    }
+
+    /**
+     * Validates a token and extracts its user in one step.
+     *
+     * This method verifies the token's signature and expiry, checks it against the blacklist,
+     * and returns the user ID from its subject with the username and user version claims,
+     * so a request is authenticated with a single verification.
+     *
+     * @param token the JWT token
+     * @return the user of a valid, not blacklisted token, or null otherwise
+     */
+    public UserPrincipal authenticate(String token) {
+        VerifiedToken verified = token == null ? null : verify(token);
+        if (verified == null || tokenBlacklistService.isRevoked(verified.tokenId())) {
+            return null;
+        }
+        return verified.user();
     }
 
     /**
      * Generates a JWT token for a given user.
      *
      * This method generates a JWT token for a specified user with a predefined expiration time.
-     * It includes the user's ID as the token subject and signs the token with a secret key.
+     * It includes the user's ID as the token subject, the username and user version as claims,
+     * a random token ID to blacklist it by, and signs the token with a secret key.
      * The generated token is returned as a string.
      *
      * @param user the user for whom the token is generated
@@ -74,30 +108,54 @@ public class TokenService {
 
         return JWT.create()
                 .withSubject(user.getId().toString())
+                .withClaim(USER_NAME_CLAIM, user.getUserName())
+                .withClaim(USER_VERSION_CLAIM, user.getVersion())
+                .withJWTId(UUID.randomUUID().toString())
                 .withIssuedAt(issuedAt)
                 .withExpiresAt(expirationDate)
-                .sign(Algorithm.HMAC256("ckml43wekmv44lINJXN66e54clk2N34KJLKMS"));
+                .sign(ALGORITHM);
     }
 
     /**
      * Extracts the user ID from a JWT token.
      *
-     * This method parses a JWT token and extracts the user ID from its subject claim.
+     * This method verifies the signature and expiry of a JWT token and extracts the user ID from its subject claim.
      * If the token is valid and contains a subject claim, the method returns the extracted user ID as a UUID.
-     * If the token is invalid or does not contain a subject claim, it returns null.
+     * If the token is invalid, expired or does not contain a subject claim, it returns null.
      *
      * @param token the JWT token from which to extract the user ID
      * @return the user ID extracted from the token, or null if extraction fails or the token is invalid
      */
     public UUID extractUserIdFromToken(String token) {
+        VerifiedToken verified = token == null ? null : verify(token);
+        return verified == null ? null : verified.userId();
+    }
+
+    /**
+     * Verifies a token, or looks it up among the tokens verified before.
+     *
+     * @param token the JWT token
+     * @return the verified claims of the token, or null if the token is invalid, expired,
+     *         has no expiry or its subject is not a user ID
+     */
+    private VerifiedToken verify(String token) {
+        VerifiedToken verified = verifiedTokens.get(token);
+        if (verified != null) {
+            return verified;
+        }
         try {
-            if (token != null) {
-                DecodedJWT decodedJWT = JWT.decode(token);
-                return UUID.fromString(decodedJWT.getSubject());
+            DecodedJWT decodedJWT = VERIFIER.verify(token);
+            if (decodedJWT.getExpiresAt() == null || decodedJWT.getSubject() == null) {
+                return null;
             }
-        } catch (JWTDecodeException e) {
+            Long userVersion = decodedJWT.getClaim(USER_VERSION_CLAIM).asLong();
+            UserPrincipal user = new UserPrincipal(UUID.fromString(decodedJWT.getSubject()),
+                    decodedJWT.getClaim(USER_NAME_CLAIM).asString(), userVersion == null ? 0 : userVersion);
+            verified = new VerifiedToken(user, TokenBlacklistService.tokenId(decodedJWT), decodedJWT.getExpiresAt().getTime());
+            verifiedTokens.put(token, verified);
+            return verified;
+        } catch (JWTVerificationException | IllegalArgumentException e) {
             return null;
         }
-        return null;
     }
 }
\ No newline at end of file
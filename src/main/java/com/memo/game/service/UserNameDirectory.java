@@ -0,0 +1,92 @@
+package com.memo.game.service;
+
+import com.memo.game.dto.UserPrincipal;
+import com.memo.game.entity.MemoUser;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+/**
+ * Looks up usernames from the tokens users connected with, falling back to the database.
+ * <p>
+ * Every STOMP session that connects and every authenticated REST request leaves its user's name here, so the
+ * game messages sent to two players are usually built without reading {@code memo_users}. The directory is
+ * local to each node: the name of a player who has only used other nodes is read from the database once and
+ * then kept like the others. Each name is kept with the user version of the token it came from, and a name
+ * from an older version than the one already known is ignored, so a token issued before the user was renamed
+ * cannot bring the old name back. Names are kept for an hour after they were last seen; when the directory
+ * is full, the least recently used name is evicted.
+ */
+@Service
+@Primary
+public class UserNameDirectory implements UserNameSearcher {
+    static final long TIME_TO_LIVE_MILLIS = 3600000;
+    private static final int MAX_SIZE = 10000;
+
+    private record Entry(String userName, long userVersion, long seenAtMillis) {}
+
+    private final UserService userService;
+    private final LongSupplier clock;
+    private final BoundedCache<UUID, Entry> entries;
+
+    @Autowired
+    public UserNameDirectory(UserService userService) {
+        this(userService, MAX_SIZE, System::currentTimeMillis);
+    }
+
+    UserNameDirectory(UserService userService, int maxSize, LongSupplier clock) {
+        this.userService = userService;
+        this.clock = clock;
+        this.entries = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Keeps the username of an authenticated user, unless a newer version of it is already known.
+     *
+     * @param user the user from a verified token
+     */
+    public void remember(UserPrincipal user) {
+        if (user.getUserName() != null) {
+            remember(user.getUserId(), user.getUserName(), user.getUserVersion(), clock.getAsLong());
+        }
+    }
+
+    /**
+     * Retrieves the username for a given user ID, from the directory or else from the database.
+     *
+     * @param id the unique identifier (UUID) of the user
+     * @return the username associated with the given ID, or null if no user found
+     */
+    @Override
+    public String getUserNameById(UUID id) {
+        if (id == null) {
+            return null;
+        }
+        long now = clock.getAsLong();
+        Entry entry = entries.get(id);
+        if (entry != null && now - entry.seenAtMillis() < TIME_TO_LIVE_MILLIS) {
+            return entry.userName();
+        }
+        MemoUser user = userService.getById(id);
+        if (user == null) {
+            if (entry != null) {
+                entries.remove(id, entry);
+            }
+            return null;
+        }
+        remember(id, user.getUserName(), user.getVersion(), now);
+        return user.getUserName();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private void remember(UUID userId, String userName, long userVersion, long now) {
+        entries.merge(userId, new Entry(userName, userVersion, now), (known, seen) ->
+                known.userVersion() > seen.userVersion() ? new Entry(known.userName(), known.userVersion(), now) : seen);
+    }
+}
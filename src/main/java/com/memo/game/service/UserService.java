@@ -2,9 +2,12 @@ package com.memo.game.service;
 
 import com.memo.game.entity.MemoUser;
 import com.memo.game.repo.MemoUserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
 
+import java.util.Locale;
 import java.util.UUID;
 
 /**
@@ -13,6 +16,11 @@ import java.util.UUID;
  */
 @Service
 public class UserService implements UserNameSearcher {
+    /**
+     * The outcome of registering a new user.
+     */
+    public enum Registration { CREATED, EXISTING_EMAIL, EXISTING_USERNAME }
+
     private final MemoUserRepository gameRepository;
 
     @Autowired
@@ -33,6 +41,44 @@ public class UserService implements UserNameSearcher {
         return  gameRepository.save(user);
     }
 
+    /**
+     * Inserts a new user in a single round trip.
+     *
+     * The email and username are not looked up here; the unique constraints of memo_users decide,
+     * which also holds when two sign-ups for the same email or username race each other.
+     *
+     * @param user the user to insert
+     * @return CREATED if the user was inserted, or which of the email and username is taken
+     * @throws DataIntegrityViolationException if the insert violates any other constraint
+     */
+    public Registration register(MemoUser user) {
+        try {
+            gameRepository.saveAndFlush(user);
+            return Registration.CREATED;
+        } catch (DataIntegrityViolationException e) {
+            String constraint = violatedConstraint(e);
+            if (constraint.contains(MemoUser.EMAIL_CONSTRAINT)) {
+                return Registration.EXISTING_EMAIL;
+            }
+            if (constraint.contains(MemoUser.USER_NAME_CONSTRAINT)) {
+                return Registration.EXISTING_USERNAME;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Names the constraint behind a violation as reported by Hibernate, or falls back to the driver's message.
+     */
+    private static String violatedConstraint(DataIntegrityViolationException e) {
+        String constraint = e.getCause() instanceof ConstraintViolationException violation
+                ? violation.getConstraintName() : null;
+        if (constraint == null) {
+            constraint = e.getMostSpecificCause().getMessage();
+        }
+        return constraint == null ? "" : constraint.toLowerCase(Locale.ROOT);
+    }
+
     /**
      * Retrieves a user by email from the database.
      *
@@ -59,6 +105,16 @@ public class UserService implements UserNameSearcher {
         return gameRepository.findByUserName(username);
     }
 
+    /**
+     * Retrieves a user by ID from the database.
+     *
+     * @param id the ID of the user to retrieve
+     * @return the user object with the specified ID, or null if not found
+     */
+    public MemoUser getById(UUID id) {
+        return id == null ? null : gameRepository.findById(id).orElse(null);
+    }
+
     /**
      * Retrieves the username of a user by their ID from the database.
      *
@@ -70,10 +126,7 @@ public class UserService implements UserNameSearcher {
      */
     @Override
     public String getUserNameById(UUID id) {
-        if(id!=null && gameRepository.findById(id).isPresent()) {
-            MemoUser user = gameRepository.findById(id).get();
-            return user.getUserName();
-        }
-        return null;
+        MemoUser user = getById(id);
+        return user == null ? null : user.getUserName();
     }
 }
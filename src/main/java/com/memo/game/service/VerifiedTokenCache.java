@@ -0,0 +1,89 @@
+package com.memo.game.service;
+
+import com.memo.game.dto.UserPrincipal;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Bounded cache of tokens whose signature and expiry have been verified, mapping them to their user and token id.
+ * <p>
+ * Tokens are keyed by their SHA-256 hash, so the cache does not hold the tokens themselves, and each entry
+ * expires together with its token. New tokens are always cached; when the cache is full, the least recently
+ * used token is evicted.
+ */
+public class VerifiedTokenCache {
+
+    /**
+     * The claims of a verified token that are needed to authenticate a request.
+     *
+     * @param user the user from the token's subject, name and version claims
+     * @param tokenId the id the token is blacklisted by
+     * @param expiresAtMillis the token's expiry, in milliseconds since the epoch
+     */
+    public record VerifiedToken(UserPrincipal user, String tokenId, long expiresAtMillis) {
+        public UUID userId() {
+            return user.getUserId();
+        }
+    }
+
+    private final BoundedCache<String, VerifiedToken> entries;
+
+    public VerifiedTokenCache(int maxSize) {
+        this.entries = new BoundedCache<>(maxSize);
+    }
+
+    /**
+     * Returns a token verified earlier, if it has not expired since.
+     *
+     * @param token the token
+     * @return the verified claims, or null if the token is not cached
+     */
+    public VerifiedToken get(String token) {
+        String key = hash(token);
+        VerifiedToken entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAtMillis() <= System.currentTimeMillis()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /**
+     * Caches a verified token until it expires or is evicted.
+     *
+     * @param token the token
+     * @param verified the verified claims of the token
+     */
+    public void put(String token, VerifiedToken verified) {
+        entries.put(hash(token), verified);
+    }
+
+    /**
+     * Removes a token, e.g. when it is revoked.
+     *
+     * @param token the token
+     */
+    public void remove(String token) {
+        entries.remove(hash(token));
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    private static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getEncoder().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,14 +1,18 @@
+DROP TABLE IF EXISTS memo_refresh_tokens;
 DROP TABLE IF EXISTS memo_single_games;
 DROP TABLE IF EXISTS memo_users;
 DROP TABLE IF EXISTS memo_multi_games;
+DROP TABLE IF EXISTS memo_revoked_tokens;
 
 create table memo_users (
 	id UUID primary key,
-	user_name VARCHAR(100) not null unique,
-	email VARCHAR(100) not null unique,
+	user_name VARCHAR(100) not null,
+	email VARCHAR(100) not null,
 	password VARCHAR(100) not NULL,
 	created_at TIMESTAMP,
-    updated_at TIMESTAMP
+    updated_at TIMESTAMP,
+	constraint memo_users_user_name_key unique (user_name),
+	constraint memo_users_email_key unique (email)
 );
 
 create table memo_single_games (
@@ -32,4 +36,25 @@ create table memo_multi_games (
 	player2_guessed_cards integer,
 	created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
-);
\ No newline at end of file
+);
+
+create table memo_revoked_tokens (
+	token_id VARCHAR(100) primary key,
+	expires_at TIMESTAMP not null,
+	revoked_at TIMESTAMP not null
+);
+
+create index memo_revoked_tokens_expires_at on memo_revoked_tokens (expires_at);
+
+create table memo_refresh_tokens (
+	id UUID primary key,
+	token_hash VARCHAR(64) not null unique,
+	user_id UUID not null REFERENCES memo_users(id) ON DELETE CASCADE,
+	family_id UUID not null,
+	expires_at TIMESTAMP not null,
+	used_at TIMESTAMP,
+	revoked boolean not null default false,
+	created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+);
+
+create index memo_refresh_tokens_family_id on memo_refresh_tokens (family_id);
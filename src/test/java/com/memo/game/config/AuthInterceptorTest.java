@@ -0,0 +1,99 @@
+package com.memo.game.config;
+
+import com.memo.game.dto.UserPrincipal;
+import com.memo.game.service.TokenService;
+import com.memo.game.service.UserNameDirectory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class AuthInterceptorTest {
+    private static final String token = "token123";
+    private static final String invalidToken = "invalid_token";
+    private final UUID userId = UUID.randomUUID();
+    private TokenService tokenService;
+    private UserNameDirectory userNameDirectory;
+    private SimpleMeterRegistry registry;
+    private AuthInterceptor interceptor;
+
+    @BeforeEach
+    public void setUp() {
+        tokenService = mock(TokenService.class);
+        registry = new SimpleMeterRegistry();
+        userNameDirectory = mock(UserNameDirectory.class);
+        interceptor = new AuthInterceptor(tokenService, userNameDirectory, registry);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(userId, "alma", 1));
+        when(tokenService.authenticate(invalidToken)).thenReturn(null);
+    }
+
+    private MockHttpServletRequest request(String bearer) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/getUserInfo");
+        when(tokenService.extractTokenFromRequest(request)).thenReturn(bearer);
+        return request;
+    }
+
+    private long count(String result) {
+        return registry.get("memo.auth.request.duration").tag("result", result).timer().count();
+    }
+
+    @Test
+    public void validTokenBindsUserAndToken() {
+        MockHttpServletRequest request = request(token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isTrue();
+
+        assertThat(request.getAttribute(AuthInterceptor.USER_ID_ATTRIBUTE)).isEqualTo(userId);
+        assertThat(request.getAttribute(AuthInterceptor.USER_NAME_ATTRIBUTE)).isEqualTo("alma");
+        verify(userNameDirectory).remember(new UserPrincipal(userId, "alma", 1));
+        assertThat(request.getAttribute(AuthInterceptor.TOKEN_ATTRIBUTE)).isEqualTo(token);
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(count("authenticated")).isEqualTo(1);
+        verify(tokenService).authenticate(token);
+    }
+
+    @Test
+    public void invalidTokenIsRejected() {
+        MockHttpServletRequest request = request(invalidToken);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isFalse();
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(request.getAttribute(AuthInterceptor.USER_ID_ATTRIBUTE)).isNull();
+        assertThat(count("rejected")).isEqualTo(1);
+    }
+
+    @Test
+    public void missingTokenIsRejected() {
+        MockHttpServletRequest request = request(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertThat(interceptor.preHandle(request, response, new Object())).isFalse();
+
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    public void corsPreflightIsNotAuthenticated() {
+        MockHttpServletRequest request = new MockHttpServletRequest("OPTIONS", "/api/getUserInfo");
+        request.addHeader(HttpHeaders.ORIGIN, "http://localhost:3000");
+        request.addHeader(HttpHeaders.ACCESS_CONTROL_REQUEST_METHOD, "POST");
+
+        assertThat(interceptor.preHandle(request, new MockHttpServletResponse(), new Object())).isTrue();
+
+        verify(tokenService, never()).extractTokenFromRequest(any());
+    }
+}
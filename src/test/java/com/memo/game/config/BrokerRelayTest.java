@@ -0,0 +1,158 @@
+package com.memo.game.config;
+
+import com.memo.game.entity.MemoUser;
+import com.memo.game.service.TokenService;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.simp.stomp.StompFrameHandler;
+import org.springframework.messaging.simp.stomp.StompHeaders;
+import org.springframework.messaging.simp.stomp.StompSession;
+import org.springframework.messaging.simp.stomp.StompSessionHandlerAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.web.socket.WebSocketHttpHeaders;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.messaging.WebSocketStompClient;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.net.ServerSocket;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the application in broker relay mode against an ActiveMQ Artemis broker started in-process,
+ * and checks that topic and user destination messages make the round trip through the broker.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = "memo.websocket.broker=relay")
+@ActiveProfiles("inmemory")
+@DirtiesContext
+public class BrokerRelayTest {
+    private static final int relayPort = freePort();
+    private static EmbeddedActiveMQ broker;
+    private static ThreadPoolTaskScheduler receiptScheduler;
+    private final UUID playerId = UUID.randomUUID();
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+    @Autowired
+    private TokenService tokenService;
+
+    private static int freePort() {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void relayProperties(DynamicPropertyRegistry registry) {
+        registry.add("memo.websocket.relay.port", () -> relayPort);
+    }
+
+    @BeforeAll
+    public static void startBroker() throws Exception {
+        broker = new EmbeddedActiveMQ();
+        broker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration("stomp", "tcp://localhost:" + relayPort
+                        + "?protocols=STOMP;anycastPrefix=/queue/;multicastPrefix=/topic/"));
+        broker.start();
+        receiptScheduler = new ThreadPoolTaskScheduler();
+        receiptScheduler.setThreadNamePrefix("stomp-receipt-");
+        receiptScheduler.initialize();
+    }
+
+    @AfterAll
+    public static void stopBroker() throws Exception {
+        receiptScheduler.shutdown();
+        broker.stop();
+    }
+
+    private StompSession connect() throws Exception {
+        MemoUser user = new MemoUser();
+        user.setId(playerId);
+        StompHeaders connectHeaders = new StompHeaders();
+        connectHeaders.add("Authorization", "Bearer " + tokenService.generateJwtToken(user));
+        WebSocketStompClient client = new WebSocketStompClient(new StandardWebSocketClient());
+        client.setMessageConverter(new MappingJackson2MessageConverter());
+        // Receipts are only tracked when the client has a scheduler for their timeouts.
+        client.setTaskScheduler(receiptScheduler);
+        StompSession session = client.connectAsync("ws://localhost:" + port + "/ws-native",
+                new WebSocketHttpHeaders(), connectHeaders, new StompSessionHandlerAdapter() {})
+                .get(10, TimeUnit.SECONDS);
+        session.setAutoReceipt(true);
+        return session;
+    }
+
+    /**
+     * Subscribes and waits until the broker has confirmed the subscription.
+     */
+    private BlockingQueue<Map<?, ?>> subscribe(StompSession session, String destination) throws InterruptedException {
+        BlockingQueue<Map<?, ?>> received = new LinkedBlockingQueue<>();
+        CountDownLatch subscribed = new CountDownLatch(1);
+        session.subscribe(destination, new StompFrameHandler() {
+            @Override
+            public Type getPayloadType(StompHeaders headers) {
+                return Map.class;
+            }
+
+            @Override
+            public void handleFrame(StompHeaders headers, Object payload) {
+                received.add((Map<?, ?>) payload);
+            }
+        }).addReceiptTask(subscribed::countDown);
+        assertThat(subscribed.await(10, TimeUnit.SECONDS)).isTrue();
+        return received;
+    }
+
+    @Test
+    void topicMessagesAreRelayedThroughTheBroker() throws Exception {
+        StompSession session = connect();
+        UUID gameId = UUID.randomUUID();
+        BlockingQueue<Map<?, ?>> received = subscribe(session, "/topic/game." + gameId);
+
+        messagingTemplate.convertAndSend("/topic/game." + gameId, Map.of("type", "game.move", "seq", 1));
+
+        Map<?, ?> message = received.poll(10, TimeUnit.SECONDS);
+        assertThat(message).isNotNull();
+        assertThat(message.get("type")).isEqualTo("game.move");
+        session.disconnect();
+    }
+
+    @Test
+    void userDestinationMessagesAreRelayedThroughTheBroker() throws Exception {
+        StompSession session = connect();
+        BlockingQueue<Map<?, ?>> received = subscribe(session, "/user/queue/errors");
+
+        messagingTemplate.convertAndSendToUser(playerId.toString(), "/queue/errors",
+                Map.of("type", "error", "content", "Not your turn"));
+
+        Map<?, ?> message = received.poll(10, TimeUnit.SECONDS);
+        assertThat(message).isNotNull();
+        assertThat(message.get("content")).isEqualTo("Not your turn");
+        session.disconnect();
+    }
+}
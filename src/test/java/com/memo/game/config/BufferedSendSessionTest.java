@@ -0,0 +1,137 @@
+package com.memo.game.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class BufferedSendSessionTest {
+    private static final String STATE = "/user/queue/game.state";
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final BufferedSendSession.Meters meters = new BufferedSendSession.Meters(
+            Counter.builder("coalesced").register(registry),
+            Counter.builder("dropped").register(registry),
+            Counter.builder("disconnected").register(registry));
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstSend = new CountDownLatch(1);
+    private WebSocketSession delegate;
+
+    private static TextMessage frame(String destination, String body) {
+        return new TextMessage("MESSAGE\ndestination:" + destination + "\ncontent-type:application/json\n\n"
+                + body + "\u0000");
+    }
+
+    private static String body(WebSocketMessage<?> message) {
+        String payload = ((TextMessage) message).getPayload();
+        return payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1);
+    }
+
+    /**
+     * The first frame blocks in the socket until released, like a client that stopped reading.
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        delegate = mock(WebSocketSession.class);
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            if (sent.isEmpty()) {
+                firstSendStarted.countDown();
+                releaseFirstSend.await(5, TimeUnit.SECONDS);
+            }
+            sent.add(body(message));
+            return null;
+        }).when(delegate).sendMessage(any());
+    }
+
+    private BufferedSendSession session(int frameLimit) {
+        return new BufferedSendSession(delegate, frameLimit, 1024 * 1024, 10000, Set.of(STATE), meters);
+    }
+
+    private Thread sendInBackground(BufferedSendSession session, WebSocketMessage<?> message) throws Exception {
+        Thread thread = new Thread(() -> {
+            try {
+                session.sendMessage(message);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        assertThat(firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return thread;
+    }
+
+    @Test
+    void sendMessageWritesImmediatelyWhenIdle() throws Exception {
+        releaseFirstSend.countDown();
+        BufferedSendSession session = session(10);
+
+        session.sendMessage(frame("/topic/game.1", "move1"));
+
+        assertThat(sent).containsExactly("move1");
+        assertThat(session.getQueuedFrames()).isZero();
+    }
+
+    @Test
+    void sendMessageCoalescesQueuedGameStates() throws Exception {
+        BufferedSendSession session = session(10);
+        Thread writer = sendInBackground(session, frame("/topic/game.1", "move1"));
+
+        session.sendMessage(frame(STATE, "state1"));
+        session.sendMessage(frame("/topic/game.1", "move2"));
+        session.sendMessage(frame(STATE, "state2"));
+        assertThat(session.getQueuedFrames()).isEqualTo(2);
+
+        releaseFirstSend.countDown();
+        writer.join(5000);
+
+        assertThat(sent).containsExactly("move1", "move2", "state2");
+        assertThat(meters.coalesced().count()).isEqualTo(1);
+        verify(delegate, never()).close(any());
+    }
+
+    @Test
+    void sendMessageClosesSlowConsumer() throws Exception {
+        BufferedSendSession session = session(2);
+        Thread writer = sendInBackground(session, frame("/topic/game.1", "move1"));
+
+        session.sendMessage(frame("/topic/game.1", "move2"));
+        session.sendMessage(frame("/topic/game.1", "move3"));
+        session.sendMessage(frame("/topic/game.1", "move4"));
+
+        verify(delegate).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(meters.dropped().count()).isEqualTo(3);
+        assertThat(meters.disconnected().count()).isEqualTo(1);
+
+        session.sendMessage(frame("/topic/game.1", "move5"));
+        releaseFirstSend.countDown();
+        writer.join(5000);
+        assertThat(sent).containsExactly("move1");
+    }
+
+    @Test
+    void destinationOf() {
+        assertThat(BufferedSendSession.destinationOf(frame(STATE, "{}"))).isEqualTo(STATE);
+        assertThat(BufferedSendSession.destinationOf(new BinaryMessage(
+                ("MESSAGE\ndestination:/topic/game.1.cbor\n\nbody").getBytes(StandardCharsets.UTF_8))))
+                .isEqualTo("/topic/game.1.cbor");
+        assertThat(BufferedSendSession.destinationOf(new TextMessage("CONNECTED\nversion:1.2\n\n\u0000"))).isNull();
+    }
+}
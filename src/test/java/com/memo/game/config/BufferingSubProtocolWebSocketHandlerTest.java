@@ -0,0 +1,132 @@
+package com.memo.game.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.messaging.StompSubProtocolHandler;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Sends STOMP messages through the sub-protocol handler the way the outbound channel does, to check that
+ * the frames reach the {@link BufferedSendSession} while the client is still busy with an earlier one.
+ */
+public class BufferingSubProtocolWebSocketHandlerTest {
+    private static final String SESSION_ID = "session1";
+    private static final String STATE = "/user/queue/game.state";
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+    private final CountDownLatch firstSendStarted = new CountDownLatch(1);
+    private final CountDownLatch releaseFirstSend = new CountDownLatch(1);
+    private WebSocketSession session;
+
+    private static Message<byte[]> message(String destination, String body) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setSubscriptionId("sub-0");
+        accessor.setDestination(destination);
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(body.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders());
+    }
+
+    private static String body(WebSocketMessage<?> message) {
+        String payload = ((TextMessage) message).getPayload();
+        return payload.substring(payload.indexOf("\n\n") + 2, payload.length() - 1);
+    }
+
+    /**
+     * The first frame blocks in the socket until released, like a client that stopped reading.
+     */
+    @BeforeEach
+    public void setUp() throws Exception {
+        session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(SESSION_ID);
+        when(session.isOpen()).thenReturn(true);
+        doAnswer(invocation -> {
+            WebSocketMessage<?> message = invocation.getArgument(0);
+            if (sent.isEmpty()) {
+                firstSendStarted.countDown();
+                releaseFirstSend.await(5, TimeUnit.SECONDS);
+            }
+            sent.add(body(message));
+            return null;
+        }).when(session).sendMessage(any());
+    }
+
+    private BufferingSubProtocolWebSocketHandler connect(int frameLimit) throws Exception {
+        BufferingSubProtocolWebSocketHandler handler = new BufferingSubProtocolWebSocketHandler(
+                new ExecutorSubscribableChannel(), new ExecutorSubscribableChannel(),
+                new OutboundBufferDecoratorFactory(registry, frameLimit, Set.of(STATE)));
+        handler.setProtocolHandlers(List.of(new StompSubProtocolHandler()));
+        handler.afterConnectionEstablished(session);
+        return handler;
+    }
+
+    private Thread sendInBackground(BufferingSubProtocolWebSocketHandler handler, Message<byte[]> message)
+            throws InterruptedException {
+        Thread thread = new Thread(() -> handler.handleMessage(message));
+        thread.start();
+        assertThat(firstSendStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return thread;
+    }
+
+    private double frames(String result) {
+        return registry.get("memo.websocket.outbound.frames").tag("result", result).counter().count();
+    }
+
+    @Test
+    void handleMessageCoalescesGameStatesWhileClientIsBusy() throws Exception {
+        BufferingSubProtocolWebSocketHandler handler = connect(10);
+        Thread writer = sendInBackground(handler, message("/topic/game.1", "move1"));
+
+        handler.handleMessage(message(STATE, "state1"));
+        handler.handleMessage(message("/topic/game.1", "move2"));
+        handler.handleMessage(message(STATE, "state2"));
+        assertThat(registry.get("memo.websocket.outbound.queued").gauge().value()).isEqualTo(2);
+
+        releaseFirstSend.countDown();
+        writer.join(5000);
+
+        assertThat(sent).containsExactly("move1", "move2", "state2");
+        assertThat(frames("coalesced")).isEqualTo(1);
+        verify(session, never()).close(any());
+    }
+
+    @Test
+    void handleMessageClosesSlowConsumer() throws Exception {
+        BufferingSubProtocolWebSocketHandler handler = connect(1);
+        Thread writer = sendInBackground(handler, message("/topic/game.1", "move1"));
+
+        handler.handleMessage(message("/topic/game.1", "move2"));
+        handler.handleMessage(message("/topic/game.1", "move3"));
+
+        verify(session).close(CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(frames("dropped")).isEqualTo(2);
+        assertThat(registry.get("memo.websocket.slow.consumers").counter().count()).isEqualTo(1);
+
+        releaseFirstSend.countDown();
+        writer.join(5000);
+        handler.afterConnectionClosed(session, CloseStatus.SESSION_NOT_RELIABLE);
+        assertThat(sent).containsExactly("move1");
+        assertThat(registry.get("memo.websocket.outbound.queued").gauge().value()).isZero();
+    }
+}
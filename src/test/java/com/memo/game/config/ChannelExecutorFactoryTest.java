@@ -0,0 +1,101 @@
+package com.memo.game.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ChannelExecutorFactoryTest {
+    private final MeterRegistry registry = new SimpleMeterRegistry();
+
+    private ThreadPoolTaskExecutor singleThreadExecutor(String policy) {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("memo.websocket.inbound.core-pool-size", "1")
+                .withProperty("memo.websocket.inbound.max-pool-size", "1")
+                .withProperty("memo.websocket.inbound.queue-capacity", "1")
+                .withProperty("memo.websocket.inbound.rejection-policy", policy);
+        ThreadPoolTaskExecutor executor = new ChannelExecutorFactory(environment, registry)
+                .create("inbound", "test-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Occupies the only thread and fills the queue, so that the next task is rejected.
+     */
+    private CountDownLatch fill(ThreadPoolTaskExecutor executor) {
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        executor.execute(blocked);
+        executor.execute(blocked);
+        return release;
+    }
+
+    private double rejected(String policy) {
+        return registry.get("memo.websocket.executor.rejected")
+                .tag("channel", "inbound").tag("policy", policy).counter().count();
+    }
+
+    @Test
+    void createAppliesProperties() {
+        ThreadPoolTaskExecutor executor = singleThreadExecutor("abort");
+        assertThat(executor.getCorePoolSize()).isEqualTo(1);
+        assertThat(executor.getMaxPoolSize()).isEqualTo(1);
+        assertThat(executor.getQueueCapacity()).isEqualTo(1);
+        assertThat(executor.getThreadNamePrefix()).isEqualTo("test-");
+        executor.shutdown();
+    }
+
+    @Test
+    void createWithDefaults() {
+        ThreadPoolTaskExecutor executor = new ChannelExecutorFactory(new MockEnvironment(), registry)
+                .create("outbound", "test-");
+        assertThat(executor.getCorePoolSize()).isEqualTo(Runtime.getRuntime().availableProcessors() * 2);
+        assertThat(executor.getQueueCapacity()).isEqualTo(Integer.MAX_VALUE);
+    }
+
+    @Test
+    void callerRunsRejectedTask() {
+        ThreadPoolTaskExecutor executor = singleThreadExecutor("caller-runs");
+        CountDownLatch release = fill(executor);
+
+        AtomicReference<Thread> ranOn = new AtomicReference<>();
+        executor.execute(() -> ranOn.set(Thread.currentThread()));
+
+        assertThat(ranOn.get()).isEqualTo(Thread.currentThread());
+        assertThat(rejected("caller_runs")).isEqualTo(1);
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void abortRejectedTask() {
+        ThreadPoolTaskExecutor executor = singleThreadExecutor("abort");
+        CountDownLatch release = fill(executor);
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute(() -> {}));
+        assertThat(rejected("abort")).isEqualTo(1);
+        release.countDown();
+        executor.shutdown();
+    }
+
+    @Test
+    void parsePolicyThrowsForUnknownPolicy() {
+        assertThrows(IllegalArgumentException.class, () -> ChannelExecutorFactory.parsePolicy("drop-everything"));
+    }
+}
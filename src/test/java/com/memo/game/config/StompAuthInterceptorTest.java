@@ -0,0 +1,97 @@
+package com.memo.game.config;
+
+import com.memo.game.dto.UserPrincipal;
+import com.memo.game.service.TokenService;
+import com.memo.game.service.UserNameDirectory;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+public class StompAuthInterceptorTest {
+    private static final String token = "token123";
+    private static final String invalidToken = "invalid_token";
+    private static final UUID playerId = UUID.randomUUID();
+    private static TokenService tokenService;
+    private static UserNameDirectory userNameDirectory;
+    private static StompAuthInterceptor interceptor;
+    private final MessageChannel channel = mock(MessageChannel.class);
+
+    @BeforeAll
+    public static void setUp() {
+        tokenService = mock(TokenService.class);
+        userNameDirectory = mock(UserNameDirectory.class);
+        interceptor = new StompAuthInterceptor(tokenService, userNameDirectory);
+
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(playerId, "player", 1));
+        when(tokenService.authenticate(invalidToken)).thenReturn(null);
+    }
+
+    private Message<byte[]> frame(StompCommand command, String authorization) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        if (authorization != null) {
+            accessor.setNativeHeader(StompAuthInterceptor.AUTHORIZATION_HEADER, authorization);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    @Test
+    public void connectWithBearerTokenSetsPrincipal() {
+        Message<?> result = interceptor.preSend(frame(StompCommand.CONNECT, "Bearer " + token), channel);
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(result);
+        assertThat(accessor.getUser()).isEqualTo(new UserPrincipal(playerId));
+        assertThat(accessor.getUser().getName()).isEqualTo(playerId.toString());
+    }
+
+    @Test
+    public void connectWithBareTokenSetsPrincipal() {
+        Message<?> result = interceptor.preSend(frame(StompCommand.CONNECT, token), channel);
+
+        assertThat(StompHeaderAccessor.wrap(result).getUser()).isEqualTo(new UserPrincipal(playerId));
+    }
+
+    @Test
+    public void connectWithoutTokenIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, null), channel))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("Unauthorized");
+    }
+
+    @Test
+    public void connectWithInvalidTokenIsRejected() {
+        assertThatThrownBy(() -> interceptor.preSend(frame(StompCommand.CONNECT, "Bearer " + invalidToken), channel))
+                .isInstanceOf(MessageDeliveryException.class)
+                .hasMessageContaining("Unauthorized");
+    }
+
+    @Test
+    public void connectRemembersUserName() {
+        clearInvocations(userNameDirectory);
+        Message<?> result = interceptor.preSend(frame(StompCommand.CONNECT, token), channel);
+
+        UserPrincipal user = (UserPrincipal) StompHeaderAccessor.wrap(result).getUser();
+        assertThat(user.getUserName()).isEqualTo("player");
+        verify(userNameDirectory).remember(user);
+    }
+
+    @Test
+    public void otherFramesAreNotChecked() {
+        clearInvocations(tokenService);
+        Message<byte[]> message = frame(StompCommand.SEND, null);
+
+        assertThat(interceptor.preSend(message, channel)).isSameAs(message);
+        verifyNoInteractions(tokenService);
+    }
+}
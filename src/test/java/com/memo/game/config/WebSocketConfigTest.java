@@ -0,0 +1,95 @@
+package com.memo.game.config;
+
+import com.memo.game.dto.MoveEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.MappingJackson2MessageConverter;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
+
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+public class WebSocketConfigTest {
+    private final MappingJackson2MessageConverter converter = WebSocketConfig.cborMessageConverter();
+
+    /**
+     * Exposes the limits a configurer set, which {@link WebSocketTransportRegistration} keeps protected.
+     */
+    private static class ExposedTransportRegistration extends WebSocketTransportRegistration {
+        Integer messageSizeLimit() {
+            return getMessageSizeLimit();
+        }
+
+        Integer sendBufferSizeLimit() {
+            return getSendBufferSizeLimit();
+        }
+
+        Integer sendTimeLimit() {
+            return getSendTimeLimit();
+        }
+    }
+
+    private MoveEvent moveEvent() {
+        MoveEvent event = new MoveEvent();
+        event.setType("game.move");
+        event.setGameId(UUID.randomUUID());
+        event.setSeq(2);
+        event.setLastMove(Map.of(0, 1, 1, 1));
+        event.setMatched(true);
+        event.setPlayer1GuessedCards(1);
+        return event;
+    }
+
+    @Test
+    void cborRoundTrip() {
+        MoveEvent event = moveEvent();
+        MessageHeaders headers = new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, WebSocketConfig.CBOR));
+
+        Message<?> message = converter.toMessage(event, headers);
+        assertThat(message).isNotNull();
+        assertThat(message.getPayload()).isInstanceOf(byte[].class);
+
+        MoveEvent decoded = (MoveEvent) converter.fromMessage(message, MoveEvent.class);
+        assertThat(decoded.getGameId()).isEqualTo(event.getGameId());
+        assertThat(decoded.getSeq()).isEqualTo(2);
+        assertThat(decoded.getLastMove()).isEqualTo(event.getLastMove());
+        assertThat(decoded.isMatched()).isTrue();
+        assertThat(decoded.getPlayer1GuessedCards()).isEqualTo(1);
+    }
+
+    @Test
+    void cborIsSmallerThanJson() {
+        MoveEvent event = moveEvent();
+        byte[] cbor = (byte[]) converter.toMessage(event,
+                new MessageHeaders(Map.of(MessageHeaders.CONTENT_TYPE, WebSocketConfig.CBOR))).getPayload();
+        byte[] json = (byte[]) new MappingJackson2MessageConverter().toMessage(event, null).getPayload();
+
+        assertThat(cbor.length).isLessThan(json.length);
+    }
+
+    @Test
+    void cborConverterIgnoresMessagesWithoutContentType() {
+        assertThat(converter.toMessage(moveEvent(), null)).isNull();
+        Message<byte[]> json = MessageBuilder.withPayload("{\"seq\":1}".getBytes()).build();
+        assertThat(converter.fromMessage(json, MoveEvent.class)).isNull();
+    }
+
+    @Test
+    void configureWebSocketTransportAppliesLimits() {
+        WebSocketConfig config = new WebSocketConfig(mock(StompAuthInterceptor.class),
+                mock(ChannelExecutorFactory.class), mock(BrokerRelaySettings.class), "simple",
+                1024, 2048, 3000, 10000);
+        ExposedTransportRegistration registration = new ExposedTransportRegistration();
+
+        config.configureWebSocketTransport(registration);
+
+        assertThat(registration.messageSizeLimit()).isEqualTo(1024);
+        assertThat(registration.sendBufferSizeLimit()).isEqualTo(2048);
+        assertThat(registration.sendTimeLimit()).isEqualTo(3000);
+    }
+}
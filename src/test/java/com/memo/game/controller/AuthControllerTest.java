@@ -2,10 +2,16 @@ package com.memo.game.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.memo.game.dto.AuthRequest;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.entity.MemoUser;
+import com.memo.game.service.LoginRateLimiter;
+import com.memo.game.service.PasswordHasher;
+import com.memo.game.service.RefreshTokenService;
 import com.memo.game.service.UserService;
 import com.memo.game.service.TokenBlacklistService;
+import com.memo.game.service.TokenRevocationService;
 import com.memo.game.service.TokenService;
+import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletRequest;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,11 +20,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 
+import java.time.Duration;
 import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.equalTo;
@@ -39,6 +49,14 @@ public class AuthControllerTest {
     private TokenService tokenService;
     @MockBean
     private TokenBlacklistService tokenBlacklistService;
+    @MockBean
+    private TokenRevocationService tokenRevocationService;
+    @SpyBean
+    private PasswordHasher passwordHasher;
+    @SpyBean
+    private LoginRateLimiter loginRateLimiter;
+    @MockBean
+    private RefreshTokenService refreshTokenService;
     private AuthRequest authRequest;
     private MemoUser memoUser;
     private String token;
@@ -58,6 +76,9 @@ public class AuthControllerTest {
         token = "token123";
         when(tokenBlacklistService.isBlacklisted(any())).thenReturn(false);
         when(tokenBlacklistService.addToBlacklist(any())).thenReturn(false);
+        when(refreshTokenService.issue(any())).thenReturn("refresh123");
+        when(refreshTokenService.getTimeToLive()).thenReturn(Duration.ofDays(14));
+        when(userService.register(any())).thenReturn(UserService.Registration.CREATED);
     }
 
     private AuthRequest createAuthRequest(String userName, String password, String email) {
@@ -70,14 +91,13 @@ public class AuthControllerTest {
 
     @Test
     public void registerTest() throws Exception {
-        when(userService.getByUserName(any())).thenReturn(null);
-        when(userService.getByEmail(any())).thenReturn(null);
-        when(userService.saveUser(any())).thenReturn(null);
-
         mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isOk());
+        verify(userService).getByEmail(email);
+        verify(userService).getByUserName(userName);
+        verify(userService).register(any());
     }
 
     @Test
@@ -93,22 +113,44 @@ public class AuthControllerTest {
 
     @Test
     public void whenExistingEmailRegisterThenBadRequest() throws Exception {
-        when(userService.getByUserName(any())).thenReturn(null);
-        when(userService.getByEmail(any())).thenReturn(memoUser);
-        when(userService.saveUser(any())).thenReturn(null);
+        when(userService.getByEmail(email)).thenReturn(memoUser);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString("Existing email!")));
+        verify(passwordHasher, never()).hash(any());
+        verify(userService, never()).register(any());
     }
 
     @Test
     public void whenExistingUserNameRegisterThenBadRequest() throws Exception {
-        when(userService.getByUserName(any())).thenReturn(memoUser);
-        when(userService.getByEmail(any())).thenReturn(null);
-        when(userService.saveUser(any())).thenReturn(null);
+        when(userService.getByUserName(userName)).thenReturn(memoUser);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Existing username!")));
+        verify(passwordHasher, never()).hash(any());
+        verify(userService, never()).register(any());
+    }
+
+    @Test
+    public void whenEmailTakenDuringRegisterThenBadRequest() throws Exception {
+        when(userService.register(any())).thenReturn(UserService.Registration.EXISTING_EMAIL);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(containsString("Existing email!")));
+    }
+
+    @Test
+    public void whenUserNameTakenDuringRegisterThenBadRequest() throws Exception {
+        when(userService.register(any())).thenReturn(UserService.Registration.EXISTING_USERNAME);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
                 .contentType(MediaType.APPLICATION_JSON)
@@ -119,9 +161,6 @@ public class AuthControllerTest {
 
     @Test
     public void whenIncorrectEmailFormatRegisterThenBadRequest() throws Exception {
-        when(userService.getByUserName(any())).thenReturn(null);
-        when(userService.getByEmail(any())).thenReturn(null);
-        when(userService.saveUser(any())).thenReturn(null);
         authRequest.setEmail("almavhjfehabr");
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
@@ -129,13 +168,12 @@ public class AuthControllerTest {
                 .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(containsString("Incorrect email format!")));
+        verify(passwordHasher, never()).hash(any());
+        verify(userService, never()).register(any());
     }
 
     @Test
     public void whenIncorrectUserNameRegisterThenBadRequest() throws Exception {
-        when(userService.getByUserName(any())).thenReturn(null);
-        when(userService.getByEmail(any())).thenReturn(null);
-        when(userService.saveUser(any())).thenReturn(null);
         authRequest.setUsername("al");
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
@@ -147,9 +185,6 @@ public class AuthControllerTest {
 
     @Test
     public void whenIncorrectPasswordRegisterThenBadRequest() throws Exception {
-        when(userService.getByUserName(any())).thenReturn(null);
-        when(userService.getByEmail(any())).thenReturn(null);
-        when(userService.saveUser(any())).thenReturn(null);
         authRequest.setPassword("   dcfvunk ");
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
@@ -172,6 +207,101 @@ public class AuthControllerTest {
                 .andExpect(content().string(equalTo(token)));
     }
 
+    @Test
+    public void whenPasswordQueueIsFullSignInThenServiceUnavailable() throws Exception {
+        when(userService.getByUserName(memoUser.getUserName())).thenReturn(memoUser);
+        when(userService.getByEmail(memoUser.getEmail())).thenReturn(memoUser);
+        doThrow(new RejectedExecutionException()).when(passwordHasher).check(any(), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/signIn")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, String.valueOf(passwordHasher.getRetryAfterSeconds())));
+        verify(tokenService, never()).generateJwtToken(any());
+    }
+
+    @Test
+    public void signInSetsRefreshTokenCookie() throws Exception {
+        when(userService.getByUserName(memoUser.getUserName())).thenReturn(memoUser);
+        when(userService.getByEmail(memoUser.getEmail())).thenReturn(memoUser);
+        when(tokenService.generateJwtToken(memoUser)).thenReturn(token);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/signIn")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isOk())
+                .andExpect(cookie().value(AuthController.REFRESH_COOKIE, "refresh123"))
+                .andExpect(cookie().httpOnly(AuthController.REFRESH_COOKIE, true))
+                .andExpect(cookie().path(AuthController.REFRESH_COOKIE, "/api"));
+        verify(refreshTokenService).issue(memoUser.getId());
+    }
+
+    @Test
+    public void whenRefreshTokenIsValidRefreshThenNewTokens() throws Exception {
+        when(refreshTokenService.rotate("refresh123"))
+                .thenReturn(new RefreshTokenService.Rotation(memoUser.getId(), "refresh456"));
+        when(userService.getById(memoUser.getId())).thenReturn(memoUser);
+        when(tokenService.generateJwtToken(memoUser)).thenReturn(token);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/refresh")
+                .cookie(new Cookie(AuthController.REFRESH_COOKIE, "refresh123")))
+                .andExpect(status().isOk())
+                .andExpect(content().string(equalTo(token)))
+                .andExpect(cookie().value(AuthController.REFRESH_COOKIE, "refresh456"));
+        verify(passwordHasher, never()).check(any(), any());
+    }
+
+    @Test
+    public void whenUserIsGoneRefreshThenUnauthorized() throws Exception {
+        when(refreshTokenService.rotate("refresh123"))
+                .thenReturn(new RefreshTokenService.Rotation(memoUser.getId(), "refresh456"));
+        when(userService.getById(memoUser.getId())).thenReturn(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/refresh")
+                .cookie(new Cookie(AuthController.REFRESH_COOKIE, "refresh123")))
+                .andExpect(status().isUnauthorized())
+                .andExpect(cookie().maxAge(AuthController.REFRESH_COOKIE, 0));
+        verify(tokenService, never()).generateJwtToken(any());
+    }
+
+    @Test
+    public void whenRefreshTokenIsMissingOrReusedRefreshThenUnauthorized() throws Exception {
+        when(refreshTokenService.rotate(any())).thenReturn(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/refresh"))
+                .andExpect(status().isUnauthorized())
+                .andExpect(cookie().maxAge(AuthController.REFRESH_COOKIE, 0));
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/refresh")
+                .cookie(new Cookie(AuthController.REFRESH_COOKIE, "used")))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    public void whenRateLimitedSignInThenTooManyRequests() throws Exception {
+        doReturn(false).when(loginRateLimiter).tryAcquire(any(), any(), any());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/signIn")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        verify(userService, never()).getByUserName(any());
+        verify(userService, never()).getByEmail(any());
+    }
+
+    @Test
+    public void whenPasswordQueueIsFullRegisterThenServiceUnavailable() throws Exception {
+        doThrow(new RejectedExecutionException()).when(passwordHasher).hash(any());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(authRequest)))
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().exists(HttpHeaders.RETRY_AFTER));
+        verify(userService, never()).register(any());
+    }
+
     @Test
     public void whenSignInRequestDataIsIncompleteThenBadRequestReturned() throws Exception {
         authRequest.setUsername(null);
@@ -207,13 +337,14 @@ public class AuthControllerTest {
                         .content(objectMapper.writeValueAsString(authRequest)))
                 .andExpect(status().isUnauthorized())
                 .andExpect(content().string(containsString("Password is incorrect!")));
+        verify(loginRateLimiter).signInFailed(authRequest.getUsername(), authRequest.getEmail());
     }
 
     @Test
     public void whenTokenIsInvalidGetUserInfoThenBadRequest() throws Exception {
         String invalidToken = "invalid-token";
         when(tokenService.extractTokenFromRequest(any())).thenReturn(invalidToken);
-        when(tokenService.isTokenValid(invalidToken)).thenReturn(false);
+        when(tokenService.authenticate(invalidToken)).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/getUserInfo")
                 .header("Authorization", "Bearer " + invalidToken))
@@ -221,28 +352,63 @@ public class AuthControllerTest {
     }
 
     @Test
-    public void whenUserNotFoundGetUserInfoShouldReturnNotFound() throws Exception {
+    public void whenUserNotFoundGetUserInfoThenUnauthorized() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(null);
+        when(tokenService.authenticate(token)).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/getUserInfo")
                 .header("Authorization", "Bearer " + token))
-                .andExpect(status().isNotFound())
-                .andExpect(content().string(containsString("User not found!")));
+                .andExpect(status().isUnauthorized());
+        verify(userService, never()).getUserNameById(any());
     }
 
     @Test
     public void whenTokenIsValidGetUserInfoShouldReturnUserInfo() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(memoUser.getId());
-        when(userService.getUserNameById(memoUser.getId())).thenReturn(memoUser.getUserName());
+        when(tokenService.authenticate(token))
+                .thenReturn(new UserPrincipal(memoUser.getId(), memoUser.getUserName(), memoUser.getVersion()));
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/getUserInfo")
                 .header("Authorization", "Bearer " + token))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.userId").value(memoUser.getId().toString()))
                 .andExpect(jsonPath("$.userName").value(memoUser.getUserName()));
+        verify(userService, never()).getUserNameById(any());
+    }
+
+    @Test
+    public void whenTokenHasNoUserNameGetUserInfoShouldLookItUp() throws Exception {
+        when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(memoUser.getId()));
+        when(userService.getUserNameById(memoUser.getId())).thenReturn(memoUser.getUserName());
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/getUserInfo")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.userName").value(memoUser.getUserName()));
+    }
+
+    @Test
+    public void whenTokenIsValidSignOutShouldBlacklistIt() throws Exception {
+        when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(memoUser.getId()));
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/signOut")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        verify(tokenRevocationService).revoke(token);
+        verify(refreshTokenService).revoke(null);
+    }
+
+    @Test
+    public void whenTokenIsInvalidSignOutThenUnauthorized() throws Exception {
+        String invalidToken = "invalid-token";
+        when(tokenService.extractTokenFromRequest(any())).thenReturn(invalidToken);
+        when(tokenService.authenticate(invalidToken)).thenReturn(null);
+
+        mockMvc.perform(MockMvcRequestBuilders.post("/api/signOut")
+                .header("Authorization", "Bearer " + invalidToken))
+                .andExpect(status().isUnauthorized());
+        verify(tokenRevocationService, never()).revoke(invalidToken);
     }
 }
@@ -1,11 +1,14 @@
 package com.memo.game.controller;
 
+import com.memo.game.config.WebSocketConfig;
 import com.memo.game.dto.JoinMessage;
+import com.memo.game.dto.MoveEvent;
 import com.memo.game.dto.MultiPlayerMessage;
-import com.memo.game.dto.PlayerMessage;
+import com.memo.game.dto.ResumeMessage;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.gameModel.MultiPlayer;
 import com.memo.game.service.*;
-import org.junit.jupiter.api.BeforeAll;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -13,13 +16,19 @@ import org.mockito.Mockito;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
 import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.messaging.support.MessageBuilder;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
 
+import java.security.Principal;
 import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -29,50 +38,36 @@ import static org.mockito.Mockito.*;
 @SpringBootTest
 @AutoConfigureMockMvc
 public class MessageControllerTest {
-    private static SimpMessagingTemplate messagingTemplate;
-    private static MultiPlayerService multiPlayerService;
-    private static final String token = "token123";
-    private static final String token2 = "token456";
-    private static final String invalidToken = "invalid_token";
-    private static final String noUserToken = "no_user";
+    private SimpMessagingTemplate messagingTemplate;
+    private MultiPlayerService multiPlayerService;
+    private static final String sessionId = "session1";
     private static final UUID playerId1 = UUID.randomUUID();
     private static final UUID playerId2 = UUID.randomUUID();
-    private static MessageController messageController;
+    private static final Principal player1 = new UserPrincipal(playerId1);
+    private static final Principal player2 = new UserPrincipal(playerId2);
+    private MessageController messageController;
     private final ArgumentCaptor<String> destinationCaptor = ArgumentCaptor.forClass(String.class);
     private final ArgumentCaptor<Object> messageCaptor = ArgumentCaptor.forClass(Object.class);
+    private final ArgumentCaptor<String> userCaptor = ArgumentCaptor.forClass(String.class);
 
-    @BeforeAll
-    public static void setUp() {
-        TokenService tokenService = mock(TokenService.class);
-        TokenBlacklistService tokenBlacklistService = mock(TokenBlacklistService.class);
+    @BeforeEach
+    public void setUp() {
         UserService userService = mock(UserService.class);
         multiPlayerService = mock(MultiPlayerService.class);
+        messagingTemplate = mock(SimpMessagingTemplate.class);
 
         messageController = new MessageController();
-        tokenService.setTokenBlacklistService(tokenBlacklistService);
-        messageController.setTokenService(tokenService);
         messageController.setMemoUsersService(userService);
         messageController.setMultiPlayerService(multiPlayerService);
+        messageController.setGameMetrics(new GameMetrics(new SimpleMeterRegistry()));
+        messageController.setMessagingTemplate(messagingTemplate);
+        messageController.setGameEventBuffer(new GameEventBuffer());
+        messageController.setGameReconnectService(new GameReconnectService(0));
 
-        when(tokenBlacklistService.isBlacklisted(any())).thenReturn(false);
-        when(tokenBlacklistService.addToBlacklist(any())).thenReturn(false);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.isTokenValid(token2)).thenReturn(true);
-        when(tokenService.isTokenValid(noUserToken)).thenReturn(true);
-        when(tokenService.isTokenValid(invalidToken)).thenReturn(false);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(playerId1);
-        when(tokenService.extractUserIdFromToken(token2)).thenReturn(playerId2);
-        when(tokenService.extractUserIdFromToken(noUserToken)).thenReturn(null);
         when(userService.getUserNameById(playerId1)).thenReturn("name1");
         when(userService.getUserNameById(playerId2)).thenReturn("name2");
         doNothing().when(multiPlayerService).saveGame(any());
         doNothing().when(multiPlayerService).removeGame(any());
-    }
-
-    @BeforeEach
-    public void setUpEach() {
-        messagingTemplate = mock(SimpMessagingTemplate.class);
-        messageController.setMessagingTemplate(messagingTemplate);
         doNothing().when(messagingTemplate).convertAndSend(anyString(), Optional.ofNullable(any()));
     }
 
@@ -86,23 +81,39 @@ public class MessageControllerTest {
         multiplayer.setBoard(board);
     }
 
-    private JoinMessage getJoinMessage(int numOfPairs, String joinToken, boolean wantToPlayWithFriend, String roomId) {
+    private JoinMessage getJoinMessage(int numOfPairs, boolean wantToPlayWithFriend, String roomId) {
         JoinMessage joinMessage = new JoinMessage();
-        joinMessage.setToken(joinToken);
         joinMessage.setNumOfPairs(numOfPairs);
         joinMessage.setWantToPlayWithFriend(wantToPlayWithFriend);
         if(roomId!=null) joinMessage.setFriendRoomId(roomId);
         return joinMessage;
     }
 
-    private MultiPlayerMessage getMultiPlayerMessage(String playerToken, UUID gameId, int index) {
+    private MultiPlayerMessage getMultiPlayerMessage(UUID gameId, int index) {
         MultiPlayerMessage message = new MultiPlayerMessage();
-        message.setSender(playerToken);
         message.setGameId(gameId);
         message.setIndex(index);
         return message;
     }
 
+    private SimpMessageHeaderAccessor sessionHeaders() {
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionId(sessionId);
+        headerAccessor.setSessionAttributes(new HashMap<>());
+        return headerAccessor;
+    }
+
+    private MultiPlayerMessage captureErrorSentTo(UUID playerId) {
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        verify(messagingTemplate, Mockito.times(1)).convertAndSendToUser(userCaptor.capture(),
+                destinationCaptor.capture(), messageCaptor.capture(), anyMap());
+        assertThat(userCaptor.getValue()).isEqualTo(playerId.toString());
+        assertThat(destinationCaptor.getValue()).isEqualTo(MessageController.ERROR_DESTINATION);
+        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
+        assertThat(capturedMessage.getType()).isEqualTo("error");
+        return capturedMessage;
+    }
+
     @Test
     public void testJoinGame() {
         int numOfPairs = 8;
@@ -113,50 +124,38 @@ public class MessageControllerTest {
         );
         when(multiPlayerService.joinGame(eq(playerId1), eq(numOfPairs))).thenReturn(multiPlayer);
 
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, token, false, null);
+        JoinMessage joinMessage = getJoinMessage(numOfPairs, false, null);
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player1, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("game.joined");
         assertThat(result.getPlayer1()).isEqualTo(playerId1);
+        verifyNoInteractions(messagingTemplate);
     }
 
     @Test
-    public void joinGameInvalidToken() {
+    public void joinGameNotAuthenticated() {
         int numOfPairs = 8;
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, invalidToken, false, null);
+        JoinMessage joinMessage = getJoinMessage(numOfPairs, false, null);
 
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, null, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("error");
         assertThat(result.getContent()).isEqualTo("Unauthorized");
     }
 
-    @Test
-    public void joinGameUserNotFound() {
-        int numOfPairs = 8;
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, noUserToken, false, null);
-
-        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
-        headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
-
-        assertThat(result.getType()).isEqualTo("error");
-        assertThat(result.getContent()).isEqualTo("User not found");
-    }
-
     @Test
     public void joinGameCannotJoin() {
         int numOfPairs = 8;
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, token, false, null);
+        JoinMessage joinMessage = getJoinMessage(numOfPairs, false, null);
         when(multiPlayerService.joinGame(eq(playerId1), eq(numOfPairs))).thenReturn(null);
 
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player1, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("error");
         assertThat(result.getContent()).isEqualTo("Cannot join");
@@ -165,11 +164,11 @@ public class MessageControllerTest {
     @Test
     public void joinGameIncorrectParams() {
         int numOfPairs = 0;
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, token, false, null);
+        JoinMessage joinMessage = getJoinMessage(numOfPairs, false, null);
 
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player1, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("error");
         assertThat(result.getContent()).isEqualTo("Incorrect params");
@@ -183,16 +182,24 @@ public class MessageControllerTest {
                 playerId1,
                 playerId2
         );
+        multiPlayer.setGameStarted(true);
         when(multiPlayerService.joinGame(eq(playerId2), eq(numOfPairs))).thenReturn(multiPlayer);
 
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, token2, false, null);
+        JoinMessage joinMessage = getJoinMessage(numOfPairs, false, null);
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player2, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("game.joined");
         assertThat(result.getPlayer1()).isEqualTo(playerId1);
         assertThat(result.getPlayer2()).isEqualTo(playerId2);
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class));
+        verify(messagingTemplate,  Mockito.times(1)).convertAndSendToUser(userCaptor.capture(),
+                destinationCaptor.capture(), messageCaptor.capture());
+        assertThat(userCaptor.getValue()).isEqualTo(playerId1.toString());
+        assertThat(destinationCaptor.getValue()).isEqualTo(MessageController.JOIN_REPLY_DESTINATION);
+        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
+        assertThat(capturedMessage.getType()).isEqualTo("game.started");
     }
 
     @Test
@@ -205,10 +212,10 @@ public class MessageControllerTest {
         );
         when(multiPlayerService.joinGameWithFriend(eq(playerId1), eq(numOfPairs), isNull(UUID.class))).thenReturn(multiPlayer);
 
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, token, true,null);
+        JoinMessage joinMessage = getJoinMessage(numOfPairs, true,null);
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player1, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("game.joined");
         assertThat(result.getPlayer1()).isEqualTo(playerId1);
@@ -224,11 +231,11 @@ public class MessageControllerTest {
         );
         when(multiPlayerService.joinGameWithFriend(eq(playerId2), anyInt(), eq(multiPlayer.getPlayId()))).thenReturn(multiPlayer);
 
-        JoinMessage joinMessage = getJoinMessage(numOfPairs, token2,
+        JoinMessage joinMessage = getJoinMessage(numOfPairs,
                 true, multiPlayer.getPlayId().toString());
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player2, headerAccessor);
 
         assertThat(result.getType()).isEqualTo("game.joined");
         assertThat(result.getPlayer1()).isEqualTo(playerId1);
@@ -245,11 +252,11 @@ public class MessageControllerTest {
         );
         when(multiPlayerService.joinGameWithFriend(eq(playerId2), anyInt(), eq(multiPlayer.getPlayId()))).thenReturn(multiPlayer);
 
-        JoinMessage joinMessage = getJoinMessage(0, token2,
+        JoinMessage joinMessage = getJoinMessage(0,
                 true, "jfrvknwej");
         SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
         headerAccessor.setSessionAttributes(new HashMap<>());
-        MultiPlayerMessage result = messageController.joinGame(joinMessage, headerAccessor);
+        MultiPlayerMessage result = messageController.joinGame(joinMessage, player2, headerAccessor);
         assertThat(result.getType()).isEqualTo("error");
         assertThat(result.getContent()).isEqualTo("Incorrect params");
     }
@@ -259,10 +266,7 @@ public class MessageControllerTest {
         MultiPlayer game = new MultiPlayer(8, playerId1, null);
         when(multiPlayerService.leaveGame(playerId1)).thenReturn(game);
 
-        PlayerMessage playerMessage = new PlayerMessage();
-        playerMessage.setToken(token);
-
-        messageController.leaveGame(playerMessage);
+        messageController.leaveGame(player1);
         verify(multiPlayerService).leaveGame(playerId1);
         verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
         assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
@@ -277,17 +281,20 @@ public class MessageControllerTest {
         game.setGameStarted(true);
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token, game.getPlayId(), 0);
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), 0);
         Map<Integer, Integer> lastMove = new HashMap<>();
         lastMove.put(0, 1);
 
-        messageController.makeMove(message);
+        messageController.makeMove(message, player1, sessionHeaders());
 
         verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
         assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
+        MoveEvent capturedMessage = (MoveEvent) messageCaptor.getValue();
         assertThat(capturedMessage.getType()).isEqualTo("game.move");
         assertThat(capturedMessage.getLastMove()).isEqualTo(lastMove);
+        assertThat(capturedMessage.getSeq()).isEqualTo(1);
+        assertThat(capturedMessage.isMatched()).isFalse();
+        assertThat(capturedMessage.isPlayer1sTurn()).isTrue();
     }
 
     @Test
@@ -298,32 +305,55 @@ public class MessageControllerTest {
         game.setGameStarted(true);
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token, game.getPlayId(), 1);
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), 1);
         Map<Integer, Integer> lastMove = new HashMap<>();
         lastMove.put(1, 1);
 
-        messageController.makeMove(message);
+        messageController.makeMove(message, player1, sessionHeaders());
 
         verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
         assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
+        MoveEvent capturedMessage = (MoveEvent) messageCaptor.getValue();
         assertThat(capturedMessage.getType()).isEqualTo("game.move");
         assertThat(capturedMessage.getLastMove()).isEqualTo(lastMove);
     }
 
+    @Test
+    public void makeMatchingMove() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        setBoardCardsInOrder(game);
+        game.setGameStarted(true);
+        game.flipCard(playerId1, 0);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), 1);
+        Map<Integer, Integer> lastMove = new HashMap<>();
+        lastMove.put(0, 1);
+        lastMove.put(1, 1);
+
+        messageController.makeMove(message, player1, sessionHeaders());
+
+        verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
+        MoveEvent capturedMessage = (MoveEvent) messageCaptor.getValue();
+        assertThat(capturedMessage.getType()).isEqualTo("game.move");
+        assertThat(capturedMessage.getLastMove()).isEqualTo(lastMove);
+        assertThat(capturedMessage.getSeq()).isEqualTo(2);
+        assertThat(capturedMessage.isMatched()).isTrue();
+        assertThat(capturedMessage.isPlayer1sTurn()).isFalse();
+        assertThat(capturedMessage.getPlayer1GuessedCards()).isEqualTo(1);
+        assertThat(capturedMessage.getWinner()).isNull();
+    }
+
     @Test
     public void makeMovePlayer2NotJoined() {
         MultiPlayer game = new MultiPlayer(8, playerId1, null);
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token, game.getPlayId(), 1);
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), 1);
 
-        messageController.makeMove(message);
+        messageController.makeMove(message, player1, sessionHeaders());
 
-        verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
-        assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
-        assertThat(capturedMessage.getType()).isEqualTo("error");
+        MultiPlayerMessage capturedMessage = captureErrorSentTo(playerId1);
         assertThat(capturedMessage.getContent()).isEqualTo("Game is waiting for another player to join.");
     }
 
@@ -332,13 +362,10 @@ public class MessageControllerTest {
         UUID gameId = UUID.randomUUID();
         when(multiPlayerService.getGame(eq(gameId))).thenReturn(null);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token, gameId, 1);
-        messageController.makeMove(message);
+        MultiPlayerMessage message = getMultiPlayerMessage(gameId, 1);
+        messageController.makeMove(message, player1, sessionHeaders());
 
-        verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
-        assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + gameId);
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
-        assertThat(capturedMessage.getType()).isEqualTo("error");
+        MultiPlayerMessage capturedMessage = captureErrorSentTo(playerId1);
         assertThat(capturedMessage.getContent()).isEqualTo("Game not found or is already over.");
     }
 
@@ -348,14 +375,11 @@ public class MessageControllerTest {
         game.setGameStarted(true);
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token, game.getPlayId(), -1);
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), -1);
 
-        messageController.makeMove(message);
+        messageController.makeMove(message, player1, sessionHeaders());
 
-        verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
-        assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
-        assertThat(capturedMessage.getType()).isEqualTo("error");
+        MultiPlayerMessage capturedMessage = captureErrorSentTo(playerId1);
         assertThat(capturedMessage.getContent()).isEqualTo("Incorrect params");
     }
 
@@ -365,14 +389,11 @@ public class MessageControllerTest {
         game.setGameStarted(true);
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token2, game.getPlayId(), 0);
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), 0);
 
-        messageController.makeMove(message);
+        messageController.makeMove(message, player2, sessionHeaders());
 
-        verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
-        assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
-        assertThat(capturedMessage.getType()).isEqualTo("error");
+        MultiPlayerMessage capturedMessage = captureErrorSentTo(playerId2);
         assertThat(capturedMessage.getContent()).isEqualTo("Not your turn");
     }
 
@@ -393,18 +414,50 @@ public class MessageControllerTest {
         }
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
 
-        MultiPlayerMessage message = getMultiPlayerMessage(token2, game.getPlayId(), numOfPairs*2-1);
+        MultiPlayerMessage message = getMultiPlayerMessage(game.getPlayId(), numOfPairs*2-1);
         Map<Integer, Integer> lastMove = new HashMap<>();
         lastMove.put(numOfPairs*2-2, numOfPairs);
         lastMove.put(numOfPairs*2-1, numOfPairs);
 
-        messageController.makeMove(message);
+        messageController.makeMove(message, player2, sessionHeaders());
 
         verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
         assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
-        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
+        MoveEvent capturedMessage = (MoveEvent) messageCaptor.getValue();
         assertThat(capturedMessage.getType()).isEqualTo("game.gameOver");
         assertThat(capturedMessage.getLastMove()).isEqualTo(lastMove);
+        assertThat(capturedMessage.getSeq()).isEqualTo(numOfPairs*2);
+        assertThat(capturedMessage.isGameOver()).isTrue();
+        assertThat(capturedMessage.getWinner()).isEqualTo("draw");
+    }
+
+    @Test
+    public void resyncSendsSnapshot() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        setBoardCardsInOrder(game);
+        game.setGameStarted(true);
+        game.flipCard(playerId1, 0);
+        game.flipCard(playerId1, 1);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+
+        MultiPlayerMessage result = messageController.resync(getMultiPlayerMessage(game.getPlayId(), 0), player2);
+
+        assertThat(result.getType()).isEqualTo("game.state");
+        assertThat(result.getSeq()).isEqualTo(2);
+        assertThat(result.getBoard()[0]).isEqualTo(1);
+        assertThat(result.getBoard()[1]).isEqualTo(1);
+        assertThat(result.getPlayer1GuessedCards()).isEqualTo(1);
+    }
+
+    @Test
+    public void resyncNotAPlayerOfTheGame() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, null);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+
+        MultiPlayerMessage result = messageController.resync(getMultiPlayerMessage(game.getPlayId(), 0), player2);
+
+        assertThat(result.getType()).isEqualTo("error");
+        assertThat(result.getContent()).isEqualTo("Game not found or is already over.");
     }
 
     @Test
@@ -423,6 +476,7 @@ public class MessageControllerTest {
         SessionDisconnectEvent event = new SessionDisconnectEvent(this, message, game.getPlayId().toString(),
                 closeStatus);
         when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+        removingReturns(game, playerId1);
 
         messageController.SessionDisconnectEvent(event);
 
@@ -431,5 +485,178 @@ public class MessageControllerTest {
         MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
         assertThat(capturedMessage.getType()).isEqualTo("game.gameOver");
         assertThat(capturedMessage.getPlayer1()).isEqualTo(playerId1);
+        verify(multiPlayerService).removeDisconnectedPlayer(game.getPlayId(), playerId1);
+    }
+
+    private void removingReturns(MultiPlayer game, UUID playerId) {
+        when(multiPlayerService.removeDisconnectedPlayer(game.getPlayId(), playerId)).thenAnswer(invocation -> {
+            game.playerLeaves(playerId);
+            return game;
+        });
+    }
+
+    private SessionDisconnectEvent disconnectEvent(MultiPlayer game, UUID playerId, String disconnectedSessionId) {
+        Map<String, Object> sessionAttributes = new HashMap<>();
+        sessionAttributes.put("gameId", game.getPlayId());
+        sessionAttributes.put("player", playerId);
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create();
+        headerAccessor.setSessionAttributes(sessionAttributes);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], headerAccessor.getMessageHeaders());
+        return new SessionDisconnectEvent(this, message, disconnectedSessionId, CloseStatus.GOING_AWAY);
+    }
+
+    @Test
+    void disconnectStartsGracePeriod() {
+        messageController.setGameReconnectService(new GameReconnectService(60000));
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        game.setGameStarted(true);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+
+        messageController.SessionDisconnectEvent(disconnectEvent(game, playerId1, sessionId));
+
+        verify(messagingTemplate,  Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
+        assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId());
+        MultiPlayerMessage capturedMessage = (MultiPlayerMessage) messageCaptor.getValue();
+        assertThat(capturedMessage.getType()).isEqualTo("game.playerDisconnected");
+        assertThat(game.isGameOver()).isFalse();
+        verify(multiPlayerService, never()).removeDisconnectedPlayer(game.getPlayId(), playerId1);
+    }
+
+    @Test
+    void disconnectRemovesPlayerWhenGracePeriodRunsOut() throws InterruptedException {
+        messageController.setGameReconnectService(new GameReconnectService(50));
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        game.setGameStarted(true);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+        // removeDisconnectedPlayer is synchronized, and verifying it with a timeout would hold the mock's
+        // monitor while polling and block the grace period thread, so the removal is awaited with a latch.
+        CountDownLatch removed = new CountDownLatch(1);
+        when(multiPlayerService.removeDisconnectedPlayer(game.getPlayId(), playerId1)).thenAnswer(invocation -> {
+            game.playerLeaves(playerId1);
+            removed.countDown();
+            return game;
+        });
+
+        messageController.SessionDisconnectEvent(disconnectEvent(game, playerId1, sessionId));
+
+        assertThat(removed.await(2, TimeUnit.SECONDS)).isTrue();
+        verify(multiPlayerService).removeDisconnectedPlayer(game.getPlayId(), playerId1);
+        assertThat(game.isGameOver()).isTrue();
+        assertThat(game.getWinner()).isEqualTo(playerId2.toString());
+    }
+
+    @Test
+    void staleSessionDisconnectIsIgnored() {
+        messageController.setGameReconnectService(new GameReconnectService(60000));
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        game.setGameStarted(true);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+
+        MultiPlayerMessage resumeMessage = getMultiPlayerMessage(game.getPlayId(), 0);
+        messageController.resume(resumeMessage, player1, sessionHeaders());
+        clearInvocations(messagingTemplate);
+
+        messageController.SessionDisconnectEvent(disconnectEvent(game, playerId1, "oldSession"));
+
+        verifyNoInteractions(messagingTemplate);
+        assertThat(game.isGameOver()).isFalse();
+    }
+
+    @Test
+    void resumeSendsMissedEvents() {
+        messageController.setGameReconnectService(new GameReconnectService(60000));
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        setBoardCardsInOrder(game);
+        game.setGameStarted(true);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+        messageController.makeMove(getMultiPlayerMessage(game.getPlayId(), 0), player1, sessionHeaders());
+        messageController.makeMove(getMultiPlayerMessage(game.getPlayId(), 1), player1, sessionHeaders());
+        messageController.makeMove(getMultiPlayerMessage(game.getPlayId(), 2), player2, sessionHeaders());
+        messageController.SessionDisconnectEvent(disconnectEvent(game, playerId1, sessionId));
+        clearInvocations(messagingTemplate);
+
+        MultiPlayerMessage resumeMessage = getMultiPlayerMessage(game.getPlayId(), 0);
+        resumeMessage.setSeq(1);
+        messageController.resume(resumeMessage, player1, sessionHeaders());
+
+        verify(messagingTemplate, Mockito.times(1)).convertAndSendToUser(userCaptor.capture(),
+                destinationCaptor.capture(), messageCaptor.capture(), anyMap());
+        assertThat(userCaptor.getValue()).isEqualTo(playerId1.toString());
+        assertThat(destinationCaptor.getValue()).isEqualTo(MessageController.RESUME_DESTINATION);
+        ResumeMessage resumed = (ResumeMessage) messageCaptor.getValue();
+        assertThat(resumed.getSeq()).isEqualTo(3);
+        assertThat(resumed.getEvents()).extracting(MoveEvent::getSeq).containsExactly(2L, 3L);
+
+        verify(messagingTemplate, Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture());
+        assertThat(((MultiPlayerMessage) messageCaptor.getValue()).getType()).isEqualTo("game.playerReconnected");
+    }
+
+    @Test
+    void resumeNotAPlayerOfTheGame() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, null);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+
+        messageController.resume(getMultiPlayerMessage(game.getPlayId(), 0), player2, sessionHeaders());
+
+        MultiPlayerMessage capturedMessage = captureErrorSentTo(playerId2);
+        assertThat(capturedMessage.getContent()).isEqualTo("Game not found or is already over.");
+    }
+
+    private void subscribe(String destination, Principal principal) {
+        SimpMessageHeaderAccessor headerAccessor = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        headerAccessor.setSessionId(sessionId);
+        headerAccessor.setDestination(destination);
+        Message<byte[]> message = MessageBuilder.createMessage(new byte[0], headerAccessor.getMessageHeaders());
+        messageController.SessionSubscribeEvent(new SessionSubscribeEvent(this, message, principal));
+    }
+
+    @Test
+    void makeMoveBroadcastsCborToCborSubscribers() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        setBoardCardsInOrder(game);
+        game.setGameStarted(true);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+        subscribe("/topic/game." + game.getPlayId() + WebSocketConfig.CBOR_TOPIC_SUFFIX, player1);
+
+        messageController.makeMove(getMultiPlayerMessage(game.getPlayId(), 0), player1, sessionHeaders());
+
+        verify(messagingTemplate, Mockito.times(1)).convertAndSend(eq("/topic/game." + game.getPlayId()),
+                any(MoveEvent.class));
+        ArgumentCaptor<Map<String, Object>> headersCaptor = ArgumentCaptor.forClass(Map.class);
+        verify(messagingTemplate, Mockito.times(1)).convertAndSend(destinationCaptor.capture(), messageCaptor.capture(),
+                headersCaptor.capture());
+        assertThat(destinationCaptor.getValue()).isEqualTo("/topic/game." + game.getPlayId() + ".cbor");
+        assertThat(((MoveEvent) messageCaptor.getValue()).getSeq()).isEqualTo(1);
+        assertThat(headersCaptor.getValue().get(MessageHeaders.CONTENT_TYPE)).isEqualTo(WebSocketConfig.CBOR);
+    }
+
+    @Test
+    void makeMoveWithoutCborSubscribersSendsJsonOnly() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, playerId2);
+        setBoardCardsInOrder(game);
+        game.setGameStarted(true);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+        subscribe("/topic/game." + game.getPlayId(), player1);
+
+        messageController.makeMove(getMultiPlayerMessage(game.getPlayId(), 0), player1, sessionHeaders());
+
+        verify(messagingTemplate, Mockito.times(1)).convertAndSend(eq("/topic/game." + game.getPlayId()),
+                any(MoveEvent.class));
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class), anyMap());
+    }
+
+    @Test
+    void cborSubscriptionOfOutsiderIsIgnored() {
+        MultiPlayer game = new MultiPlayer(8, playerId1, null);
+        setBoardCardsInOrder(game);
+        when(multiPlayerService.getGame(eq(game.getPlayId()))).thenReturn(game);
+        subscribe("/topic/game." + game.getPlayId() + WebSocketConfig.CBOR_TOPIC_SUFFIX, player2);
+        subscribe("/topic/game." + UUID.randomUUID() + WebSocketConfig.CBOR_TOPIC_SUFFIX, player1);
+        game.setPlayer2Id(playerId2);
+        game.setGameStarted(true);
+
+        messageController.makeMove(getMultiPlayerMessage(game.getPlayId(), 0), player1, sessionHeaders());
+
+        verify(messagingTemplate, never()).convertAndSend(anyString(), any(Object.class), anyMap());
     }
 }
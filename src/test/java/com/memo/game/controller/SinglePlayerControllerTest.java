@@ -3,6 +3,7 @@ package com.memo.game.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.memo.game.dto.IndexRequest;
 import com.memo.game.dto.StartSinglePlayerRequest;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.gameModel.SinglePlayer;
 import com.memo.game.service.SinglePlayerService;
 import com.memo.game.service.TokenBlacklistService;
@@ -22,6 +23,8 @@ import java.util.UUID;
 
 import static org.hamcrest.Matchers.containsString;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -53,8 +56,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void startGameTest() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(UUID.randomUUID());
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
 
         StartSinglePlayerRequest startSinglePlayerRequest = new StartSinglePlayerRequest();
         startSinglePlayerRequest.setInitialTime(300);
@@ -70,7 +72,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void startGameThenUnauthorizedResponse() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(false);
+        when(tokenService.authenticate(token)).thenReturn(null);
 
         StartSinglePlayerRequest request = new StartSinglePlayerRequest();
         request.setInitialTime(60);
@@ -85,8 +87,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void whenInvalidRequestThenBadRequestResponse() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(UUID.randomUUID());
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         StartSinglePlayerRequest request = new StartSinglePlayerRequest();
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/startSinglePlayer")
@@ -96,10 +97,9 @@ public class SinglePlayerControllerTest {
     }
 
     @Test
-    public void startGameWhenUserNotFoundThenNotFoundResponse() throws Exception {
+    public void startGameWhenUserNotFoundThenUnauthorizedResponse() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(null);
+        when(tokenService.authenticate(token)).thenReturn(null);
 
         StartSinglePlayerRequest request = new StartSinglePlayerRequest();
         request.setInitialTime(60);
@@ -108,14 +108,15 @@ public class SinglePlayerControllerTest {
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/startSinglePlayer")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(request)))
-                .andExpect(status().isNotFound())
-                .andExpect(content().string(containsString("User not found!")));
+                .andExpect(status().isUnauthorized());
+
+        verify(singlePlayerService, never()).addSinglePlayerToList(any(), any());
     }
 
     @Test
     public void getRemainingTimeTest() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(singlePlayer);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/getRemainingTime/{sessionId}", UUID.randomUUID().toString())
@@ -127,7 +128,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void getRemTimeWhenSessionNotFoundThenNotFoundResponse() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/getRemainingTime/{sessionId}", UUID.randomUUID().toString())
@@ -139,7 +140,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void flipCardTest() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(singlePlayer);
 
         IndexRequest indexRequest = new IndexRequest();
@@ -161,7 +162,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void flipCardWhenInvalidRequestThenBadRequestResponse() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(singlePlayer);
 
         IndexRequest indexRequest = new IndexRequest();
@@ -176,7 +177,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void leaveGameThenNoContentReturned() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(singlePlayer);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/leaveGame/{sessionId}", UUID.randomUUID().toString())
@@ -187,7 +188,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void isPlayValidTestThenValid() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(singlePlayer);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/isPlayValid/{sessionId}", UUID.randomUUID().toString())
@@ -203,7 +204,7 @@ public class SinglePlayerControllerTest {
     @Test
     public void isPlayValidTestThenInvalid() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(UUID.randomUUID()));
         when(singlePlayerService.getSinglePlayerByGameIdFromList(any(UUID.class))).thenReturn(null);
 
         mockMvc.perform(MockMvcRequestBuilders.post("/api/singlePlayer/isPlayValid/{sessionId}", UUID.randomUUID().toString())
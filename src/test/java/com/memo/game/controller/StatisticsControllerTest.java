@@ -1,6 +1,7 @@
 package com.memo.game.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.entity.MemoSingleGame;
 import com.memo.game.service.SinglePlayerService;
 import com.memo.game.service.MultiPlayerStatService;
@@ -26,6 +27,8 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -55,11 +58,9 @@ public class StatisticsControllerTest {
     public void setUp() {
         when(tokenBlacklistService.isBlacklisted(any())).thenReturn(false);
         when(tokenBlacklistService.addToBlacklist(any())).thenReturn(false);
-        when(tokenService.isTokenValid(token)).thenReturn(true);
-        when(tokenService.isTokenValid(noUserToken)).thenReturn(true);
-        when(tokenService.isTokenValid(invalidToken)).thenReturn(false);
-        when(tokenService.extractUserIdFromToken(token)).thenReturn(userId);
-        when(tokenService.extractUserIdFromToken(noUserToken)).thenReturn(null);
+        when(tokenService.authenticate(token)).thenReturn(new UserPrincipal(userId));
+        when(tokenService.authenticate(noUserToken)).thenReturn(null);
+        when(tokenService.authenticate(invalidToken)).thenReturn(null);
         boolean won = true;
         for(int i=0; i<20; i++) {
             won=!won;
@@ -110,8 +111,9 @@ public class StatisticsControllerTest {
                         .header("Authorization", "Bearer " + noUserToken)
                         .param("page", "1")
                         .param("size", "10"))
-                .andExpect(status().isNotFound())
-                .andExpect(content().string("User not found!"));
+                .andExpect(status().isUnauthorized());
+
+        verify(singlePlayerService, never()).getTotalGamesCountByUserIdFromDb(any(UUID.class));
     }
 
     @Test
@@ -154,6 +156,17 @@ public class StatisticsControllerTest {
                 .andExpect(jsonPath("$[0].numOfGames").value(20));
     }
 
+    @Test
+    public void multiPlayerStatisticsUnauthorizedAccess() throws Exception {
+        when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(invalidToken);
+        mockMvc.perform(post("/api/multiPlayerStatistics")
+                        .header("Authorization", "Bearer " + invalidToken)
+                        .param("pairs", "8"))
+                .andExpect(status().isUnauthorized());
+
+        verify(multiPlayerStatService, never()).getLeaderBoard(anyInt());
+    }
+
     @Test
     public void validRequestMultiPlayerStatistics() throws Exception {
         when(tokenService.extractTokenFromRequest(any(HttpServletRequest.class))).thenReturn(token);
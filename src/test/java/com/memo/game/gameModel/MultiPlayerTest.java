@@ -229,4 +229,19 @@ public class MultiPlayerTest {
         assertThat(multiPlayer.isGameOver()).isTrue();
         assertThat(multiPlayer.getWinner()).isEqualTo("draw");
     }
+
+    @Test
+    void sequenceCountsFlippedCards() {
+        multiPlayer = new MultiPlayer(8, userId1, userId2);
+        setBoardCardsInOrder(multiPlayer);
+        multiPlayer.setGameStarted(true);
+        assertThat(multiPlayer.getSequence()).isEqualTo(0);
+
+        multiPlayer.flipCard(userId1, 0);
+        multiPlayer.flipCard(userId1, 1);
+        assertThat(multiPlayer.getSequence()).isEqualTo(2);
+
+        multiPlayer.flipCard(userId1, 2);
+        assertThat(multiPlayer.getSequence()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,56 @@
+package com.memo.game.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class BoundedCacheTest {
+
+    @Test
+    void putAlwaysAdmitsAndEvictsLeastRecentlyUsed() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.put("b", 2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        cache.put("c", 3);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("b")).isNull();
+        assertThat(cache.get("a")).isEqualTo(1);
+        assertThat(cache.get("c")).isEqualTo(3);
+    }
+
+    @Test
+    void mergeCombinesWithCachedValue() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        assertThat(cache.merge("a", 1, Integer::sum)).isEqualTo(1);
+        assertThat(cache.merge("a", 2, Integer::sum)).isEqualTo(3);
+        assertThat(cache.get("a")).isEqualTo(3);
+    }
+
+    @Test
+    void removeOnlyRemovesExpectedValue() {
+        BoundedCache<String, Integer> cache = new BoundedCache<>(2);
+        cache.put("a", 1);
+        cache.remove("a", 2);
+        assertThat(cache.get("a")).isEqualTo(1);
+        cache.remove("a", 1);
+        assertThat(cache.get("a")).isNull();
+    }
+
+    @Test
+    void largeCacheStaysWithinCapacity() {
+        BoundedCache<Integer, Integer> cache = new BoundedCache<>(10000);
+        for (int i = 0; i < 50000; i++) {
+            cache.put(i, i);
+        }
+        assertThat(cache.size()).isEqualTo(10000);
+        assertThat(cache.get(49999)).isEqualTo(49999);
+    }
+
+    @Test
+    void capacityMustBePositive() {
+        assertThatThrownBy(() -> new BoundedCache<>(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,67 @@
+package com.memo.game.service;
+
+import com.memo.game.dto.MoveEvent;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class GameEventBufferTest {
+    private final UUID gameId = UUID.randomUUID();
+
+    private MoveEvent event(long seq) {
+        MoveEvent event = new MoveEvent();
+        event.setType("game.move");
+        event.setGameId(gameId);
+        event.setSeq(seq);
+        event.setLastMove(Map.of((int) seq, 1));
+        return event;
+    }
+
+    @Test
+    void eventsSinceReturnsOnlyMissedEvents() {
+        GameEventBuffer buffer = new GameEventBuffer(8);
+        for (long seq = 1; seq <= 5; seq++) {
+            buffer.record(event(seq));
+        }
+
+        List<MoveEvent> missed = buffer.eventsSince(gameId, 2);
+        assertThat(missed).extracting(MoveEvent::getSeq).containsExactly(3L, 4L, 5L);
+        assertThat(buffer.eventsSince(gameId, 5)).isEmpty();
+    }
+
+    @Test
+    void eventsSinceAfterWrapAround() {
+        GameEventBuffer buffer = new GameEventBuffer(4);
+        for (long seq = 1; seq <= 10; seq++) {
+            buffer.record(event(seq));
+        }
+
+        assertThat(buffer.eventsSince(gameId, 6)).extracting(MoveEvent::getSeq).containsExactly(7L, 8L, 9L, 10L);
+        assertThat(buffer.eventsSince(gameId, 5)).isNull();
+    }
+
+    @Test
+    void eventsSinceUnknownGame() {
+        GameEventBuffer buffer = new GameEventBuffer(4);
+        assertThat(buffer.eventsSince(gameId, 0)).isEmpty();
+        assertThat(buffer.eventsSince(gameId, 3)).isNull();
+    }
+
+    @Test
+    void removeDropsEvents() {
+        GameEventBuffer buffer = new GameEventBuffer(4);
+        buffer.record(event(1));
+        buffer.remove(gameId);
+        assertThat(buffer.eventsSince(gameId, 0)).isEmpty();
+    }
+
+    @Test
+    void constructorThrowsWhenSizeIsNotPositive() {
+        assertThrows(IllegalArgumentException.class, () -> new GameEventBuffer(0));
+    }
+}
@@ -0,0 +1,86 @@
+package com.memo.game.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LoginRateLimiterTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong now = new AtomicLong(1_000_000);
+    private final LoginRateLimiter limiter = new LoginRateLimiter(registry, 3, 5, 60000, now::get);
+
+    @Test
+    void throttlesAccountAfterFailedLimit() {
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire("10.0.0." + i, "alma", null)).isTrue();
+            limiter.signInFailed("alma", null);
+        }
+        assertThat(limiter.tryAcquire("10.0.0.9", "ALMA", null)).isFalse();
+        assertThat(limiter.tryAcquire("10.0.0.9", "korte", null)).isTrue();
+        assertThat(registry.get("memo.auth.login.throttled").tag("key", "account").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void successfulSignInsDoNotCountAgainstAccount() {
+        for (int i = 0; i < 10; i++) {
+            assertThat(limiter.tryAcquire("10.0.0." + i, "alma", null)).isTrue();
+        }
+    }
+
+    @Test
+    void throttlesEmailSeparatelyFromUsername() {
+        for (int i = 0; i < 3; i++) {
+            limiter.signInFailed(null, "alma@gmail.com");
+        }
+        assertThat(limiter.tryAcquire(null, null, "alma@gmail.com")).isFalse();
+        assertThat(limiter.tryAcquire(null, "alma", null)).isTrue();
+    }
+
+    @Test
+    void throttlesAddressAcrossAccounts() {
+        for (int i = 0; i < 5; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1", "user" + i, null)).isTrue();
+        }
+        assertThat(limiter.tryAcquire("10.0.0.1", "another", null)).isFalse();
+        assertThat(registry.get("memo.auth.login.throttled").tag("key", "address").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void windowSlidesOverTime() {
+        now.set(120000);
+        for (int i = 0; i < 5; i++) {
+            limiter.tryAcquire("10.0.0.1", null, null);
+        }
+        assertThat(limiter.tryAcquire("10.0.0.1", null, null)).isFalse();
+        // 80% through the next window, a fifth of the previous window's attempts still count.
+        now.set(228000);
+        for (int i = 0; i < 4; i++) {
+            assertThat(limiter.tryAcquire("10.0.0.1", null, null)).isTrue();
+        }
+        assertThat(limiter.tryAcquire("10.0.0.1", null, null)).isFalse();
+        now.set(300000);
+        assertThat(limiter.tryAcquire("10.0.0.1", null, null)).isTrue();
+    }
+
+    @Test
+    void idleKeysAreEvicted() {
+        limiter.tryAcquire("10.0.0.1", "alma", "alma@gmail.com");
+        limiter.signInFailed("alma", "alma@gmail.com");
+        assertThat(registry.get("memo.auth.login.tracked").gauge().value()).isEqualTo(3);
+        now.addAndGet(3 * 60000);
+        limiter.tryAcquire("10.0.0.2", "korte", null);
+        assertThat(registry.get("memo.auth.login.tracked").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void zeroLimitDisablesCheck() {
+        LoginRateLimiter unlimited = new LoginRateLimiter(registry, 0, 0, 60000, now::get);
+        for (int i = 0; i < 100; i++) {
+            assertThat(unlimited.tryAcquire("10.0.0.1", "alma", null)).isTrue();
+            unlimited.signInFailed("alma", null);
+        }
+    }
+}
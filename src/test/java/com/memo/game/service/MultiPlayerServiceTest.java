@@ -2,6 +2,7 @@ package com.memo.game.service;
 
 import com.memo.game.gameModel.MultiPlayer;
 import com.memo.game.repo.MemoMultiGameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -29,7 +30,8 @@ public class MultiPlayerServiceTest {
     void setUp() {
         MockitoAnnotations.initMocks(this);
         when(memoMultiGameRepository.save(any())).thenReturn(null);
-        multiPlayerService = new MultiPlayerService(memoMultiGameRepository);
+        multiPlayerService = new MultiPlayerService(memoMultiGameRepository,
+                new GameMetrics(new SimpleMeterRegistry()), new GameEventBuffer());
     }
 
     @Test
@@ -220,4 +222,37 @@ public class MultiPlayerServiceTest {
         List<MultiPlayer> games =  multiPlayerService.getGames();
         assertThat(games.size()).isEqualTo(0);
     }
+
+    @Test
+    void removeDisconnectedPlayerTest() {
+        multiPlayerService.joinGame(userId1, 8);
+        MultiPlayer game = multiPlayerService.joinGame(userId2, 8);
+
+        assertThat(multiPlayerService.removeDisconnectedPlayer(game.getPlayId(), userId1)).isSameAs(game);
+        assertThat(game.isGameOver()).isTrue();
+        assertThat(game.getWinner()).isEqualTo(userId2.toString());
+        assertThat(multiPlayerService.getGame(game.getPlayId())).isNull();
+        assertThat(multiPlayerService.countStartedGames()).isEqualTo(0);
+        assertThat(multiPlayerService.removeDisconnectedPlayer(game.getPlayId(), userId1)).isNull();
+    }
+
+    @Test
+    void countsFollowGamesTest() {
+        multiPlayerService.joinGame(userId1, 8);
+        MultiPlayer friendRoom = multiPlayerService.joinGameWithFriend(userId2, 8, null);
+        assertThat(multiPlayerService.countWaitingGames()).isEqualTo(1);
+        assertThat(multiPlayerService.countOpenFriendRooms()).isEqualTo(1);
+        assertThat(multiPlayerService.countStartedGames()).isEqualTo(0);
+
+        MultiPlayer game = multiPlayerService.joinGame(userId3, 8);
+        assertThat(multiPlayerService.countWaitingGames()).isEqualTo(0);
+        assertThat(multiPlayerService.countStartedGames()).isEqualTo(1);
+
+        multiPlayerService.leaveGame(userId3);
+        multiPlayerService.removeGame(friendRoom.getPlayId());
+        assertThat(multiPlayerService.getGame(game.getPlayId())).isNull();
+        assertThat(multiPlayerService.countWaitingGames()).isEqualTo(0);
+        assertThat(multiPlayerService.countOpenFriendRooms()).isEqualTo(0);
+        assertThat(multiPlayerService.countStartedGames()).isEqualTo(0);
+    }
 }
@@ -0,0 +1,63 @@
+package com.memo.game.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class PasswordHasherTest {
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PasswordHasher passwordHasher = new PasswordHasher(new GameMetrics(registry), registry, 4, 1, 1, 2);
+
+    @AfterEach
+    void tearDown() {
+        passwordHasher.shutdown();
+    }
+
+    @Test
+    void hashesWithConfiguredCostAndChecks() {
+        String hashed = passwordHasher.hash("password");
+        assertThat(hashed).startsWith("$2a$04$");
+        assertThat(passwordHasher.check("password", hashed)).isTrue();
+        assertThat(passwordHasher.check("other", hashed)).isFalse();
+        assertThat(registry.get("memo.auth.bcrypt.duration").tag("operation", "hash").timer().count()).isEqualTo(1);
+        assertThat(registry.get("memo.auth.bcrypt.queue.wait").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void rejectsOnceQueueIsFull() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Boolean> running = CompletableFuture.supplyAsync(() -> passwordHasher.run(() -> {
+            started.countDown();
+            return release.await(10, TimeUnit.SECONDS);
+        }));
+        assertThat(started.await(10, TimeUnit.SECONDS)).isTrue();
+        CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> passwordHasher.run(() -> true));
+        long deadline = System.currentTimeMillis() + 10000;
+        while (registry.get("memo.auth.bcrypt.queued").gauge().value() < 1 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertThatThrownBy(() -> passwordHasher.hash("password")).isInstanceOf(RejectedExecutionException.class);
+        assertThat(registry.get("memo.auth.bcrypt.rejected").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        assertThat(running.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(queued.get(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(passwordHasher.getRetryAfterSeconds()).isEqualTo(2);
+    }
+
+    @Test
+    void rejectsInvalidCost() {
+        assertThatThrownBy(() -> new PasswordHasher(new GameMetrics(registry), registry, 3, 1, 1, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,95 @@
+package com.memo.game.service;
+
+import com.memo.game.entity.RefreshToken;
+import com.memo.game.repo.RefreshTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class RefreshTokenServiceTest {
+    private final RefreshTokenRepository refreshTokenRepository = mock(RefreshTokenRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RefreshTokenService refreshTokenService = new RefreshTokenService(refreshTokenRepository, registry, 14);
+    private final UUID userId = UUID.randomUUID();
+
+    private RefreshToken issued(String refreshToken) {
+        ArgumentCaptor<RefreshToken> captor = ArgumentCaptor.forClass(RefreshToken.class);
+        verify(refreshTokenRepository, atLeastOnce()).save(captor.capture());
+        RefreshToken stored = captor.getValue();
+        stored.setId(UUID.randomUUID());
+        when(refreshTokenRepository.findByTokenHash(stored.getTokenHash())).thenReturn(stored);
+        return stored;
+    }
+
+    @Test
+    public void issueStoresOnlyTheHash() {
+        String refreshToken = refreshTokenService.issue(userId);
+        RefreshToken stored = issued(refreshToken);
+        assertThat(stored.getTokenHash()).isNotEqualTo(refreshToken);
+        assertThat(stored.getUserId()).isEqualTo(userId);
+        assertThat(stored.getExpiresAt().getTime()).isGreaterThan(System.currentTimeMillis());
+    }
+
+    @Test
+    public void rotateReplacesTokenWithinFamily() {
+        String refreshToken = refreshTokenService.issue(userId);
+        RefreshToken stored = issued(refreshToken);
+        when(refreshTokenRepository.markUsed(eq(stored.getId()), any())).thenReturn(1);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+
+        assertThat(rotation.userId()).isEqualTo(userId);
+        assertThat(rotation.refreshToken()).isNotEqualTo(refreshToken);
+        RefreshToken replacement = issued(rotation.refreshToken());
+        assertThat(replacement.getFamilyId()).isEqualTo(stored.getFamilyId());
+        verify(refreshTokenRepository, never()).revokeFamily(any());
+        assertThat(registry.get("memo.auth.refresh").tag("result", "rotated").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void reusedTokenRevokesFamily() {
+        String refreshToken = refreshTokenService.issue(userId);
+        RefreshToken stored = issued(refreshToken);
+        stored.setUsedAt(new Timestamp(System.currentTimeMillis()));
+
+        assertThat(refreshTokenService.rotate(refreshToken)).isNull();
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+        assertThat(registry.get("memo.auth.refresh").tag("result", "reused").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void concurrentlyUsedTokenRevokesFamily() {
+        String refreshToken = refreshTokenService.issue(userId);
+        RefreshToken stored = issued(refreshToken);
+        when(refreshTokenRepository.markUsed(eq(stored.getId()), any())).thenReturn(0);
+
+        assertThat(refreshTokenService.rotate(refreshToken)).isNull();
+        verify(refreshTokenRepository).revokeFamily(stored.getFamilyId());
+    }
+
+    @Test
+    public void unknownOrMissingTokenIsRejected() {
+        assertThat(refreshTokenService.rotate(null)).isNull();
+        assertThat(refreshTokenService.rotate("unknown")).isNull();
+        verify(refreshTokenRepository, never()).markUsed(any(), any());
+        assertThat(registry.get("memo.auth.refresh").tag("result", "rejected").counter().count()).isEqualTo(2);
+    }
+
+    @Test
+    public void revokeRevokesFamily() {
+        String refreshToken = refreshTokenService.issue(userId);
+        RefreshToken stored = issued(refreshToken);
+        refreshTokenService.revoke(refreshToken);
+        refreshTokenService.revoke(null);
+        verify(refreshTokenRepository, times(1)).revokeFamily(stored.getFamilyId());
+        verify(refreshTokenRepository, times(1)).findByTokenHash(anyString());
+    }
+}
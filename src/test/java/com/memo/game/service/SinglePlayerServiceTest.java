@@ -3,6 +3,7 @@ package com.memo.game.service;
 import com.memo.game.entity.MemoSingleGame;
 import com.memo.game.gameModel.SinglePlayer;
 import com.memo.game.repo.MemoSingleGameRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -60,7 +61,7 @@ public class SinglePlayerServiceTest {
         when(memoSingleGameRepository.save(game2)).thenReturn(game2);
         when(memoSingleGameRepository.save(game3)).thenReturn(game3);
 
-        singlePlayerService = new SinglePlayerService(memoSingleGameRepository);
+        singlePlayerService = new SinglePlayerService(memoSingleGameRepository, new GameMetrics(new SimpleMeterRegistry()));
     }
 
     @Test
@@ -1,24 +1,120 @@
 package com.memo.game.service;
 
+import com.auth0.jwt.JWT;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Date;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
 @ExtendWith(SpringExtension.class)
 public class TokenBlackListServiceTest {
-    private final TokenBlacklistService tokenBlacklistService = new TokenBlacklistService();
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+    private final TokenBlacklistService tokenBlacklistService = new TokenBlacklistService(new SimpleMeterRegistry(),
+            TokenBlacklistService.DEFAULT_EXPECTED_REVOCATIONS, TokenBlacklistService.DEFAULT_FALSE_POSITIVE_RATE, now::get);
+
+    private String token(long expiresInMillis) {
+        return JWT.create()
+                .withSubject(UUID.randomUUID().toString())
+                .withJWTId(UUID.randomUUID().toString())
+                .withExpiresAt(new Date(now.get() + expiresInMillis))
+                .sign(TokenService.ALGORITHM);
+    }
 
     @Test
     public void addTokenToBlackList() {
-        tokenBlacklistService.addToBlacklist("token");
-        assertThat(tokenBlacklistService.isBlacklisted("token")).isTrue();
+        String token = token(60000);
+        assertThat(tokenBlacklistService.addToBlacklist(token)).isTrue();
+        assertThat(tokenBlacklistService.isBlacklisted(token)).isTrue();
+        assertThat(tokenBlacklistService.addToBlacklist(token)).isFalse();
     }
 
     @Test
     public void tokenNotAddedToList() {
-        tokenBlacklistService.addToBlacklist("token");
-        assertThat(tokenBlacklistService.isBlacklisted("tok")).isFalse();
+        tokenBlacklistService.addToBlacklist(token(60000));
+        assertThat(tokenBlacklistService.isBlacklisted(token(60000))).isFalse();
+    }
+
+    @Test
+    public void tokenWithoutIdIsBlacklistedBySignature() {
+        String token = JWT.create()
+                .withSubject(UUID.randomUUID().toString())
+                .withExpiresAt(new Date(now.get() + 60000))
+                .sign(TokenService.ALGORITHM);
+        assertThat(tokenBlacklistService.addToBlacklist(token)).isTrue();
+        assertThat(tokenBlacklistService.isBlacklisted(token)).isTrue();
+    }
+
+    @Test
+    public void garbageAndExpiredTokensAreNotAdded() {
+        assertThat(tokenBlacklistService.addToBlacklist("token")).isFalse();
+        assertThat(tokenBlacklistService.isBlacklisted("token")).isFalse();
+        assertThat(tokenBlacklistService.addToBlacklist(token(-1000))).isFalse();
+        assertThat(tokenBlacklistService.size()).isZero();
+    }
+
+    @Test
+    public void tokenIsNoLongerBlacklistedOnceExpired() {
+        String token = token(60000);
+        tokenBlacklistService.addToBlacklist(token);
+        now.addAndGet(60000);
+        assertThat(tokenBlacklistService.isBlacklisted(token)).isFalse();
+    }
+
+    @Test
+    public void expiredTokensArePurgedOnLaterRevocations() {
+        for (int i = 0; i < 100; i++) {
+            tokenBlacklistService.addToBlacklist(token(60000));
+        }
+        assertThat(tokenBlacklistService.size()).isEqualTo(100);
+        now.addAndGet(2 * TokenBlacklistService.BUCKET_MILLIS + 60000);
+        String token = token(60000);
+        tokenBlacklistService.addToBlacklist(token);
+        assertThat(tokenBlacklistService.size()).isEqualTo(1);
+        assertThat(tokenBlacklistService.isBlacklisted(token)).isTrue();
+    }
+
+    @Test
+    public void lookupsAreAnsweredByTheFilterUnlessProbablyRevoked() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TokenBlacklistService blacklist = new TokenBlacklistService(registry, 100, 0.01, now::get);
+        String token = token(60000);
+        blacklist.addToBlacklist(token);
+        assertThat(blacklist.isBlacklisted(token)).isTrue();
+        for (int i = 0; i < 1000; i++) {
+            blacklist.isRevoked(UUID.randomUUID().toString());
+        }
+        double filtered = registry.get("memo.auth.blacklist.lookups").tag("result", "filtered").counter().count();
+        double falsePositives = registry.get("memo.auth.blacklist.lookups").tag("result", "false_positive").counter().count();
+        assertThat(registry.get("memo.auth.blacklist.lookups").tag("result", "revoked").counter().count()).isEqualTo(1);
+        assertThat(filtered + falsePositives).isEqualTo(1000);
+        assertThat(filtered).isGreaterThan(950);
+        assertThat(registry.get("memo.auth.blacklist.filter.bytes").gauge().value()).isPositive();
+    }
+
+    @Test
+    public void filtersAreDroppedOnceTheirTokensExpired() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TokenBlacklistService blacklist = new TokenBlacklistService(registry, 100, 0.01, now::get);
+        blacklist.addToBlacklist(token(60000));
+        assertThat(registry.get("memo.auth.blacklist.filters").gauge().value()).isEqualTo(1);
+        now.addAndGet(TokenBlacklistService.FILTER_WINDOW_MILLIS + 60000);
+        blacklist.addToBlacklist(token(60000));
+        assertThat(registry.get("memo.auth.blacklist.filters").gauge().value()).isEqualTo(1);
+        assertThat(registry.get("memo.auth.blacklist.tokens").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    public void rejectsInvalidFilterSettings() {
+        assertThatThrownBy(() -> new TokenBlacklistService(new SimpleMeterRegistry(), 0, 0.01))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBlacklistService(new SimpleMeterRegistry(), 100, 0))
+                .isInstanceOf(IllegalArgumentException.class);
     }
 }
@@ -0,0 +1,51 @@
+package com.memo.game.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class TokenBloomFilterTest {
+
+    @Test
+    void containsEveryAddedId() {
+        TokenBloomFilter filter = new TokenBloomFilter(1000, 0.01);
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            ids.add(UUID.randomUUID().toString());
+        }
+        ids.forEach(filter::put);
+        assertThat(ids).allMatch(filter::mightContain);
+    }
+
+    @Test
+    void falsePositiveRateStaysNearConfiguredRate() {
+        TokenBloomFilter filter = new TokenBloomFilter(10000, 0.01);
+        for (int i = 0; i < 10000; i++) {
+            filter.put(UUID.randomUUID().toString());
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 100000; i++) {
+            if (filter.mightContain(UUID.randomUUID().toString())) {
+                falsePositives++;
+            }
+        }
+        assertThat(falsePositives).isLessThan(1500);
+    }
+
+    @Test
+    void lowerFalsePositiveRateUsesMoreMemory() {
+        assertThat(new TokenBloomFilter(10000, 0.001).byteSize())
+                .isGreaterThan(new TokenBloomFilter(10000, 0.01).byteSize());
+    }
+
+    @Test
+    void rejectsInvalidSizing() {
+        assertThatThrownBy(() -> new TokenBloomFilter(0, 0.01)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new TokenBloomFilter(100, 1)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,92 @@
+package com.memo.game.service;
+
+import com.auth0.jwt.JWT;
+import com.memo.game.entity.RevokedToken;
+import com.memo.game.repo.RevokedTokenRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+public class TokenRevocationServiceTest {
+    private final TokenBlacklistService tokenBlacklistService = new TokenBlacklistService(new SimpleMeterRegistry(),
+            TokenBlacklistService.DEFAULT_EXPECTED_REVOCATIONS, TokenBlacklistService.DEFAULT_FALSE_POSITIVE_RATE);
+    private final RevokedTokenRepository revokedTokenRepository = mock(RevokedTokenRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenReturn(mock(Connection.class));
+        when(jdbcTemplate.getDataSource()).thenReturn(dataSource);
+        tokenRevocationService = new TokenRevocationService(tokenBlacklistService, revokedTokenRepository,
+                jdbcTemplate, registry, true);
+    }
+
+    private String token() {
+        return JWT.create()
+                .withSubject(UUID.randomUUID().toString())
+                .withJWTId(UUID.randomUUID().toString())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(TokenService.ALGORITHM);
+    }
+
+    @Test
+    public void revokeBlacklistsAndStoresToken() {
+        String token = token();
+        assertThat(tokenRevocationService.revoke(token)).isTrue();
+        assertThat(tokenBlacklistService.isBlacklisted(token)).isTrue();
+        verify(revokedTokenRepository).save(any(RevokedToken.class));
+        assertThat(tokenRevocationService.revoke(token)).isFalse();
+        verify(revokedTokenRepository, times(1)).save(any(RevokedToken.class));
+    }
+
+    @Test
+    public void revokeWithoutPostgresDoesNotNotify() {
+        tokenRevocationService.start();
+        tokenRevocationService.revoke(token());
+        verify(jdbcTemplate, never()).queryForList(anyString(), any(Object[].class));
+    }
+
+    @Test
+    public void startReplaysStoredRevocations() {
+        String tokenId = UUID.randomUUID().toString();
+        long expiresAt = System.currentTimeMillis() + 60000;
+        when(revokedTokenRepository.findByExpiresAtAfter(any())).thenReturn(List.of(
+                new RevokedToken(tokenId, new Timestamp(expiresAt), new Timestamp(System.currentTimeMillis()))));
+        tokenRevocationService.start();
+        assertThat(tokenBlacklistService.isRevoked(tokenId)).isTrue();
+        verify(revokedTokenRepository).deleteExpired(any());
+    }
+
+    @Test
+    public void receivedRevocationIsBlacklistedAndItsDelayMeasured() {
+        String tokenId = UUID.randomUUID().toString();
+        long now = System.currentTimeMillis();
+        tokenRevocationService.received("other-node," + (now + 60000) + "," + (now - 20) + "," + tokenId);
+        assertThat(tokenBlacklistService.isRevoked(tokenId)).isTrue();
+        assertThat(registry.get("memo.auth.revocation.propagation").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void malformedRevocationIsIgnored() {
+        tokenRevocationService.received("other-node,soon,now,token");
+        tokenRevocationService.received("garbage");
+        assertThat(tokenBlacklistService.size()).isZero();
+        assertThat(registry.get("memo.auth.revocation.propagation").timer().count()).isZero();
+    }
+}
@@ -1,12 +1,17 @@
 package com.memo.game.service;
 
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.memo.game.dto.UserPrincipal;
 import com.memo.game.entity.MemoUser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.util.Date;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -46,4 +51,96 @@ public class TokenServiceTest {
         String token = tokenService.generateJwtToken(MEMO_USER);
         assertThat(tokenService.extractUserIdFromToken(token)).isEqualTo(MEMO_USER.getId());
     }
+
+    @Test
+    public void tokenCarriesUserNameAndVersion() {
+        String token = tokenService.generateJwtToken(MEMO_USER);
+        assertThat(JWT.decode(token).getClaim(TokenService.USER_NAME_CLAIM).asString()).isEqualTo(MEMO_USER.getUserName());
+        UserPrincipal user = tokenService.authenticate(token);
+        assertThat(user.getUserName()).isEqualTo(MEMO_USER.getUserName());
+        assertThat(user.getUserVersion()).isEqualTo(MEMO_USER.getVersion());
+    }
+
+    @Test
+    public void tokenWithoutUserNameIsStillValid() {
+        String token = JWT.create()
+                .withSubject(MEMO_USER.getId().toString())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(TokenService.ALGORITHM);
+        UserPrincipal user = tokenService.authenticate(token);
+        assertThat(user.getUserId()).isEqualTo(MEMO_USER.getId());
+        assertThat(user.getUserName()).isNull();
+        assertThat(user.getUserVersion()).isZero();
+    }
+
+    @Test
+    public void isTokenValidWithForeignSignature() {
+        String token = JWT.create()
+                .withSubject(MEMO_USER.getId().toString())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(Algorithm.HMAC256("another secret"));
+        assertThat(tokenService.isTokenValid(token)).isFalse();
+        assertThat(tokenService.extractUserIdFromToken(token)).isNull();
+    }
+
+    @Test
+    public void isTokenValidWithTamperedPayload() {
+        String token = tokenService.generateJwtToken(MEMO_USER);
+        String[] parts = token.split("\\.");
+        String otherUser = JWT.create()
+                .withSubject(UUID.randomUUID().toString())
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60000))
+                .sign(Algorithm.none());
+        String tampered = parts[0] + "." + otherUser.split("\\.")[1] + "." + parts[2];
+        assertThat(tokenService.isTokenValid(tampered)).isFalse();
+    }
+
+    @Test
+    public void isTokenValidWhenExpired() {
+        String token = JWT.create()
+                .withSubject(MEMO_USER.getId().toString())
+                .withExpiresAt(new Date(System.currentTimeMillis() - 60000))
+                .sign(TokenService.ALGORITHM);
+        assertThat(tokenService.isTokenValid(token)).isFalse();
+        assertThat(tokenService.extractUserIdFromToken(token)).isNull();
+    }
+
+    @Test
+    public void isTokenValidWithoutExpiry() {
+        String token = JWT.create()
+                .withSubject(MEMO_USER.getId().toString())
+                .sign(TokenService.ALGORITHM);
+        assertThat(tokenService.isTokenValid(token)).isFalse();
+    }
+
+    @Test
+    public void isTokenValidWhenBlacklisted() {
+        TokenBlacklistService blacklist = new TokenBlacklistService(new SimpleMeterRegistry(),
+                TokenBlacklistService.DEFAULT_EXPECTED_REVOCATIONS, TokenBlacklistService.DEFAULT_FALSE_POSITIVE_RATE);
+        TokenService service = new TokenService(blacklist);
+        String token = service.generateJwtToken(MEMO_USER);
+        assertThat(service.isTokenValid(token)).isTrue();
+        blacklist.addToBlacklist(token);
+        assertThat(service.isTokenValid(token)).isFalse();
+        assertThat(service.isTokenValid(service.generateJwtToken(MEMO_USER))).isTrue();
+    }
+
+    @Test
+    public void authenticateReturnsUserUntilBlacklisted() {
+        TokenBlacklistService blacklist = new TokenBlacklistService(new SimpleMeterRegistry(),
+                TokenBlacklistService.DEFAULT_EXPECTED_REVOCATIONS, TokenBlacklistService.DEFAULT_FALSE_POSITIVE_RATE);
+        TokenService service = new TokenService(blacklist);
+        String token = service.generateJwtToken(MEMO_USER);
+        assertThat(service.authenticate(token).getUserId()).isEqualTo(MEMO_USER.getId());
+        blacklist.addToBlacklist(token);
+        assertThat(service.authenticate(token)).isNull();
+        assertThat(service.authenticate(null)).isNull();
+        assertThat(service.authenticate("not a token")).isNull();
+    }
+
+    @Test
+    public void isTokenValidWithGarbage() {
+        assertThat(tokenService.isTokenValid("not a token")).isFalse();
+        assertThat(tokenService.extractUserIdFromToken("not a token")).isNull();
+    }
 }
@@ -0,0 +1,92 @@
+package com.memo.game.service;
+
+import com.memo.game.dto.UserPrincipal;
+import com.memo.game.entity.MemoUser;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+public class UserNameDirectoryTest {
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicLong now = new AtomicLong(1000000);
+    private UserService userService;
+    private UserNameDirectory directory;
+
+    @BeforeEach
+    public void setUp() {
+        userService = mock(UserService.class);
+        directory = new UserNameDirectory(userService, 2, now::get);
+    }
+
+    private MemoUser user(String userName, long version) {
+        MemoUser user = new MemoUser(userName, userName + "@gmail.com", "password");
+        user.setId(userId);
+        user.setUpdatedAt(new Timestamp(version));
+        return user;
+    }
+
+    @Test
+    public void rememberedNameIsNotLookedUp() {
+        directory.remember(new UserPrincipal(userId, "alma", 5));
+
+        assertThat(directory.getUserNameById(userId)).isEqualTo("alma");
+        verifyNoInteractions(userService);
+    }
+
+    @Test
+    public void unknownNameIsLookedUpOnce() {
+        when(userService.getById(userId)).thenReturn(user("alma", 5));
+
+        assertThat(directory.getUserNameById(userId)).isEqualTo("alma");
+        assertThat(directory.getUserNameById(userId)).isEqualTo("alma");
+        verify(userService, times(1)).getById(userId);
+    }
+
+    @Test
+    public void olderVersionDoesNotReplaceNewerName() {
+        directory.remember(new UserPrincipal(userId, "korte", 6));
+        directory.remember(new UserPrincipal(userId, "alma", 5));
+        assertThat(directory.getUserNameById(userId)).isEqualTo("korte");
+
+        directory.remember(new UserPrincipal(userId, "szilva", 7));
+        assertThat(directory.getUserNameById(userId)).isEqualTo("szilva");
+    }
+
+    @Test
+    public void tokenWithoutNameIsIgnored() {
+        directory.remember(new UserPrincipal(userId));
+
+        assertThat(directory.size()).isZero();
+    }
+
+    @Test
+    public void expiredNameIsLookedUpAgain() {
+        directory.remember(new UserPrincipal(userId, "alma", 5));
+        now.addAndGet(UserNameDirectory.TIME_TO_LIVE_MILLIS);
+        when(userService.getById(userId)).thenReturn(user("korte", 6));
+
+        assertThat(directory.getUserNameById(userId)).isEqualTo("korte");
+    }
+
+    @Test
+    public void fullDirectoryEvictsLeastRecentlyUsedName() {
+        UUID evictedId = UUID.randomUUID();
+        directory.remember(new UserPrincipal(evictedId, "alma", 1));
+        directory.remember(new UserPrincipal(UUID.randomUUID(), "korte", 1));
+        when(userService.getById(userId)).thenReturn(user("szilva", 1));
+
+        assertThat(directory.getUserNameById(userId)).isEqualTo("szilva");
+        assertThat(directory.getUserNameById(userId)).isEqualTo("szilva");
+        assertThat(directory.size()).isEqualTo(2);
+        verify(userService, times(1)).getById(userId);
+
+        directory.getUserNameById(evictedId);
+        verify(userService).getById(evictedId);
+    }
+}
@@ -2,17 +2,24 @@ package com.memo.game.service;
 
 import com.memo.game.entity.MemoUser;
 import com.memo.game.repo.MemoUserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.sql.SQLException;
 import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(SpringExtension.class)
@@ -72,5 +79,49 @@ public class UserServiceTest {
     public void getUserNameByIdTest() {
         String userName = userService.getUserNameById(user1.getId());
         assertThat(userName).isEqualTo(name1);
+        verify(memoUserRepository, times(1)).findById(id1);
+    }
+
+    @Test
+    public void getUserNameByUnknownIdTest() {
+        when(memoUserRepository.findById(any())).thenReturn(Optional.empty());
+        assertThat(userService.getUserNameById(UUID.randomUUID())).isNull();
+        assertThat(userService.getUserNameById(null)).isNull();
+    }
+
+    private static DataIntegrityViolationException violation(String constraintName) {
+        return new DataIntegrityViolationException("could not execute statement",
+                new ConstraintViolationException("duplicate key", new SQLException("duplicate key", "23505"), constraintName));
+    }
+
+    @Test
+    public void registerTest() {
+        MemoUser user = new MemoUser("newName", "new@gmail.com", "password");
+        when(memoUserRepository.saveAndFlush(user)).thenReturn(user);
+        assertThat(userService.register(user)).isEqualTo(UserService.Registration.CREATED);
+    }
+
+    @Test
+    public void registerWithExistingEmailTest() {
+        MemoUser user = new MemoUser("newName", email1, "password");
+        when(memoUserRepository.saveAndFlush(user)).thenThrow(violation(MemoUser.EMAIL_CONSTRAINT));
+        assertThat(userService.register(user)).isEqualTo(UserService.Registration.EXISTING_EMAIL);
+    }
+
+    @Test
+    public void registerWithExistingUserNameTest() {
+        MemoUser user = new MemoUser(name1, "new@gmail.com", "password");
+        // H2 reports the index behind the constraint, in upper case.
+        when(memoUserRepository.saveAndFlush(user))
+                .thenThrow(violation("PUBLIC.MEMO_USERS_USER_NAME_KEY_INDEX_8 ON PUBLIC.MEMO_USERS(USER_NAME)"));
+        assertThat(userService.register(user)).isEqualTo(UserService.Registration.EXISTING_USERNAME);
+    }
+
+    @Test
+    public void registerWithOtherViolationTest() {
+        MemoUser user = new MemoUser("newName", "new@gmail.com", null);
+        DataIntegrityViolationException violation = violation("memo_users_password_not_null");
+        when(memoUserRepository.saveAndFlush(user)).thenThrow(violation);
+        assertThatThrownBy(() -> userService.register(user)).isSameAs(violation);
     }
 }
@@ -0,0 +1,53 @@
+package com.memo.game.service;
+
+import com.memo.game.dto.UserPrincipal;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class VerifiedTokenCacheTest {
+    private final UUID userId = UUID.randomUUID();
+
+    private VerifiedTokenCache.VerifiedToken verified(long expiresAtMillis) {
+        return new VerifiedTokenCache.VerifiedToken(new UserPrincipal(userId), UUID.randomUUID().toString(), expiresAtMillis);
+    }
+
+    @Test
+    void getReturnsCachedToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", verified(System.currentTimeMillis() + 60000));
+        assertThat(cache.get("token").userId()).isEqualTo(userId);
+        assertThat(cache.get("other")).isNull();
+    }
+
+    @Test
+    void getDropsExpiredToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", verified(System.currentTimeMillis() - 1));
+        assertThat(cache.get("token")).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void putEvictsLeastRecentlyUsedTokenWhenFull() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(2);
+        cache.put("old", verified(System.currentTimeMillis() + 60000));
+        cache.put("used", verified(System.currentTimeMillis() + 60000));
+        cache.get("old");
+        cache.put("new", verified(System.currentTimeMillis() + 60000));
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get("used")).isNull();
+        assertThat(cache.get("old").userId()).isEqualTo(userId);
+        assertThat(cache.get("new").userId()).isEqualTo(userId);
+    }
+
+    @Test
+    void removeDropsToken() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10);
+        cache.put("token", verified(System.currentTimeMillis() + 60000));
+        cache.remove("token");
+        assertThat(cache.get("token")).isNull();
+    }
+}